@@ -0,0 +1,57 @@
+package ar.uba.fi.ingsoft1.product_example.benchmarks;
+
+import ar.uba.fi.ingsoft1.product_example.ProductExampleApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the whole application for benchmarks that go through Spring, on a random port and a fresh
+ * schema. {@code database} is {@code h2} (in memory) or {@code postgres}, which connects to
+ * {@code benchmark.postgres.url} (default {@code jdbc:postgresql://127.0.0.1:20001/products_benchmark})
+ * and drops its tables on close, so point it at a scratch database, never at the development one.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String database, List<String> overrides) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--debug=false",
+                "--logging.level.root=WARN",
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.mail.host=localhost",
+                "--security.rate-limit.enabled=false"
+        ));
+        args.addAll(dataSource(database));
+        args.addAll(overrides);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductExampleApplication.class)
+                .run(args.toArray(String[]::new));
+        context.getBean(JdbcTemplate.class).update("INSERT INTO order_status (id, name) VALUES (1, 'confirmed')");
+        return context;
+    }
+
+    private static List<String> dataSource(String database) {
+        if (database.equals("postgres")) {
+            return List.of(
+                    "--spring.datasource.url=" + System.getProperty("benchmark.postgres.url",
+                            "jdbc:postgresql://127.0.0.1:20001/products_benchmark"),
+                    "--spring.datasource.username=" + System.getProperty("benchmark.postgres.username", "postgres"),
+                    "--spring.datasource.password=" + System.getProperty("benchmark.postgres.password", "dev-password")
+            );
+        }
+        return List.of(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;NON_KEYWORDS=DAY",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password="
+        );
+    }
+}
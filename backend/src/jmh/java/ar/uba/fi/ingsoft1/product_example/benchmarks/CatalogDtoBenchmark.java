@@ -0,0 +1,129 @@
+package ar.uba.fi.ingsoft1.product_example.benchmarks;
+
+import ar.uba.fi.ingsoft1.product_example.Combos.Combo;
+import ar.uba.fi.ingsoft1.product_example.Combos.ComboDTO;
+import ar.uba.fi.ingsoft1.product_example.Ingredients.Ingredient;
+import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSection;
+import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSectionDTO;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredient;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientId;
+import ar.uba.fi.ingsoft1.product_example.Products.Product;
+import ar.uba.fi.ingsoft1.product_example.Products.ProductDTO;
+import ar.uba.fi.ingsoft1.product_example.Tags.Tag;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a menu of {@code sections} sections with 15 products (each with 3 tags and 4 ingredients)
+ * and 5 combos to DTOs and serializes it, i.e. the CPU side of {@code GET /menus} and
+ * {@code GET /products} once the entities are loaded. Images are left out; their cost is covered by
+ * {@link MenuPayloadBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogDtoBenchmark {
+
+    private static final int PRODUCTS_PER_SECTION = 15;
+    private static final int COMBOS_PER_SECTION = 5;
+
+    @Param({"1", "6", "24"})
+    public int sections;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private List<MenuSection> menu;
+    private List<Product> products;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Tag> tags = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Tag tag = new Tag("Tag " + i);
+            tag.setId((long) i + 1);
+            tags.add(tag);
+        }
+        List<Ingredient> ingredients = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Ingredient ingredient = new Ingredient("Ingredient " + i, "-", 1_000);
+            ingredient.setId((long) i + 1);
+            ingredients.add(ingredient);
+        }
+
+        menu = new ArrayList<>();
+        products = new ArrayList<>();
+        long nextId = 1;
+        for (int s = 0; s < sections; s++) {
+            MenuSection section = new MenuSection("Section " + s, "Lunch section " + s);
+            section.setId((long) s + 1);
+            for (int i = 0; i < PRODUCTS_PER_SECTION; i++) {
+                Product product = new Product("Product " + nextId, "Description", new BigDecimal("1500.00"));
+                product.setId(nextId++);
+                for (int t = 0; t < 3; t++) {
+                    product.getTags().add(tags.get((i + t) % tags.size()));
+                }
+                for (int k = 0; k < 4; k++) {
+                    Ingredient ingredient = ingredients.get((i + k) % ingredients.size());
+                    product.getProductIngredients().add(new ProductIngredient(
+                            new ProductIngredientId(product.getId(), ingredient.getId()), product, ingredient, 1 + k));
+                }
+                product.getMenuSections().add(section);
+                section.getProducts().add(product);
+                products.add(product);
+            }
+            for (int i = 0; i < COMBOS_PER_SECTION; i++) {
+                Combo combo = new Combo("Combo " + nextId, "Description", new BigDecimal("2500.00"));
+                combo.setId(nextId++);
+                section.getCombos().add(combo);
+            }
+            menu.add(section);
+        }
+    }
+
+    @Benchmark
+    public List<ProductDTO> productDtoConstructor() {
+        List<ProductDTO> dtos = new ArrayList<>(products.size());
+        for (Product product : products) {
+            dtos.add(new ProductDTO(product, true));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public byte[] menuSectionJson() throws JsonProcessingException {
+        List<MenuSectionDTO> payload = new ArrayList<>(menu.size());
+        for (MenuSection section : menu) {
+            payload.add(sectionDto(section));
+        }
+        return mapper.writeValueAsBytes(payload);
+    }
+
+    // Every item available, as MenuSectionService would map it with a warm AvailabilityIndex
+    static MenuSectionDTO sectionDto(MenuSection section) {
+        return new MenuSectionDTO(
+                section.getId(),
+                section.getLabel(),
+                section.getDescription(),
+                section.getProducts().stream().map(product -> new ProductDTO(product, true)).toList(),
+                section.getCombos().stream().map(combo -> new ComboDTO(combo, true)).toList());
+    }
+}
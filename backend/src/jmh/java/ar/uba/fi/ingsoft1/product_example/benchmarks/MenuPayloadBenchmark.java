@@ -0,0 +1,119 @@
+package ar.uba.fi.ingsoft1.product_example.benchmarks;
+
+import ar.uba.fi.ingsoft1.product_example.Combos.Combo;
+import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSection;
+import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSectionDTO;
+import ar.uba.fi.ingsoft1.product_example.Products.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a lunch-sized {@code GET /menus} payload twice: the legacy shape, where every product
+ * and combo carried its image inline (Base64 in JSON), and the current shape, where DTOs only carry
+ * the content-hashed image URL. Payload sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuPayloadBenchmark {
+
+    record LegacyItemDTO(long id, String name, String description, BigDecimal price, byte[] image, Boolean available) {
+    }
+
+    record LegacySectionDTO(long id, String label, String description,
+                            List<LegacyItemDTO> products, List<LegacyItemDTO> combos) {
+    }
+
+    @Param({"6"})
+    public int sections;
+
+    @Param({"15"})
+    public int itemsPerSection;
+
+    @Param({"65536", "524288"})
+    public int imageBytes;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private List<MenuSection> menu;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        Random random = new Random(42);
+        menu = new ArrayList<>();
+        long nextId = 1;
+
+        for (int s = 0; s < sections; s++) {
+            MenuSection section = new MenuSection("Section " + s, "Lunch section " + s);
+            section.setId((long) s + 1);
+
+            for (int i = 0; i < itemsPerSection; i++) {
+                byte[] image = new byte[imageBytes];
+                random.nextBytes(image);
+
+                Product product = new Product("Product " + nextId, "Description", new BigDecimal("1500.00"));
+                product.setId(nextId++);
+                product.setImage(image);
+                section.getProducts().add(product);
+
+                if (i % 3 == 0) {
+                    Combo combo = new Combo("Combo " + nextId, "Description", new BigDecimal("2500.00"));
+                    combo.setId(nextId++);
+                    combo.setImage(image);
+                    section.getCombos().add(combo);
+                }
+            }
+            menu.add(section);
+        }
+
+        System.out.printf("%nmenu payload: legacy=%d bytes, current=%d bytes%n",
+                legacyMenu().length, currentMenu().length);
+    }
+
+    @Benchmark
+    public byte[] legacyMenu() throws JsonProcessingException {
+        List<LegacySectionDTO> payload = menu.stream()
+                .map(section -> new LegacySectionDTO(
+                        section.getId(),
+                        section.getLabel(),
+                        section.getDescription(),
+                        section.getProducts().stream()
+                                .map(p -> new LegacyItemDTO(p.getId(), p.getName(), p.getDescription(),
+                                        p.getPrice(), p.getImage(), true))
+                                .toList(),
+                        section.getCombos().stream()
+                                .map(c -> new LegacyItemDTO(c.getId(), c.getName(), c.getDescription(),
+                                        c.getPrice(), c.getImage(), true))
+                                .toList()))
+                .toList();
+        return mapper.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public byte[] currentMenu() throws JsonProcessingException {
+        List<MenuSectionDTO> payload = menu.stream()
+                .map(CatalogDtoBenchmark::sectionDto)
+                .toList();
+        return mapper.writeValueAsBytes(payload);
+    }
+}
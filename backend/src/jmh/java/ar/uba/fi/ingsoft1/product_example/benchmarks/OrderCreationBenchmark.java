@@ -0,0 +1,98 @@
+package ar.uba.fi.ingsoft1.product_example.benchmarks;
+
+import ar.uba.fi.ingsoft1.product_example.Ingredients.Ingredient;
+import ar.uba.fi.ingsoft1.product_example.Ingredients.IngredientRepository;
+import ar.uba.fi.ingsoft1.product_example.OrderDetails.OrderDetailCreateDTO;
+import ar.uba.fi.ingsoft1.product_example.Orders.OrderCreateDTO;
+import ar.uba.fi.ingsoft1.product_example.Orders.OrderDTO;
+import ar.uba.fi.ingsoft1.product_example.Orders.OrderService;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredient;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientId;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientRepository;
+import ar.uba.fi.ingsoft1.product_example.Products.Product;
+import ar.uba.fi.ingsoft1.product_example.Products.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Places one order with {@code lines} details through {@link OrderService#createOrder}, on a fresh
+ * schema in the given {@code database}. {@code tuning=on} runs with the persistence settings from
+ * {@code application.properties} (JDBC batching, ordered inserts and updates, pooled-lo ids);
+ * {@code tuning=off} turns them back to Hibernate's defaults. See {@link BenchmarkApplication} for
+ * the databases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderCreationBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int lines;
+
+    @Param({"h2"})
+    public String database;
+
+    @Param({"off", "on"})
+    public String tuning;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderCreateDTO order;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> overrides = tuning.equals("off")
+                ? List.of(
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=0",
+                        "--spring.jpa.properties.hibernate.order_inserts=false",
+                        "--spring.jpa.properties.hibernate.order_updates=false",
+                        "--spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=pooled")
+                : List.of();
+        context = BenchmarkApplication.start(database, overrides);
+        orderService = context.getBean(OrderService.class);
+
+        Ingredient flour = context.getBean(IngredientRepository.class)
+                .save(new Ingredient("Flour", "-", 1_000_000_000));
+        ProductRepository products = context.getBean(ProductRepository.class);
+        ProductIngredientRepository compositions = context.getBean(ProductIngredientRepository.class);
+        List<OrderDetailCreateDTO> details = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            Product product = products.save(new Product("Product " + i, "-", BigDecimal.TEN));
+            compositions.save(new ProductIngredient(
+                    new ProductIngredientId(product.getId(), flour.getId()), product, flour, 1));
+            details.add(new OrderDetailCreateDTO(product.getId(), null, 1));
+        }
+        order = new OrderCreateDTO(details);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<OrderDTO> createOrder() {
+        return orderService.createOrder(order, null);
+    }
+}
@@ -0,0 +1,59 @@
+package ar.uba.fi.ingsoft1.product_example.benchmarks;
+
+import ar.uba.fi.ingsoft1.product_example.OrderDetails.OrderDetail;
+import ar.uba.fi.ingsoft1.product_example.Orders.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OrderDetail#calculateTotal()} over every line of a synthetic order and
+ * {@link Order#calculateTotal()} on the whole order, for 1 to 50 lines (see {@link SyntheticOrders}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int lines;
+
+    private Order order;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        order = new SyntheticOrders(new Random(42)).order(lines);
+    }
+
+    @Benchmark
+    public BigDecimal detailTotals() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (OrderDetail detail : order.getDetails()) {
+            detail.calculateTotal();
+            sum = sum.add(detail.getTotalPrice());
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public BigDecimal orderTotal() {
+        order.calculateTotal();
+        return order.getTotalPrice();
+    }
+}
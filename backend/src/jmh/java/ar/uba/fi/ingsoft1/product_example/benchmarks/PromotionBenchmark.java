@@ -0,0 +1,112 @@
+package ar.uba.fi.ingsoft1.product_example.benchmarks;
+
+import ar.uba.fi.ingsoft1.product_example.OrderDetails.OrderDetail;
+import ar.uba.fi.ingsoft1.product_example.Orders.Order;
+import ar.uba.fi.ingsoft1.product_example.Promotions.BuyGiveFreePromotion;
+import ar.uba.fi.ingsoft1.product_example.Promotions.BuyXPayYPromotion;
+import ar.uba.fi.ingsoft1.product_example.Promotions.PercentageDiscountPromotion;
+import ar.uba.fi.ingsoft1.product_example.Promotions.Promotion;
+import ar.uba.fi.ingsoft1.product_example.Promotions.ThresholdDiscountPromotion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calls {@link Promotion#apply} for {@code promotions} promotions of one {@code type} against a
+ * synthetic order of {@code lines} lines (see {@link SyntheticOrders}). Every promotion covers four
+ * products and one combo, so larger sets both add work per line and make more lines match. Each
+ * invocation first clears the discounts left by the previous one, which costs one setter per line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromotionBenchmark {
+
+    private static final int PRODUCTS_PER_PROMOTION = 4;
+
+    @Param({"1", "10", "50"})
+    public int lines;
+
+    @Param({"1", "10", "100"})
+    public int promotions;
+
+    @Param({"buyXPayY", "percentage", "buyGiveFree", "threshold"})
+    public String type;
+
+    private Order order;
+    private List<Promotion> active;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticOrders catalog = new SyntheticOrders(new Random(42));
+        order = catalog.order(lines);
+
+        active = new ArrayList<>();
+        for (int i = 0; i < promotions; i++) {
+            Promotion promotion = promotion(i);
+            promotion.setId((long) i + 1);
+            promotion.setName("Promotion " + i);
+            for (int j = 0; j < PRODUCTS_PER_PROMOTION; j++) {
+                promotion.getProducts().add(catalog.anyProduct());
+            }
+            promotion.getCombos().add(catalog.anyCombo());
+            if (promotion instanceof BuyGiveFreePromotion gift) {
+                gift.getFreeProducts().add(catalog.anyProduct());
+            }
+            active.add(promotion);
+        }
+    }
+
+    private Promotion promotion(int i) {
+        return switch (type) {
+            case "buyXPayY" -> {
+                BuyXPayYPromotion promotion = new BuyXPayYPromotion();
+                promotion.setBuyQuantity(2);
+                promotion.setPayQuantity(1);
+                yield promotion;
+            }
+            case "percentage" -> new PercentageDiscountPromotion(BigDecimal.valueOf(5 + i % 20));
+            case "buyGiveFree" -> {
+                BuyGiveFreePromotion promotion = new BuyGiveFreePromotion();
+                promotion.setOneFreePerTrigger(i % 2 == 0);
+                yield promotion;
+            }
+            case "threshold" -> new ThresholdDiscountPromotion(BigDecimal.valueOf(1000L * (i + 1)), BigDecimal.valueOf(100));
+            default -> throw new IllegalArgumentException("Unknown promotion type: " + type);
+        };
+    }
+
+    @Benchmark
+    public BigDecimal apply() {
+        order.setDiscount(BigDecimal.ZERO);
+        for (OrderDetail detail : order.getDetails()) {
+            detail.setDiscount(BigDecimal.ZERO);
+            detail.calculateTotal();
+        }
+        order.calculateTotal();
+
+        for (Promotion promotion : active) {
+            promotion.apply(order);
+        }
+        order.calculateTotal();
+        return order.getTotalPrice();
+    }
+}
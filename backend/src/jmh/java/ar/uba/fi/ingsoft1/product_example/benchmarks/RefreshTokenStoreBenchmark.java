@@ -0,0 +1,207 @@
+package ar.uba.fi.ingsoft1.product_example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One session refresh (look the token up, delete it, store its replacement) against an in-memory
+ * H2 table already holding {@code rows} tokens. {@code legacyStringKey} uses the old layout, where
+ * the base-32 token itself was a VARCHAR primary key; {@code hashedBinaryKey} uses the current one,
+ * a 32-byte SHA-256 key, hashing included, plus the expiry and per-user indexes it maintains. Run
+ * with {@code -p rows=...} to compare an unpurged legacy table against a swept one of live size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RefreshTokenStoreBenchmark {
+
+    private static final int TOKEN_BYTES = 20;
+    private static final int LIVE_SAMPLE = 10_000;
+    private static final int INSERT_BATCH = 10_000;
+
+    @Param({"1000000"})
+    public int rows;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private Connection connection;
+
+    private PreparedStatement legacySelect;
+    private PreparedStatement legacyDelete;
+    private PreparedStatement legacyInsert;
+    private PreparedStatement hashedSelect;
+    private PreparedStatement hashedDelete;
+    private PreparedStatement hashedInsert;
+
+    private String[] legacyLive;
+    private String[] hashedLive;
+    private int legacyCursor;
+    private int hashedCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:refresh-tokens;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE legacy_refresh_token (
+                        token_value VARCHAR(255) PRIMARY KEY,
+                        user_id BIGINT NOT NULL,
+                        expires_at TIMESTAMP WITH TIME ZONE NOT NULL)
+                    """);
+            statement.execute("""
+                    CREATE TABLE refresh_tokens (
+                        token_hash BINARY(32) PRIMARY KEY,
+                        user_id BIGINT NOT NULL,
+                        expires_at TIMESTAMP WITH TIME ZONE NOT NULL)
+                    """);
+            statement.execute("CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens (expires_at)");
+            statement.execute("CREATE INDEX idx_refresh_tokens_user ON refresh_tokens (user_id, expires_at)");
+        }
+
+        legacySelect = connection.prepareStatement("SELECT user_id, expires_at FROM legacy_refresh_token WHERE token_value = ?");
+        legacyDelete = connection.prepareStatement("DELETE FROM legacy_refresh_token WHERE token_value = ?");
+        legacyInsert = connection.prepareStatement("INSERT INTO legacy_refresh_token (token_value, user_id, expires_at) VALUES (?, ?, ?)");
+        hashedSelect = connection.prepareStatement("SELECT user_id, expires_at FROM refresh_tokens WHERE token_hash = ?");
+        hashedDelete = connection.prepareStatement("DELETE FROM refresh_tokens WHERE token_hash = ?");
+        hashedInsert = connection.prepareStatement("INSERT INTO refresh_tokens (token_hash, user_id, expires_at) VALUES (?, ?, ?)");
+
+        legacyLive = new String[LIVE_SAMPLE];
+        hashedLive = new String[LIVE_SAMPLE];
+        connection.setAutoCommit(false);
+        for (int i = 0; i < rows; i++) {
+            String legacy = legacyToken();
+            String hashed = hashedToken();
+            if (i < LIVE_SAMPLE) {
+                legacyLive[i] = legacy;
+                hashedLive[i] = hashed;
+            }
+            bindLegacy(legacy, i % 5_000);
+            legacyInsert.addBatch();
+            bindHashed(hashed, i % 5_000);
+            hashedInsert.addBatch();
+            if ((i + 1) % INSERT_BATCH == 0) {
+                legacyInsert.executeBatch();
+                hashedInsert.executeBatch();
+                connection.commit();
+            }
+        }
+        legacyInsert.executeBatch();
+        hashedInsert.executeBatch();
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public long legacyStringKey() throws SQLException {
+        int slot = legacyCursor;
+        legacyCursor = (legacyCursor + 1) % LIVE_SAMPLE;
+        String token = legacyLive[slot];
+
+        legacySelect.setString(1, token);
+        long userId = userOf(legacySelect);
+        legacyDelete.setString(1, token);
+        legacyDelete.executeUpdate();
+
+        String replacement = legacyToken();
+        bindLegacy(replacement, userId);
+        legacyInsert.executeUpdate();
+        legacyLive[slot] = replacement;
+        return userId;
+    }
+
+    @Benchmark
+    public long hashedBinaryKey() throws SQLException {
+        int slot = hashedCursor;
+        hashedCursor = (hashedCursor + 1) % LIVE_SAMPLE;
+        byte[] hash = sha256(hashedLive[slot]);
+
+        hashedSelect.setBytes(1, hash);
+        long userId = userOf(hashedSelect);
+        hashedDelete.setBytes(1, hash);
+        hashedDelete.executeUpdate();
+
+        String replacement = hashedToken();
+        bindHashed(replacement, userId);
+        hashedInsert.executeUpdate();
+        hashedLive[slot] = replacement;
+        return userId;
+    }
+
+    private void bindLegacy(String token, long userId) throws SQLException {
+        legacyInsert.setString(1, token);
+        legacyInsert.setLong(2, userId);
+        legacyInsert.setTimestamp(3, Timestamp.from(Instant.now().plusSeconds(2_592_000)));
+    }
+
+    private void bindHashed(String token, long userId) throws SQLException {
+        hashedInsert.setBytes(1, sha256(token));
+        hashedInsert.setLong(2, userId);
+        hashedInsert.setTimestamp(3, Timestamp.from(Instant.now().plusSeconds(2_592_000)));
+    }
+
+    private static long userOf(PreparedStatement select) throws SQLException {
+        try (ResultSet resultSet = select.executeQuery()) {
+            if (!resultSet.next()) {
+                throw new IllegalStateException("Token vanished");
+            }
+            return resultSet.getLong(1);
+        }
+    }
+
+    private String legacyToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return new BigInteger(1, bytes).toString(32);
+    }
+
+    private String hashedToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
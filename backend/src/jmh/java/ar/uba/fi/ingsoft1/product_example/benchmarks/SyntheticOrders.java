@@ -0,0 +1,70 @@
+package ar.uba.fi.ingsoft1.product_example.benchmarks;
+
+import ar.uba.fi.ingsoft1.product_example.Combos.Combo;
+import ar.uba.fi.ingsoft1.product_example.OrderDetails.OrderDetail;
+import ar.uba.fi.ingsoft1.product_example.Orders.Order;
+import ar.uba.fi.ingsoft1.product_example.Products.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * In-memory catalog and orders for the pricing benchmarks: 200 products and 40 combos with ids
+ * set, and priced orders where every fifth line is a combo and quantities run from 1 to 4.
+ */
+final class SyntheticOrders {
+
+    static final int PRODUCTS = 200;
+    static final int COMBOS = 40;
+
+    final List<Product> products = new ArrayList<>();
+    final List<Combo> combos = new ArrayList<>();
+    private final Random random;
+
+    SyntheticOrders(Random random) {
+        this.random = random;
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product("Product " + i, "-", BigDecimal.valueOf(500 + random.nextInt(3000)));
+            product.setId((long) i + 1);
+            products.add(product);
+        }
+        for (int i = 0; i < COMBOS; i++) {
+            Combo combo = new Combo("Combo " + i, "-", BigDecimal.valueOf(2000 + random.nextInt(4000)));
+            combo.setId((long) PRODUCTS + i + 1);
+            combos.add(combo);
+        }
+    }
+
+    Product anyProduct() {
+        return products.get(random.nextInt(PRODUCTS));
+    }
+
+    Combo anyCombo() {
+        return combos.get(random.nextInt(COMBOS));
+    }
+
+    Order order(int lines) {
+        Order order = new Order(LocalDateTime.now(), BigDecimal.ZERO);
+        for (int i = 0; i < lines; i++) {
+            OrderDetail detail = new OrderDetail();
+            if (i % 5 == 4) {
+                Combo combo = anyCombo();
+                detail.setCombo(combo);
+                detail.setPrice(combo.getPrice());
+            } else {
+                Product product = anyProduct();
+                detail.setProduct(product);
+                detail.setPrice(product.getPrice());
+            }
+            detail.setQuantity(1 + random.nextInt(4));
+            detail.setDiscount(BigDecimal.ZERO);
+            detail.calculateTotal();
+            order.addDetail(detail);
+        }
+        order.calculateTotal();
+        return order;
+    }
+}
@@ -0,0 +1,129 @@
+package ar.uba.fi.ingsoft1.product_example.benchmarks;
+
+import ar.uba.fi.ingsoft1.product_example.Ingredients.Ingredient;
+import ar.uba.fi.ingsoft1.product_example.Ingredients.IngredientRepository;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredient;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientId;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientRepository;
+import ar.uba.fi.ingsoft1.product_example.Products.Product;
+import ar.uba.fi.ingsoft1.product_example.Products.ProductRepository;
+import ar.uba.fi.ingsoft1.product_example.config.security.JwtService;
+import ar.uba.fi.ingsoft1.product_example.config.security.JwtUserDetails;
+import ar.uba.fi.ingsoft1.product_example.user.User;
+import ar.uba.fi.ingsoft1.product_example.user.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP load against a running application, with Tomcat and {@code @Async} work on platform threads
+ * ({@code threads=platform}) or on virtual threads with the connection bulkhead
+ * ({@code threads=virtual}). 256 concurrent clients list products and place single-line orders;
+ * {@code SampleTime} reports p99 next to the throughput. H2 answers too fast for request threads to
+ * block for long, so compare the modes on {@code -p database=postgres} (see
+ * {@link BenchmarkApplication}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(256)
+public class ThreadModeLoadBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"h2"})
+    public String database;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest listProducts;
+    private HttpRequest placeOrder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean virtual = threads.equals("virtual");
+        context = BenchmarkApplication.start(database, List.of(
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--datasource.bulkhead.enabled=" + virtual));
+
+        Ingredient flour = context.getBean(IngredientRepository.class)
+                .save(new Ingredient("Flour", "-", 1_000_000_000));
+        ProductRepository products = context.getBean(ProductRepository.class);
+        ProductIngredientRepository compositions = context.getBean(ProductIngredientRepository.class);
+        Product first = null;
+        for (int i = 0; i < 40; i++) {
+            Product product = products.save(new Product("Product " + i, "-", BigDecimal.TEN));
+            compositions.save(new ProductIngredient(
+                    new ProductIngredientId(product.getId(), flour.getId()), product, flour, 1));
+            first = first == null ? product : first;
+        }
+
+        User staff = new User("staff@fi.uba.ar", "-", "ROLE_STAFF", null);
+        staff.setVerified(true);
+        context.getBean(UserRepository.class).save(staff);
+        String token = context.getBean(JwtService.class).createToken(new JwtUserDetails(staff.getUsername(), staff.getRole()));
+
+        String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                + context.getEnvironment().getProperty("server.servlet.context-path", "");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        listProducts = HttpRequest.newBuilder(URI.create(base + "/products"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        placeOrder = HttpRequest.newBuilder(URI.create(base + "/orders"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"details\":[{\"productId\":" + first.getId() + ",\"quantity\":1}]}"))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int listProducts() throws IOException, InterruptedException {
+        return send(listProducts);
+    }
+
+    @Benchmark
+    public int placeOrder() throws IOException, InterruptedException {
+        return send(placeOrder);
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status >= 400) {
+            throw new IllegalStateException(request.uri() + " answered " + status);
+        }
+        return status;
+    }
+}
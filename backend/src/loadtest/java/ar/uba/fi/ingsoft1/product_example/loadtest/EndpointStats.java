@@ -0,0 +1,54 @@
+package ar.uba.fi.ingsoft1.product_example.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies (in microseconds, in an auto-resizing HDR histogram) and failures of one endpoint
+ * during one phase. A failure is any response of 400 or above, recorded under its status code,
+ * or a request that never got a response, recorded under the exception's class name. Failed
+ * requests are counted but kept out of the histogram, so a fast 429 does not flatter the
+ * percentiles.
+ */
+final class EndpointStats {
+
+    private final String name;
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void success(long micros) {
+        latencies.recordValue(Math.max(1, micros));
+    }
+
+    void failure(String cause) {
+        failures.computeIfAbsent(cause, c -> new LongAdder()).increment();
+    }
+
+    Histogram latencies() {
+        return latencies;
+    }
+
+    long successes() {
+        return latencies.getTotalCount();
+    }
+
+    long failureCount() {
+        return failures.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    Map<String, LongAdder> failures() {
+        return failures;
+    }
+}
@@ -0,0 +1,178 @@
+package ar.uba.fi.ingsoft1.product_example.loadtest;
+
+import ar.uba.fi.ingsoft1.product_example.ComboProduct.ComboProduct;
+import ar.uba.fi.ingsoft1.product_example.ComboProduct.ComboProductId;
+import ar.uba.fi.ingsoft1.product_example.ComboProduct.ComboProductRepository;
+import ar.uba.fi.ingsoft1.product_example.Combos.Combo;
+import ar.uba.fi.ingsoft1.product_example.Combos.ComboRepository;
+import ar.uba.fi.ingsoft1.product_example.Ingredients.Ingredient;
+import ar.uba.fi.ingsoft1.product_example.Ingredients.IngredientRepository;
+import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSection;
+import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSectionRepository;
+import ar.uba.fi.ingsoft1.product_example.ProductExampleApplication;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredient;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientId;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientRepository;
+import ar.uba.fi.ingsoft1.product_example.Products.Product;
+import ar.uba.fi.ingsoft1.product_example.Products.ProductRepository;
+import ar.uba.fi.ingsoft1.product_example.common.CatalogChangedEvent;
+import ar.uba.fi.ingsoft1.product_example.config.security.PasswordHasher;
+import ar.uba.fi.ingsoft1.product_example.user.User;
+import ar.uba.fi.ingsoft1.product_example.user.UserRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Boots the whole application for a load test on a random port and a fresh schema, and seeds it
+ * with a lunch-sized catalog, the students and one kitchen account. {@code --loadtest.database}
+ * is {@code h2} (in memory, the default) or {@code postgres}, which connects to
+ * {@code jdbc:postgresql://127.0.0.1:20001/products_loadtest} unless {@code --spring.datasource.*}
+ * says otherwise, and drops its tables on close, so point it at a scratch database.
+ */
+final class LoadTestApplication {
+
+    static final String PASSWORD = "lunch-rush";
+    static final String KITCHEN = "kitchen@fi.uba.ar";
+
+    private static final int INGREDIENTS = 20;
+    private static final int PRODUCTS = 60;
+    private static final int COMBOS = 12;
+    private static final int SECTIONS = 6;
+
+    record Catalog(List<Long> productIds, List<Long> comboIds, List<String> students) {
+    }
+
+    private LoadTestApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String[] overrides) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--debug=false",
+                "--logging.level.root=WARN",
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.mail.host=localhost"
+        ));
+        args.addAll(dataSource(database(overrides)));
+        args.addAll(Arrays.asList(overrides));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductExampleApplication.class)
+                .run(args.toArray(String[]::new));
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        String[] states = {"confirmed", "in preparation", "finished", "delivered", "canceled"};
+        for (int i = 0; i < states.length; i++) {
+            jdbc.update("INSERT INTO order_status (id, name) VALUES (?, ?)", i + 1, states[i]);
+        }
+        return context;
+    }
+
+    static Catalog seed(ConfigurableApplicationContext context, int students, Random random) {
+        List<Ingredient> ingredients = new ArrayList<>();
+        for (int i = 0; i < INGREDIENTS; i++) {
+            ingredients.add(new Ingredient("Ingredient " + i, "-", 1_000_000_000));
+        }
+        ingredients = context.getBean(IngredientRepository.class).saveAll(ingredients);
+
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        ProductIngredientRepository compositions = context.getBean(ProductIngredientRepository.class);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = productRepository.save(new Product(
+                    "Product " + i, "-", BigDecimal.valueOf(800 + random.nextInt(40) * 50)));
+            for (int k = 0; k < 3; k++) {
+                Ingredient ingredient = ingredients.get((i + k * 7) % INGREDIENTS);
+                compositions.save(new ProductIngredient(
+                        new ProductIngredientId(product.getId(), ingredient.getId()), product, ingredient, 1 + k));
+            }
+            products.add(product);
+        }
+
+        ComboRepository comboRepository = context.getBean(ComboRepository.class);
+        ComboProductRepository comboProducts = context.getBean(ComboProductRepository.class);
+        List<Combo> combos = new ArrayList<>();
+        for (int i = 0; i < COMBOS; i++) {
+            Combo combo = comboRepository.save(new Combo("Combo " + i, "-", BigDecimal.valueOf(2500 + random.nextInt(20) * 100)));
+            for (int k = 0; k < 3; k++) {
+                Product product = products.get((i * 5 + k * 11) % PRODUCTS);
+                comboProducts.save(new ComboProduct(
+                        new ComboProductId(combo.getId(), product.getId()), combo, product, 1));
+            }
+            combos.add(combo);
+        }
+
+        MenuSectionRepository sections = context.getBean(MenuSectionRepository.class);
+        for (int s = 0; s < SECTIONS; s++) {
+            MenuSection section = new MenuSection("Section " + s, "-");
+            for (int i = s; i < PRODUCTS; i += SECTIONS) {
+                section.getProducts().add(products.get(i));
+            }
+            for (int i = s; i < COMBOS; i += SECTIONS) {
+                section.getCombos().add(combos.get(i));
+            }
+            sections.save(section);
+        }
+
+        // One hash for everyone: seeding thousands of accounts should not take a minute of BCrypt
+        String hash = context.getBean(PasswordHasher.class).encode(PASSWORD);
+        List<User> users = new ArrayList<>();
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < students; i++) {
+            String username = "student" + i + "@fi.uba.ar";
+            users.add(verified(new User(username, hash, "ROLE_USER", null)));
+            usernames.add(username);
+        }
+        users.add(verified(new User(KITCHEN, hash, "ROLE_KITCHEN", null)));
+        context.getBean(UserRepository.class).saveAll(users);
+
+        for (CatalogChangedEvent.Type type : CatalogChangedEvent.Type.values()) {
+            context.publishEvent(CatalogChangedEvent.of(type));
+        }
+        return new Catalog(
+                products.stream().map(Product::getId).toList(),
+                combos.stream().map(Combo::getId).toList(),
+                usernames);
+    }
+
+    private static User verified(User user) {
+        user.setVerified(true);
+        return user;
+    }
+
+    private static String database(String[] overrides) {
+        String database = "h2";
+        for (String arg : overrides) {
+            if (arg.startsWith("--loadtest.database=")) {
+                database = arg.substring("--loadtest.database=".length());
+            }
+        }
+        return database;
+    }
+
+    private static List<String> dataSource(String database) {
+        if (database.equals("postgres")) {
+            return List.of(
+                    "--spring.datasource.url=jdbc:postgresql://127.0.0.1:20001/products_loadtest",
+                    "--spring.datasource.username=postgres",
+                    "--spring.datasource.password=dev-password"
+            );
+        }
+        if (!database.equals("h2")) {
+            throw new IllegalArgumentException("Unknown database: " + database + " (expected h2 or postgres)");
+        }
+        return List.of(
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;NON_KEYWORDS=DAY",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password="
+        );
+    }
+}
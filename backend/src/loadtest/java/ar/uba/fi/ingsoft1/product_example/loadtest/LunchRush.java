@@ -0,0 +1,314 @@
+package ar.uba.fi.ingsoft1.product_example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays the noon peak against a freshly booted backend and prints throughput, p50/p95/p99 and
+ * error rates per endpoint. The scenario has three phases:
+ *
+ * <ol>
+ *     <li><b>login</b>: every student signs in through {@code POST /sessions} at once, retrying
+ *     a rejected attempt after a short pause, as the web client does;</li>
+ *     <li><b>rush</b>: for {@code loadtest.duration-seconds}, {@code loadtest.clients} closed-loop
+ *     clients each pick a signed-in student, read {@code /menus}, place an order of up to
+ *     {@code loadtest.max-lines} lines and pay it, while {@code loadtest.kitchen-workers} kitchen
+ *     clients move paid orders through {@code start-preparation}, {@code mark-ready} and
+ *     {@code pickup};</li>
+ *     <li><b>drain</b>: the kitchen finishes the orders still queued when the rush ends.</li>
+ * </ol>
+ *
+ * <p>Clients are closed-loop with optional {@code loadtest.think-ms} between requests, so when the
+ * backend slows down they send less; compare throughput as well as latency between runs. Every
+ * argument is also handed to Spring, so {@code --spring.threads.virtual.enabled=true} or
+ * {@code --spring.datasource.url=...} apply to the application under test. Full HDR percentile
+ * distributions are written to {@code loadtest.output-dir}.
+ */
+public final class LunchRush {
+
+    private static final String[] PAYMENT_METHODS = {"cash", "credit", "qr"};
+    private static final Duration DRAIN_LIMIT = Duration.ofSeconds(30);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final RecordingClient client;
+    private final LoadTestApplication.Catalog catalog;
+    private final int clients;
+    private final int kitchenWorkers;
+    private final Duration duration;
+    private final int maxLines;
+    private final int loginAttempts;
+    private final long thinkMillis;
+
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+    private final BlockingQueue<Long> kitchenQueue = new LinkedBlockingQueue<>();
+
+    private LunchRush(RecordingClient client, LoadTestApplication.Catalog catalog, Environment environment) {
+        this.client = client;
+        this.catalog = catalog;
+        this.clients = environment.getProperty("loadtest.clients", Integer.class, 64);
+        this.kitchenWorkers = environment.getProperty("loadtest.kitchen-workers", Integer.class, 4);
+        this.duration = Duration.ofSeconds(environment.getProperty("loadtest.duration-seconds", Long.class, 60L));
+        this.maxLines = environment.getProperty("loadtest.max-lines", Integer.class, 3);
+        this.loginAttempts = environment.getProperty("loadtest.login-attempts", Integer.class, 5);
+        this.thinkMillis = environment.getProperty("loadtest.think-ms", Long.class, 0L);
+    }
+
+    public static void main(String[] args) throws Exception {
+        try (ConfigurableApplicationContext context = LoadTestApplication.start(args)) {
+            Environment environment = context.getEnvironment();
+            int students = environment.getProperty("loadtest.students", Integer.class, 500);
+            Random random = new Random(environment.getProperty("loadtest.seed", Long.class, 42L));
+            LoadTestApplication.Catalog catalog = LoadTestApplication.seed(context, students, random);
+
+            String baseUrl = "http://localhost:" + environment.getProperty("local.server.port")
+                    + environment.getProperty("server.servlet.context-path", "");
+            List<Phase> phases;
+            try (RecordingClient client = new RecordingClient(baseUrl)) {
+                phases = new LunchRush(client, catalog, environment).run();
+            }
+            report(phases, System.out);
+            writeHistograms(phases, Path.of(environment.getProperty("loadtest.output-dir", "target/loadtest")));
+        }
+    }
+
+    private List<Phase> run() throws InterruptedException {
+        Phase login = new Phase("login");
+        login.start();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        for (String student : catalog.students()) {
+            pool.execute(() -> login(login, student));
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.HOURS);
+        login.end();
+
+        String kitchenToken = signIn(new EndpointStats("POST /sessions"), LoadTestApplication.KITCHEN)
+                .orElseThrow(() -> new IllegalStateException("The kitchen account could not sign in"));
+        List<String> signedIn = new ArrayList<>(tokens.keySet());
+        if (signedIn.isEmpty()) {
+            throw new IllegalStateException("No student could sign in");
+        }
+
+        Phase rush = new Phase("rush");
+        Phase drain = new Phase("drain");
+        long rushEnds = System.nanoTime() + duration.toNanos();
+        long drainEnds = rushEnds + DRAIN_LIMIT.toNanos();
+
+        ExecutorService kitchen = Executors.newFixedThreadPool(kitchenWorkers);
+        for (int i = 0; i < kitchenWorkers; i++) {
+            kitchen.execute(() -> cook(rush, drain, kitchenToken, rushEnds, drainEnds));
+        }
+        ExecutorService students = Executors.newFixedThreadPool(clients);
+        rush.start();
+        for (int i = 0; i < clients; i++) {
+            students.execute(() -> {
+                while (System.nanoTime() < rushEnds) {
+                    String student = signedIn.get(ThreadLocalRandom.current().nextInt(signedIn.size()));
+                    lunch(rush, tokens.get(student));
+                }
+            });
+        }
+        students.shutdown();
+        students.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        rush.end();
+
+        drain.start();
+        kitchen.shutdown();
+        kitchen.awaitTermination(DRAIN_LIMIT.toSeconds() + 60, TimeUnit.SECONDS);
+        drain.end();
+        if (!kitchenQueue.isEmpty()) {
+            System.out.printf("%d paid orders were still waiting for the kitchen after the drain%n", kitchenQueue.size());
+        }
+        return List.of(login, rush, drain);
+    }
+
+    private void login(Phase phase, String student) {
+        EndpointStats stats = phase.endpoint("POST /sessions");
+        for (int attempt = 0; attempt < loginAttempts; attempt++) {
+            Optional<String> token = signIn(stats, student);
+            if (token.isPresent()) {
+                tokens.put(student, token.get());
+                return;
+            }
+            pause(250L << attempt);
+        }
+    }
+
+    private Optional<String> signIn(EndpointStats stats, String username) {
+        String body = "{\"username\":\"" + username + "\",\"password\":\"" + LoadTestApplication.PASSWORD + "\"}";
+        return client.send(stats, client.request("/sessions", null)
+                        .header("Content-Type", "application/json")
+                        .POST(RecordingClient.json(body))
+                        .build())
+                .map(response -> field(response, "accessToken").asText());
+    }
+
+    private void lunch(Phase phase, String token) {
+        client.send(phase.endpoint("GET /menus"), client.request("/menus", token).GET().build());
+        think();
+
+        Optional<Long> orderId = client.send(phase.endpoint("POST /orders"), client.request("/orders", token)
+                        .header("Content-Type", "application/json")
+                        .POST(RecordingClient.json(orderBody()))
+                        .build())
+                .map(response -> field(response, "id").asLong());
+        think();
+
+        orderId.ifPresent(id -> {
+            String method = PAYMENT_METHODS[ThreadLocalRandom.current().nextInt(PAYMENT_METHODS.length)];
+            client.send(phase.endpoint("POST /payments/{id}"),
+                            client.request("/payments/" + id + "?method=" + method, token)
+                                    .POST(RecordingClient.json(""))
+                                    .build())
+                    .ifPresent(paid -> kitchenQueue.add(id));
+            think();
+        });
+    }
+
+    private void cook(Phase rush, Phase drain, String token, long rushEnds, long drainEnds) {
+        while (true) {
+            long now = System.nanoTime();
+            if (now >= drainEnds) {
+                return;
+            }
+            Long id;
+            try {
+                id = kitchenQueue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (id == null) {
+                if (now >= rushEnds) {
+                    return;
+                }
+                continue;
+            }
+            Phase phase = now < rushEnds ? rush : drain;
+            String eta = "{\"estimatedDeliveryTime\":\"" + LocalDateTime.now().plusMinutes(15) + "\"}";
+            boolean done = client.send(phase.endpoint("POST /orders/{id}/start-preparation"),
+                            client.request("/orders/" + id + "/start-preparation", token)
+                                    .header("Content-Type", "application/json")
+                                    .POST(RecordingClient.json(eta))
+                                    .build()).isPresent()
+                    && client.send(phase.endpoint("POST /orders/{id}/mark-ready"),
+                            client.request("/orders/" + id + "/mark-ready", token)
+                                    .POST(RecordingClient.json(""))
+                                    .build()).isPresent()
+                    && client.send(phase.endpoint("POST /orders/{id}/pickup"),
+                            client.request("/orders/" + id + "/pickup", token)
+                                    .POST(RecordingClient.json(""))
+                                    .build()).isPresent();
+            if (!done) {
+                phase.endpoint("kitchen flow").failure("incomplete");
+            }
+        }
+    }
+
+    private String orderBody() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int lines = 1 + random.nextInt(maxLines);
+        StringBuilder body = new StringBuilder("{\"details\":[");
+        for (int i = 0; i < lines; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            // Roughly one line in five is a combo, as on the real menu
+            if (random.nextInt(5) == 0) {
+                body.append("{\"comboId\":").append(catalog.comboIds().get(random.nextInt(catalog.comboIds().size())));
+            } else {
+                body.append("{\"productId\":").append(catalog.productIds().get(random.nextInt(catalog.productIds().size())));
+            }
+            body.append(",\"quantity\":").append(1 + random.nextInt(2)).append('}');
+        }
+        return body.append("]}").toString();
+    }
+
+    private JsonNode field(String json, String name) {
+        try {
+            return mapper.readTree(json).path(name);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected response: " + json, e);
+        }
+    }
+
+    private void think() {
+        if (thinkMillis > 0) {
+            pause(thinkMillis);
+        }
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static void report(List<Phase> phases, PrintStream out) {
+        out.println();
+        out.printf("%-7s %-36s %9s %8s %7s %9s %9s %9s %9s %9s%n",
+                "phase", "endpoint", "requests", "errors", "error%", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Phase phase : phases) {
+            double seconds = Math.max(phase.elapsed().toNanos() / 1e9, 1e-9);
+            for (EndpointStats stats : phase.endpoints()) {
+                Histogram latencies = stats.latencies();
+                long requests = stats.successes() + stats.failureCount();
+                out.printf("%-7s %-36s %9d %8d %6.2f%% %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                        phase.name(),
+                        stats.name(),
+                        requests,
+                        stats.failureCount(),
+                        requests == 0 ? 0.0 : 100.0 * stats.failureCount() / requests,
+                        requests / seconds,
+                        millis(latencies.getValueAtPercentile(50)),
+                        millis(latencies.getValueAtPercentile(95)),
+                        millis(latencies.getValueAtPercentile(99)),
+                        millis(latencies.getMaxValue()));
+                stats.failures().forEach((cause, count) ->
+                        out.printf("%-7s   %-34s %9d%n", "", "failed with " + cause, count.sum()));
+            }
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+
+    private static void writeHistograms(List<Phase> phases, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Phase phase : phases) {
+            for (EndpointStats stats : phase.endpoints()) {
+                String file = phase.name() + "-" + stats.name().replaceAll("[^A-Za-z0-9]+", "-") + ".hgrm";
+                try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(file)))) {
+                    // Values are recorded in microseconds; scale the distribution to milliseconds
+                    stats.latencies().outputPercentileDistribution(out, 1_000.0);
+                }
+            }
+        }
+        System.out.println("HDR percentile distributions written to " + directory.toAbsolutePath());
+    }
+}
@@ -0,0 +1,46 @@
+package ar.uba.fi.ingsoft1.product_example.loadtest;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A named stretch of the scenario with the stats of every endpoint it called, in first-call order.
+ * Throughput is measured over the phase's wall-clock time.
+ */
+final class Phase {
+
+    private final String name;
+    private final Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+    private long startedAt;
+    private long endedAt;
+
+    Phase(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    synchronized EndpointStats endpoint(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, EndpointStats::new);
+    }
+
+    synchronized Collection<EndpointStats> endpoints() {
+        return endpoints.values();
+    }
+
+    void start() {
+        startedAt = System.nanoTime();
+    }
+
+    void end() {
+        endedAt = System.nanoTime();
+    }
+
+    Duration elapsed() {
+        return Duration.ofNanos(endedAt - startedAt);
+    }
+}
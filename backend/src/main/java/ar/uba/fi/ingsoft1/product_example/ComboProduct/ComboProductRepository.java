@@ -1,7 +1,14 @@
 package ar.uba.fi.ingsoft1.product_example.ComboProduct;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface ComboProductRepository extends JpaRepository<ComboProduct, ComboProductId> {
     void deleteById_ProductId(Long productId);
-}
\ No newline at end of file
+
+    // Every (combo, product) pair, without loading either side
+    @Query("SELECT cp.id FROM ComboProduct cp")
+    List<ComboProductId> findAllIds();
+}
@@ -2,8 +2,8 @@ package ar.uba.fi.ingsoft1.product_example.Combos;
 
 import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSection;
 import ar.uba.fi.ingsoft1.product_example.ComboProduct.ComboProduct;
-import ar.uba.fi.ingsoft1.product_example.Products.Product;
 import ar.uba.fi.ingsoft1.product_example.Tags.Tag;
+import ar.uba.fi.ingsoft1.product_example.common.StoredImage;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -29,10 +29,6 @@ import java.util.Set;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Map;
-import java.util.HashMap;
-import java.util.stream.Collectors;
-import java.util.Collections;
 
 @Entity
 @Table(name = "combo")
@@ -63,6 +59,18 @@ public class Combo {
     @Column(name = "image", columnDefinition = "BYTEA")
     private byte[] image;
 
+    @Column(name = "image_hash", length = 32)
+    private String imageHash;
+
+    public void setImage(byte[] image) {
+        this.image = image;
+        this.imageHash = StoredImage.hashOf(image);
+    }
+
+    public String getImageUrl() {
+        return StoredImage.url("combos", id, imageHash);
+    }
+
     @OneToMany(mappedBy = "combo", cascade = {CascadeType.ALL, CascadeType.PERSIST, CascadeType.REMOVE}, orphanRemoval = true)
     private List<ComboProduct> comboProducts = new ArrayList<>();
 
@@ -76,63 +84,4 @@ public class Combo {
             inverseJoinColumns = @JoinColumn(name = "tag_id")
     )
     private List<Tag> tags = new ArrayList<>();
-
-    public boolean isAvailable() {
-        if (comboProducts == null || comboProducts.isEmpty()) {
-            return false;
-        }
-
-        for (ComboProduct cp : comboProducts) {
-            Product product = cp.getProduct();
-
-            if (product == null || !product.isAvailable()) {
-                return false;
-            }
-        }
-
-        return true;
-    }
-
-
-    public ComboDTO toDTO() {
-        Map<Long, String> tags_ = tags != null
-                ? tags.stream()
-                .collect(Collectors.toMap(
-                        Tag::getId,
-                        Tag::getTag
-                ))
-                : Map.of();
-
-        List<Map<String, Object>> productList = comboProducts != null
-                ? comboProducts.stream()
-                        .map(cp -> {
-                        Map<String, Object> productMap = new HashMap<>();
-                        productMap.put("id", cp.getProduct().getId());
-                        productMap.put("name", cp.getProduct().getName());
-                        productMap.put("quantity", cp.getQuantity());
-                        return productMap;
-                        })
-                        .collect(Collectors.toList())
-                : Collections.emptyList();
-
-        Map<Long, String> menuSections_ = menuSections != null
-                ? menuSections.stream()
-                .collect(Collectors.toMap(
-                        MenuSection::getId,
-                        MenuSection::getLabel
-                ))
-                : Map.of();
-
-        return new ComboDTO(
-                this.getId(),
-                this.getName(),
-                this.getDescription(),
-                this.getPrice(),
-                tags_,
-                productList,
-                menuSections_,
-                this.getImage(),
-                this.isAvailable()
-        );
-    }
-}
\ No newline at end of file
+}
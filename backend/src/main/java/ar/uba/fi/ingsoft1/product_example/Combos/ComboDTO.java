@@ -1,5 +1,6 @@
 package ar.uba.fi.ingsoft1.product_example.Combos;
 import ar.uba.fi.ingsoft1.product_example.Tags.Tag;
+import ar.uba.fi.ingsoft1.product_example.Products.AvailabilityIndex;
 import ar.uba.fi.ingsoft1.product_example.Products.Product;
 import ar.uba.fi.ingsoft1.product_example.ComboProduct.ComboProduct;
 import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSection;
@@ -20,10 +21,14 @@ public record ComboDTO(
         Map<Long, String> tags,
         List<Map<String, Object>> products,
         Map<Long, String> menuSections,
-        byte[] image,
+        String imageUrl,
         Boolean available
 ) {
-    public ComboDTO(Combo combo) {
+    /**
+     * {@code available} comes from the {@link AvailabilityIndex}, so building the DTO never walks
+     * the combo's products down to ingredient stock.
+     */
+    public ComboDTO(Combo combo, boolean available) {
         this(
                 combo.getId(),
                 combo.getName(),
@@ -54,8 +59,8 @@ public record ComboDTO(
                                 MenuSection::getLabel
                         ))
                         : Map.of(),
-                combo.getImage(),
-                combo.isAvailable()
+                combo.getImageUrl(),
+                available
          );
     }
 }
\ No newline at end of file
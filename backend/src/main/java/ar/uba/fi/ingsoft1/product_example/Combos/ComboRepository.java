@@ -1,9 +1,13 @@
 package ar.uba.fi.ingsoft1.product_example.Combos;
 
+import ar.uba.fi.ingsoft1.product_example.common.StoredImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ComboRepository extends JpaRepository<Combo, Long> {
     @Query("SELECT c FROM Combo c " +
@@ -23,5 +27,17 @@ public interface ComboRepository extends JpaRepository<Combo, Long> {
 
     List<Combo> findAll();
 
+    @Query("SELECT new ar.uba.fi.ingsoft1.product_example.common.StoredImage(c.image, c.imageHash) " +
+            "FROM Combo c WHERE c.id = :id AND c.image IS NOT NULL")
+    Optional<StoredImage> findImageById(@Param("id") Long id);
+
+    // Rows stored before image_hash existed; see ComboService#backfillImageHashes
+    @Query("SELECT c.id FROM Combo c WHERE c.image IS NOT NULL AND c.imageHash IS NULL")
+    List<Long> findIdsWithoutImageHash();
+
+    @Modifying
+    @Query("UPDATE Combo c SET c.imageHash = :hash WHERE c.id = :id")
+    int setImageHash(@Param("id") Long id, @Param("hash") String hash);
+
     List<Combo> findByTags_Id(Long tagId);
 }
\ No newline at end of file
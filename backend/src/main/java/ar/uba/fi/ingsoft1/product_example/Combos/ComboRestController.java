@@ -19,6 +19,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
@@ -53,6 +54,16 @@ public class ComboRestController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/image")
+    public ResponseEntity<byte[]> getComboImage(
+            @PathVariable long id,
+            @RequestParam(name = "v", required = false) String version
+    ) {
+        return comboService.getComboImage(id)
+                .map(image -> image.toResponse(version))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @ResponseStatus(HttpStatus.CREATED)
     public ResponseEntity<ComboDTO> createCombo(
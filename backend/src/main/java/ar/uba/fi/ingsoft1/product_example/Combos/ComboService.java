@@ -1,5 +1,6 @@
 package ar.uba.fi.ingsoft1.product_example.Combos;
 
+import ar.uba.fi.ingsoft1.product_example.Products.AvailabilityIndex;
 import ar.uba.fi.ingsoft1.product_example.Products.Product;
 import ar.uba.fi.ingsoft1.product_example.Products.ProductRepository;
 import ar.uba.fi.ingsoft1.product_example.Tags.Tag;
@@ -10,7 +11,12 @@ import ar.uba.fi.ingsoft1.product_example.ComboProduct.ComboProduct;
 import ar.uba.fi.ingsoft1.product_example.ComboProduct.ComboProductId;
 import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSection;
 import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSectionRepository;
+import ar.uba.fi.ingsoft1.product_example.common.CatalogChangedEvent;
+import ar.uba.fi.ingsoft1.product_example.common.StoredImage;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -33,25 +39,52 @@ public class ComboService {
     private final ComboProductRepository comboProductRepository;
     private final TagRepository tagRepository;
     private final MenuSectionRepository menuSectionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AvailabilityIndex availabilityIndex;
 
     private static final long MAX_IMAGE_SIZE = 2 * 1024 * 1024; // 2 MB
 
+    @Transactional(readOnly = true)
     public List<ComboDTO> getAlltCombos() {
         return comboRepository.findAll()
                 .stream()
-                .map(ComboDTO::new)
+                .map(this::toDTO)
                 .toList();
     }
 
+    @Transactional(readOnly = true)
     public List<ComboDTO> getCombosAvailable() {
-        return comboRepository.findCombosWithAllProductsInStock()
+        return comboRepository.findAllById(availabilityIndex.availableComboIds())
                 .stream()
-                .map(ComboDTO::new)
+                .map(combo -> new ComboDTO(combo, true))
                 .toList();
     }
 
     public Optional<ComboDTO> getComboById(long id) {
-        return comboRepository.findById(id).map(ComboDTO::new);
+        return comboRepository.findById(id).map(this::toDTO);
+    }
+
+    private ComboDTO toDTO(Combo combo) {
+        return new ComboDTO(combo, availabilityIndex.isComboAvailable(combo.getId()));
+    }
+
+    public Optional<StoredImage> getComboImage(long id) {
+        return comboRepository.findImageById(id);
+    }
+
+    /**
+     * Hashes the images of rows stored before {@code image_hash} existed. New images are hashed in
+     * {@link Combo#setImage}, so this only finds work on the first start after the upgrade.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillImageHashes() {
+        List<Long> ids = comboRepository.findIdsWithoutImageHash();
+        for (Long id : ids) {
+            comboRepository.findImageById(id).ifPresent(image -> comboRepository.setImageHash(id, image.hash()));
+        }
+        if (!ids.isEmpty()) {
+            eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.COMBO));
+        }
     }
 
     @Transactional
@@ -103,8 +136,9 @@ public class ComboService {
         combo.setComboProducts(comboProducts);
 
         Combo savedCombo = comboRepository.save(combo);
+        eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.COMBO));
 
-        return Optional.of(savedCombo.toDTO());
+        return Optional.of(new ComboDTO(savedCombo, availabilityIndex.evaluate(savedCombo)));
     }
 
     @Transactional
@@ -170,8 +204,9 @@ public class ComboService {
         combo.getComboProducts().addAll(comboProducts);
 
         Combo savedCombo = comboRepository.save(combo);
+        eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.COMBO));
 
-        return Optional.of(savedCombo.toDTO());
+        return Optional.of(new ComboDTO(savedCombo, availabilityIndex.evaluate(savedCombo)));
     }
 
     public boolean deleteCombo(Long id) {
@@ -187,6 +222,7 @@ public class ComboService {
         });
 
         comboRepository.delete(combo);
+        eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.COMBO));
         return true;
     }
 }
@@ -3,10 +3,13 @@ package ar.uba.fi.ingsoft1.product_example.Ingredients;
 import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredient;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.Data;
@@ -31,9 +34,14 @@ public class Ingredient {
 
     @NonNull
     private String description;
-    
+
+    @Column(updatable = false)
     private int stock;
 
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
     public Ingredient(@NonNull String name, @NonNull String description, int stock) {
         if (stock < 0) {
             throw new IllegalArgumentException("Stock cannot be negative.");
@@ -0,0 +1,9 @@
+package ar.uba.fi.ingsoft1.product_example.Ingredients;
+
+/**
+ * Published by the {@link StockLedger} when an ingredient runs out or comes back in stock, right
+ * after its counter changes (in atomic mode, once the transaction that changed it commits). Listeners should read the current level from the ledger rather than
+ * assume a direction: two crossings of the same ingredient may be delivered out of order.
+ */
+public record IngredientAvailabilityChangedEvent(long ingredientId) {
+}
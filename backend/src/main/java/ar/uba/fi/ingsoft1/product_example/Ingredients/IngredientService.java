@@ -1,6 +1,8 @@
 package ar.uba.fi.ingsoft1.product_example.Ingredients;
 
+import ar.uba.fi.ingsoft1.product_example.common.CatalogChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -16,15 +18,17 @@ import java.util.Optional;
 class IngredientService {
     private final IngredientRepository ingredientRepository;
     private final ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientRepository productIngredientRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockLedger stockLedger;
 
     public List<IngredientDTO> getIngredients() {
         return ingredientRepository.findAll().stream()
-                .map(IngredientDTO::new)
+                .map(this::convertToDTO)
                 .toList();
     }
 
     public Optional<IngredientDTO> getIngredientById(long id) {
-        return ingredientRepository.findById(id).map(IngredientDTO::new);
+        return ingredientRepository.findById(id).map(this::convertToDTO);
     }
 
     public IngredientDTO createIngredient(IngredientCreateDTO data) {
@@ -36,7 +40,9 @@ class IngredientService {
                 .map(ingredient -> {
                     ingredient.setName(data.name());
                     ingredient.setDescription(data.description());
-                    return new IngredientDTO(ingredientRepository.save(ingredient));
+                    IngredientDTO updated = convertToDTO(ingredientRepository.save(ingredient));
+                    eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.INGREDIENT));
+                    return updated;
                 });
     }
 
@@ -49,6 +55,8 @@ class IngredientService {
 
                 ingredientRepository.deleteById(id);
                 ingredientRepository.flush();
+                stockLedger.forget(id);
+                eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.INGREDIENT));
                 return true;
             } catch (DataIntegrityViolationException e) {
                 throw new ResponseStatusException(HttpStatus.CONFLICT, "Ingredient is in use and cannot be deleted");
@@ -66,15 +74,12 @@ class IngredientService {
         }
 
         Ingredient ingredient = ingredientOpt.get();
-        int newStock = ingredient.getStock() + amount;
+        int newStock = stockLedger.increase(ingredient, amount);
 
-        ingredient.setStock(newStock);
-        ingredientRepository.save(ingredient);
-
-        return Optional.of(convertToDTO(ingredient));
+        return Optional.of(new IngredientDTO(ingredient.getId(), ingredient.getName(), ingredient.getDescription(), newStock));
     }
 
     private IngredientDTO convertToDTO(Ingredient ingredient) {
-        return new IngredientDTO(ingredient.getId(), ingredient.getName(), ingredient.getDescription(), ingredient.getStock());
+        return new IngredientDTO(ingredient.getId(), ingredient.getName(), ingredient.getDescription(), stockLedger.available(ingredient));
     }
 }
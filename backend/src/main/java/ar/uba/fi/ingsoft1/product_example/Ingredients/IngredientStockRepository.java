@@ -0,0 +1,17 @@
+package ar.uba.fi.ingsoft1.product_example.Ingredients;
+
+import java.util.Map;
+
+public interface IngredientStockRepository {
+
+    /**
+     * Takes every quantity out of stock, or nothing at all if any ingredient is short. The rows are
+     * locked in id order and checked before a single UPDATE decrements all of them, so there is
+     * never a partial write to undo. Returns the stock left of each ingredient, or an empty map if
+     * one was short or does not exist.
+     */
+    Map<Long, Integer> decrementStockIfAvailable(Map<Long, Integer> quantities);
+
+    /** Adds {@code amount} to the stock of an ingredient and returns its new level. */
+    int incrementStock(long ingredientId, int amount);
+}
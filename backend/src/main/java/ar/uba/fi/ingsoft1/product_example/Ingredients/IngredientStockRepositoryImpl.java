@@ -0,0 +1,73 @@
+package ar.uba.fi.ingsoft1.product_example.Ingredients;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+class IngredientStockRepositoryImpl implements IngredientStockRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Map<Long, Integer> decrementStockIfAvailable(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return Map.of();
+        }
+        TreeMap<Long, Integer> sorted = new TreeMap<>(quantities);
+
+        // Locking in id order keeps concurrent orders sharing ingredients from deadlocking
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "SELECT id, stock FROM ingredient WHERE id IN (:ids) ORDER BY id FOR UPDATE")
+                .setParameter("ids", sorted.keySet())
+                .getResultList();
+        if (rows.size() != sorted.size()) {
+            return Map.of();
+        }
+        Map<Long, Integer> left = new TreeMap<>();
+        for (Object[] row : rows) {
+            long id = ((Number) row[0]).longValue();
+            int remaining = ((Number) row[1]).intValue() - sorted.get(id);
+            if (remaining < 0) {
+                return Map.of();
+            }
+            left.put(id, remaining);
+        }
+
+        StringBuilder required = new StringBuilder("CASE i.id");
+        int index = 0;
+        for (Long id : sorted.keySet()) {
+            required.append(" WHEN :id").append(index).append(" THEN :qty").append(index);
+            index++;
+        }
+        required.append(" END");
+
+        Query update = entityManager.createQuery(
+                "UPDATE Ingredient i SET i.stock = i.stock - " + required + " WHERE i.id IN :ids");
+        index = 0;
+        for (Map.Entry<Long, Integer> entry : sorted.entrySet()) {
+            update.setParameter("id" + index, entry.getKey());
+            update.setParameter("qty" + index, entry.getValue());
+            index++;
+        }
+        update.setParameter("ids", sorted.keySet());
+        update.executeUpdate();
+        return left;
+    }
+
+    @Override
+    public int incrementStock(long ingredientId, int amount) {
+        entityManager.createQuery("UPDATE Ingredient i SET i.stock = i.stock + :amount WHERE i.id = :id")
+                .setParameter("amount", amount)
+                .setParameter("id", ingredientId)
+                .executeUpdate();
+        return ((Number) entityManager.createNativeQuery("SELECT stock FROM ingredient WHERE id = :id")
+                .setParameter("id", ingredientId)
+                .getSingleResult()).intValue();
+    }
+}
@@ -0,0 +1,67 @@
+package ar.uba.fi.ingsoft1.product_example.Ingredients;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes how many ingredients are running low ({@code stock.ingredients.low}, at most
+ * {@code metrics.low-stock-threshold} units left, including those that ran out) and how many are
+ * out of stock ({@code stock.ingredients.out}). Levels come from the {@link StockLedger}, so they
+ * include reservations that have not been flushed yet.
+ */
+@Component
+public class LowStockGauges {
+
+    private final IngredientRepository ingredientRepository;
+    private final StockLedger stockLedger;
+    private final int threshold;
+
+    private final AtomicInteger low = new AtomicInteger();
+    private final AtomicInteger out = new AtomicInteger();
+
+    @Autowired
+    public LowStockGauges(
+            IngredientRepository ingredientRepository,
+            StockLedger stockLedger,
+            @Value("${metrics.low-stock-threshold:10}") int threshold,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        this(ingredientRepository, stockLedger, threshold, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    LowStockGauges(IngredientRepository ingredientRepository, StockLedger stockLedger, int threshold, MeterRegistry meterRegistry) {
+        this.ingredientRepository = ingredientRepository;
+        this.stockLedger = stockLedger;
+        this.threshold = threshold;
+        Gauge.builder("stock.ingredients.low", low, AtomicInteger::get)
+                .description("Ingredients with at most the low-stock threshold left")
+                .register(meterRegistry);
+        Gauge.builder("stock.ingredients.out", out, AtomicInteger::get)
+                .description("Ingredients with nothing left")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${metrics.gauges.refresh-interval-ms:15000}")
+    public void refresh() {
+        int lowCount = 0;
+        int outCount = 0;
+        for (int available : stockLedger.available(ingredientRepository.findAll()).values()) {
+            if (available <= threshold) {
+                lowCount++;
+            }
+            if (available <= 0) {
+                outCount++;
+            }
+        }
+        low.set(lowCount);
+        out.set(outCount);
+    }
+}
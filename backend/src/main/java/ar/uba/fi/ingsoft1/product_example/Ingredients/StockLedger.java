@@ -0,0 +1,377 @@
+package ar.uba.fi.ingsoft1.product_example.Ingredients;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory source of truth for ingredient stock. Counters are seeded from the primary database
+ * the first time an ingredient is touched (never from a read replica, which may be behind);
+ * afterwards every change goes through the ledger and committed deltas are written back in batches
+ * by {@link #flush()} as relative updates ({@code stock = stock + delta}), so the row never sees a
+ * read-modify-write from the application.
+ *
+ * <p>Reads and stock increases are lock-free. Reservations take striped locks in a fixed order so
+ * that all ingredients of an order are checked and decremented atomically with respect to other
+ * reservations.
+ *
+ * <p>Whenever a counter crosses between zero and one unit an {@link IngredientAvailabilityChangedEvent}
+ * is published, so views of what can be ordered can be kept up to date without polling stock.
+ * Flushes only move committed deltas to the database and publish nothing: the catalog caches
+ * never read the stock column while the ledger owns it.
+ *
+ * <p>The write-behind mode assumes a single application instance owns the stock. With
+ * {@code stock.persistence=atomic} the ledger keeps no state: reservations lock, check and decrement
+ * the order's ingredient rows inside the caller's transaction, reads come from the entities when
+ * they were loaded from the primary and from a fresh primary read otherwise, and availability events
+ * go out once that transaction commits.
+ *
+ * <p>Stock writes never bump {@link Ingredient}'s version, so admin edits to an ingredient do not
+ * conflict with orders.
+ */
+@Component
+public class StockLedger {
+
+    private static final int STRIPES = 64;
+    private static final int FLUSH_BATCH_SIZE = 100;
+    private static final String FLUSH_SQL =
+            "UPDATE ingredient SET stock = stock + ? WHERE id = ?";
+
+    public enum Mode {
+        WRITE_BEHIND,
+        ATOMIC
+    }
+
+    private final IngredientRepository ingredientRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate primaryReads;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Mode mode;
+
+    private final ConcurrentHashMap<Long, AtomicInteger> available = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AtomicInteger> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public StockLedger(
+            IngredientRepository ingredientRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${stock.persistence:write-behind}") String persistence
+    ) {
+        this.ingredientRepository = ingredientRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.primaryReads = new TransactionTemplate(transactionManager);
+        this.primaryReads.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventPublisher = eventPublisher;
+        this.mode = Mode.valueOf(persistence.trim().toUpperCase().replace('-', '_'));
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public int available(Ingredient ingredient) {
+        if (ingredient.getId() == null) {
+            return ingredient.getStock();
+        }
+        if (mode == Mode.ATOMIC) {
+            return writable() ? ingredient.getStock() : load(ingredient.getId()).getStock();
+        }
+        return seed(ingredient).get();
+    }
+
+    /**
+     * Levels of {@code ingredients} by id, for callers that go over the whole catalog. Whatever has
+     * to come from the database is read from the primary in one query; ingredients that no longer
+     * exist there are left out.
+     */
+    public Map<Long, Integer> available(Collection<Ingredient> ingredients) {
+        Map<Long, Integer> levels = new HashMap<>();
+        List<Long> ids = new ArrayList<>(ingredients.size());
+        for (Ingredient ingredient : ingredients) {
+            if (ingredient.getId() == null) {
+                continue;
+            }
+            if (mode == Mode.ATOMIC && writable()) {
+                levels.put(ingredient.getId(), ingredient.getStock());
+            } else if (mode == Mode.WRITE_BEHIND && writable()) {
+                levels.put(ingredient.getId(), seed(ingredient).get());
+            } else {
+                ids.add(ingredient.getId());
+            }
+        }
+        if (ids.isEmpty()) {
+            return levels;
+        }
+        if (mode == Mode.ATOMIC) {
+            for (Ingredient fresh : onPrimary(() -> ingredientRepository.findAllById(ids))) {
+                levels.put(fresh.getId(), fresh.getStock());
+            }
+            return levels;
+        }
+        seedMissing(ids);
+        for (Long id : ids) {
+            AtomicInteger counter = available.get(id);
+            if (counter != null) {
+                levels.put(id, counter.get());
+            }
+        }
+        return levels;
+    }
+
+    public int available(long ingredientId) {
+        if (mode == Mode.ATOMIC) {
+            return load(ingredientId).getStock();
+        }
+        return counter(ingredientId).get();
+    }
+
+    /**
+     * Adds stock once the surrounding transaction commits (immediately if there is none) and
+     * returns the expected new level.
+     */
+    public int increase(Ingredient ingredient, int amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Amount cannot be negative.");
+        }
+        if (mode == Mode.ATOMIC) {
+            long id = ingredient.getId();
+            int level = ingredientRepository.incrementStock(id, amount);
+            afterCompletion(() -> changed(id, level, amount), () -> { });
+            return level;
+        }
+        AtomicInteger counter = seed(ingredient);
+        long id = ingredient.getId();
+        int expected = counter.get() + amount;
+        afterCompletion(
+                () -> {
+                    changed(id, counter.addAndGet(amount), amount);
+                    pending(id).addAndGet(amount);
+                },
+                () -> { }
+        );
+        return expected;
+    }
+
+    /**
+     * Atomically takes {@code quantities} (ingredient id to units) out of stock, or nothing at all
+     * if any ingredient falls short. Units are handed back if the surrounding transaction rolls
+     * back; on commit they are queued for the next flush.
+     */
+    public void reserve(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        TreeMap<Long, Integer> sorted = new TreeMap<>(quantities);
+        if (mode == Mode.ATOMIC) {
+            Map<Long, Integer> left = ingredientRepository.decrementStockIfAvailable(sorted);
+            if (left.isEmpty()) {
+                throw new IllegalStateException("Not enough stock for ingredients: " + sorted.keySet());
+            }
+            afterCompletion(() -> left.forEach((id, level) -> changed(id, level, -sorted.get(id))), () -> { });
+            return;
+        }
+        Map<Long, AtomicInteger> counters = counters(sorted.keySet());
+
+        List<ReentrantLock> locks = locksFor(sorted.keySet());
+        List<Long> depleted = new ArrayList<>();
+        locks.forEach(ReentrantLock::lock);
+        try {
+            for (Map.Entry<Long, Integer> entry : sorted.entrySet()) {
+                if (counters.get(entry.getKey()).get() < entry.getValue()) {
+                    throw new IllegalStateException(
+                            "Not enough stock for ingredient with id: " + entry.getKey()
+                    );
+                }
+            }
+            sorted.forEach((id, quantity) -> {
+                if (crossedZero(counters.get(id).addAndGet(-quantity), -quantity)) {
+                    depleted.add(id);
+                }
+            });
+        } finally {
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+        }
+        depleted.forEach(id -> eventPublisher.publishEvent(new IngredientAvailabilityChangedEvent(id)));
+
+        afterCompletion(
+                () -> sorted.forEach((id, quantity) -> pending(id).addAndGet(-quantity)),
+                () -> sorted.forEach((id, quantity) -> changed(id, counters.get(id).addAndGet(quantity), quantity))
+        );
+    }
+
+    public void forget(long ingredientId) {
+        available.remove(ingredientId);
+        pending.remove(ingredientId);
+    }
+
+    @Scheduled(fixedDelayString = "${stock.ledger.flush-interval-ms:500}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Object[]> batch = new ArrayList<>();
+            pending.forEach((id, delta) -> {
+                int value = delta.getAndSet(0);
+                if (value != 0) {
+                    batch.add(new Object[]{value, id});
+                }
+            });
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(FLUSH_SQL, batch, FLUSH_BATCH_SIZE, (ps, row) -> {
+                            ps.setInt(1, (Integer) row[0]);
+                            ps.setLong(2, (Long) row[1]);
+                        }));
+            } catch (RuntimeException e) {
+                batch.forEach(row -> pending((Long) row[1]).addAndGet((Integer) row[0]));
+                throw e;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private AtomicInteger counter(long id, int seed) {
+        return available.computeIfAbsent(id, key -> new AtomicInteger(seed));
+    }
+
+    private AtomicInteger counter(long id) {
+        AtomicInteger counter = available.get(id);
+        if (counter != null) {
+            return counter;
+        }
+        return counter(id, load(id).getStock());
+    }
+
+    // The entity's stock is only trusted if it was read in a read-write transaction, i.e. from the
+    // primary; otherwise the counter is seeded with a fresh read.
+    private AtomicInteger seed(Ingredient ingredient) {
+        return writable() ? counter(ingredient.getId(), ingredient.getStock()) : counter(ingredient.getId());
+    }
+
+    private Ingredient load(long id) {
+        return onPrimary(() -> ingredientRepository.findById(id))
+                .orElseThrow(() -> new EntityNotFoundException("Ingredient not found with id: " + id));
+    }
+
+    private Map<Long, AtomicInteger> counters(Iterable<Long> ids) {
+        seedMissing(ids);
+
+        Map<Long, AtomicInteger> counters = new TreeMap<>();
+        for (Long id : ids) {
+            AtomicInteger counter = available.get(id);
+            if (counter == null) {
+                throw new EntityNotFoundException("Ingredient not found with id: " + id);
+            }
+            counters.put(id, counter);
+        }
+        return counters;
+    }
+
+    // Seeds, with a single primary read, the counters of those ids the ledger has not seen yet.
+    private void seedMissing(Iterable<Long> ids) {
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            if (!available.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Ingredient ingredient : onPrimary(() -> ingredientRepository.findAllById(missing))) {
+                counter(ingredient.getId(), ingredient.getStock());
+            }
+        }
+    }
+
+    private void changed(long id, int level, int delta) {
+        if (crossedZero(level, delta)) {
+            eventPublisher.publishEvent(new IngredientAvailabilityChangedEvent(id));
+        }
+    }
+
+    // True if applying delta moved the level from below one unit to at least one, or the reverse.
+    private static boolean crossedZero(int level, int delta) {
+        return (level >= 1) != (level - delta >= 1);
+    }
+
+    private AtomicInteger pending(long id) {
+        return pending.computeIfAbsent(id, key -> new AtomicInteger());
+    }
+
+    private List<ReentrantLock> locksFor(Iterable<Long> ids) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Long id : ids) {
+            indexes.add(Math.floorMod(Long.hashCode(id), STRIPES));
+        }
+        List<ReentrantLock> locks = new ArrayList<>(indexes.size());
+        indexes.forEach(index -> locks.add(stripes[index]));
+        return locks;
+    }
+
+    // Read-only transactions, and repository calls outside any transaction, may be routed to a
+    // replica; such reads get a read-write transaction of their own.
+    private <T> T onPrimary(Supplier<T> read) {
+        return writable() ? read.get() : primaryReads.execute(status -> read.get());
+    }
+
+    private static boolean writable() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static void afterCompletion(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    onRollback.run();
+                } else {
+                    onCommit.run();
+                }
+            }
+        });
+    }
+}
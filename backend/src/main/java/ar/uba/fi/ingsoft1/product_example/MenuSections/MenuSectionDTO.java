@@ -1,5 +1,6 @@
 package ar.uba.fi.ingsoft1.product_example.MenuSections;
 
+import ar.uba.fi.ingsoft1.product_example.Products.AvailabilityIndex;
 import ar.uba.fi.ingsoft1.product_example.Products.Product;
 import ar.uba.fi.ingsoft1.product_example.Products.ProductDTO;
 import ar.uba.fi.ingsoft1.product_example.Combos.Combo;
@@ -14,19 +15,19 @@ public record MenuSectionDTO(
         List<ProductDTO> products,
         List<ComboDTO> combos
 ) {
-    public MenuSectionDTO(MenuSection menu_section) {
+    public MenuSectionDTO(MenuSection menu_section, AvailabilityIndex availability) {
         this(
             menu_section.getId(),
             menu_section.getLabel(),
             menu_section.getDescription(),
             menu_section.getProducts() != null
                 ? menu_section.getProducts().stream()
-                    .map(product -> new ProductDTO(product))
+                    .map(product -> new ProductDTO(product, availability.isProductAvailable(product.getId())))
                         .toList()
                 : List.of(),
             menu_section.getCombos() != null
                 ? menu_section.getCombos().stream()
-                    .map(combo -> new ComboDTO(combo))
+                    .map(combo -> new ComboDTO(combo, availability.isComboAvailable(combo.getId())))
                         .toList()
                 : List.of()
         );
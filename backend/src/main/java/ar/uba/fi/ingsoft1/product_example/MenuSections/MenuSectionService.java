@@ -1,12 +1,17 @@
 package ar.uba.fi.ingsoft1.product_example.MenuSections;
 
+import ar.uba.fi.ingsoft1.product_example.Products.AvailabilityIndex;
 import ar.uba.fi.ingsoft1.product_example.Products.Product;
 import ar.uba.fi.ingsoft1.product_example.Products.ProductRepository;
 import ar.uba.fi.ingsoft1.product_example.Combos.Combo;
 import ar.uba.fi.ingsoft1.product_example.Combos.ComboRepository;
+import ar.uba.fi.ingsoft1.product_example.common.CatalogChangedEvent;
+import ar.uba.fi.ingsoft1.product_example.common.OutcomeTimer;
+import io.micrometer.core.instrument.Timer;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,23 +23,39 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class MenuSectionService {
 
+    private static final OutcomeTimer LOAD_TIMER =
+            OutcomeTimer.of("menu.sections.load", "Loading every menu section with its items");
+
     private final MenuSectionRepository menuSectionRepository;
     private final ProductRepository productRepository;
     private final ComboRepository comboRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AvailabilityIndex availabilityIndex;
 
+    @Transactional(readOnly = true)
     public List<MenuSectionDTO> getAllMenuSections() {
-        return menuSectionRepository.findAll()
-                .stream()
-                .map(MenuSectionDTO::new)
-                .toList();
+        Timer.Sample sample = LOAD_TIMER.start();
+        String outcome = "error";
+        try {
+            List<MenuSectionDTO> sections = menuSectionRepository.findAll()
+                    .stream()
+                    .map(this::toDTO)
+                    .toList();
+            outcome = "loaded";
+            return sections;
+        } finally {
+            LOAD_TIMER.stop(sample, outcome);
+        }
     }
 
     public Optional<MenuSectionDTO> getMenuSectionById(long id) {
-        return menuSectionRepository.findById(id).map(MenuSectionDTO::new);
+        return menuSectionRepository.findById(id).map(this::toDTO);
     }
 
     public Optional<MenuSectionDTO> createMenuSection(MenuSectionCreateDTO dto) {
-        return Optional.of(new MenuSectionDTO(menuSectionRepository.save(dto.asMenuSection())));
+        MenuSection saved = menuSectionRepository.save(dto.asMenuSection());
+        eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.MENU_SECTION));
+        return Optional.of(toDTO(saved));
     }
 
     public Optional<MenuSectionDTO> updateMenuSection(long id, MenuSectionCreateDTO dto) {
@@ -42,13 +63,16 @@ public class MenuSectionService {
                 .map(section -> {
                     section.setLabel(dto.label());
                     section.setDescription(dto.description());
-                    return new MenuSectionDTO(menuSectionRepository.save(section));
+                    MenuSection saved = menuSectionRepository.save(section);
+                    eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.MENU_SECTION));
+                    return toDTO(saved);
                 });
     }
 
     public boolean deleteMenuSection(long id) {
         if (menuSectionRepository.existsById(id)) {
             menuSectionRepository.deleteById(id);
+            eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.MENU_SECTION));
             return true;
         }
         return false;
@@ -75,8 +99,9 @@ public class MenuSectionService {
 
         menuSection.setProducts(existingProducts);
         menuSectionRepository.save(menuSection);
+        eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.MENU_SECTION));
 
-        return Optional.of(new MenuSectionDTO(menuSection));
+        return Optional.of(toDTO(menuSection));
     }
 
     @Transactional
@@ -100,7 +125,12 @@ public class MenuSectionService {
 
         menuSection.setCombos(existingCombos);
         menuSectionRepository.save(menuSection);
+        eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.MENU_SECTION));
+
+        return Optional.of(toDTO(menuSection));
+    }
 
-        return Optional.of(new MenuSectionDTO(menuSection));
+    private MenuSectionDTO toDTO(MenuSection menuSection) {
+        return new MenuSectionDTO(menuSection, availabilityIndex);
     }
-}   
+}
@@ -0,0 +1,9 @@
+package ar.uba.fi.ingsoft1.product_example.Menus;
+
+/**
+ * Immutable, pre-serialized {@code GET /menus} body. {@code version} counts catalog changes seen
+ * when it was built; {@code etag} is derived from the JSON itself, so rebuilding an unchanged menu
+ * keeps the same ETag (also across restarts).
+ */
+public record MenuSnapshot(long version, byte[] json, String etag) {
+}
@@ -0,0 +1,70 @@
+package ar.uba.fi.ingsoft1.product_example.Menus;
+
+import ar.uba.fi.ingsoft1.product_example.Ingredients.IngredientAvailabilityChangedEvent;
+import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSectionService;
+import ar.uba.fi.ingsoft1.product_example.Products.AvailabilityIndex;
+import ar.uba.fi.ingsoft1.product_example.common.CatalogChangedEvent;
+import ar.uba.fi.ingsoft1.product_example.common.StoredImage;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+public class MenuSnapshotService {
+
+    private final MenuSectionService menuSectionService;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final Object rebuildLock = new Object();
+    private volatile MenuSnapshot snapshot;
+
+    public MenuSnapshot getSnapshot() {
+        MenuSnapshot current = snapshot;
+        if (current != null && current.version() == catalogVersion.get()) {
+            return current;
+        }
+
+        synchronized (rebuildLock) {
+            current = snapshot;
+            long version = catalogVersion.get();
+            if (current == null || current.version() != version) {
+                current = build(version);
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    // Both listeners run after the AvailabilityIndex ones, so a rebuild triggered by the new version
+    // never reads the index as it was before the change.
+    @Order(AvailabilityIndex.LISTENER_ORDER + 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        catalogVersion.incrementAndGet();
+    }
+
+    // The menu shows which items can be ordered, and that changes as soon as the stock ledger says so.
+    @Order(AvailabilityIndex.LISTENER_ORDER + 1)
+    @EventListener
+    public void onIngredientAvailabilityChanged(IngredientAvailabilityChangedEvent event) {
+        catalogVersion.incrementAndGet();
+    }
+
+    private MenuSnapshot build(long version) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(menuSectionService.getAllMenuSections());
+            return new MenuSnapshot(version, json, StoredImage.hashOf(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Menu could not be serialized", e);
+        }
+    }
+}
@@ -1,29 +1,30 @@
 package ar.uba.fi.ingsoft1.product_example.Menus;
 
-import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSectionDTO;
-import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSectionService;
-
 import io.swagger.v3.oas.annotations.tags.Tag;
-import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
 
-import java.util.List;
-import java.util.Optional;
-
 @RestController
 @RequestMapping("/menus")
 @Validated
 @RequiredArgsConstructor
 @Tag(name = "Menus")
 class MenuRestController {
-    private final MenuSectionService menuSectionService;
+    private final MenuSnapshotService menuSnapshotService;
 
-    @GetMapping
-    public List<MenuSectionDTO> getAllMenuSections() {
-        return menuSectionService.getAllMenuSections();
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAllMenuSections() {
+        MenuSnapshot snapshot = menuSnapshotService.getSnapshot();
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.json());
     }
 }
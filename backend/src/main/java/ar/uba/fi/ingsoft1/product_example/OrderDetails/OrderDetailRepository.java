@@ -1,8 +1,18 @@
 package ar.uba.fi.ingsoft1.product_example.OrderDetails;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderDetailRepository extends JpaRepository<OrderDetail, Long> {
     List<OrderDetail> findByOrderId(Long orderId);
+
+    @Query("SELECT new ar.uba.fi.ingsoft1.product_example.OrderDetails.OrderDetailDTO("
+            + "d.id, o.id, p.id, c.id, d.quantity, d.price, d.discount, d.totalPrice) "
+            + "FROM OrderDetail d JOIN d.order o LEFT JOIN d.product p LEFT JOIN d.combo c "
+            + "WHERE o.id IN :orderIds ORDER BY d.id")
+    List<OrderDetailDTO> findDTOsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -0,0 +1,8 @@
+package ar.uba.fi.ingsoft1.product_example.Orders;
+
+import lombok.NonNull;
+import java.util.List;
+
+public record OrderBatchCreateDTO(
+        @NonNull List<OrderCreateDTO> orders
+) {}
@@ -0,0 +1,23 @@
+package ar.uba.fi.ingsoft1.product_example.Orders;
+
+/**
+ * Outcome of one order of a batch, identified by its position in the request. Exactly one of
+ * {@code order} and {@code error} is set.
+ */
+public record OrderBatchResultDTO(
+        int index,
+        OrderDTO order,
+        String error
+) {
+    public static OrderBatchResultDTO created(int index, OrderDTO order) {
+        return new OrderBatchResultDTO(index, order, null);
+    }
+
+    public static OrderBatchResultDTO failed(int index, String error) {
+        return new OrderBatchResultDTO(index, null, error);
+    }
+
+    public boolean succeeded() {
+        return order != null;
+    }
+}
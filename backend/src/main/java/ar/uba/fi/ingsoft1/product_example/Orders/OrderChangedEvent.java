@@ -0,0 +1,31 @@
+package ar.uba.fi.ingsoft1.product_example.Orders;
+
+/**
+ * Published by {@link OrderService} when an order is created or moves to another state. Delivered
+ * to stream subscribers only once the publishing transaction commits.
+ */
+public record OrderChangedEvent(Type type, OrderDTO order) {
+
+    public enum Type {
+        CREATED("order-created"),
+        STATE_CHANGED("order-state-changed");
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        public String eventName() {
+            return eventName;
+        }
+    }
+
+    public static OrderChangedEvent created(OrderDTO order) {
+        return new OrderChangedEvent(Type.CREATED, order);
+    }
+
+    public static OrderChangedEvent stateChanged(OrderDTO order) {
+        return new OrderChangedEvent(Type.STATE_CHANGED, order);
+    }
+}
@@ -0,0 +1,38 @@
+package ar.uba.fi.ingsoft1.product_example.Orders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in an order listing: the {@code (creationDate, id)} of the last order returned.
+ * Travels to clients as an opaque URL-safe token.
+ */
+public record OrderCursor(LocalDateTime creationDate, long id) {
+
+    // Strictly before every stored order, so a first page can use the same keyset query.
+    static final OrderCursor START = new OrderCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    public static OrderCursor after(OrderDTO order) {
+        return new OrderCursor(order.creationDate(), order.id());
+    }
+
+    public String encode() {
+        String raw = creationDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new OrderCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid order cursor: " + token);
+        }
+    }
+}
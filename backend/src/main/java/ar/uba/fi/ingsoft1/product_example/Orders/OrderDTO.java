@@ -16,6 +16,15 @@ public record OrderDTO(
         long stateId,
         List<OrderDetailDTO> details
 ) {
+    public OrderDTO(long id, Long userId, LocalDateTime creationDate, LocalDateTime estimatedDeliveryTime,
+                    BigDecimal totalPrice, long stateId) {
+        this(id, userId, creationDate, estimatedDeliveryTime, totalPrice, stateId, List.of());
+    }
+
+    public OrderDTO withDetails(List<OrderDetailDTO> details) {
+        return new OrderDTO(id, userId, creationDate, estimatedDeliveryTime, totalPrice, stateId, details);
+    }
+
     public OrderDTO(Order order) {
         this (
                 order.getId(),
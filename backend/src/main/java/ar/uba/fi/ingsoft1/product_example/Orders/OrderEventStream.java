@@ -0,0 +1,217 @@
+package ar.uba.fi.ingsoft1.product_example.Orders;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes committed order changes to Server-Sent Events subscribers.
+ *
+ * <p>Every event gets an id of the form {@code <streamId>-<sequence>} and is kept in a ring buffer
+ * of the most recent events, so a client reconnecting with {@code Last-Event-ID} receives what it
+ * missed. When that is no longer possible (the id is older than the buffer or comes from a previous
+ * run), the client gets a {@code reset} event and should reload its queue with a regular GET.
+ *
+ * <p>Publishing never blocks on a client: each subscriber has a bounded queue drained by a small
+ * sender pool, and a subscriber whose queue overflows is disconnected so it can resume from the
+ * buffer instead of holding events in memory.
+ */
+@Component
+public class OrderEventStream {
+
+    static final String RESET_EVENT = "reset";
+
+    private record StreamEvent(String id, String name, Object data) {
+    }
+
+    private static final StreamEvent HEARTBEAT = new StreamEvent(null, null, null);
+
+    private final String streamId = Long.toString(System.currentTimeMillis(), 36);
+    private final StreamEvent[] ring;
+    private final int subscriberBufferSize;
+    private final long emitterTimeoutMs;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "order-stream-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by "this": the last assigned sequence; event n lives at ring[n % ring.length].
+    private long sequence;
+
+    public OrderEventStream(
+            @Value("${orders.stream.replay-size:1024}") int replaySize,
+            @Value("${orders.stream.subscriber-buffer:256}") int subscriberBufferSize,
+            @Value("${orders.stream.timeout-ms:1800000}") long emitterTimeoutMs
+    ) {
+        this.ring = new StreamEvent[replaySize];
+        this.subscriberBufferSize = subscriberBufferSize;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(emitterTimeoutMs));
+        synchronized (this) {
+            List<StreamEvent> missed = missedSince(lastEventId);
+            if (missed == null) {
+                subscriber.offer(new StreamEvent(currentId(), RESET_EVENT, Map.of()));
+            } else {
+                missed.forEach(subscriber::offer);
+            }
+            subscribers.add(subscriber);
+        }
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        synchronized (this) {
+            long next = ++sequence;
+            StreamEvent streamEvent = new StreamEvent(id(next), event.type().eventName(), event.order());
+            ring[(int) (next % ring.length)] = streamEvent;
+            subscribers.forEach(subscriber -> subscriber.offer(streamEvent));
+        }
+    }
+
+    @Scheduled(fixedRateString = "${orders.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT));
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(Subscriber::close);
+        senders.shutdownNow();
+    }
+
+    // Events after lastEventId, or null if the client has to start over.
+    private List<StreamEvent> missedSince(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return List.of();
+        }
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(streamId)) {
+            return null;
+        }
+        long last;
+        try {
+            last = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (last > sequence || sequence - last > ring.length) {
+            return null;
+        }
+        List<StreamEvent> missed = new ArrayList<>((int) (sequence - last));
+        for (long n = last + 1; n <= sequence; n++) {
+            missed.add(ring[(int) (n % ring.length)]);
+        }
+        return missed;
+    }
+
+    private String currentId() {
+        return id(sequence);
+    }
+
+    private String id(long n) {
+        return streamId + "-" + n;
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<StreamEvent> queue = new ArrayBlockingQueue<>(subscriberBufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+            emitter.onCompletion(this::close);
+            emitter.onTimeout(this::close);
+            emitter.onError(error -> close());
+        }
+
+        void offer(StreamEvent event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                // Too slow to keep up; it can reconnect and resume from the ring buffer.
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RuntimeException e) {
+                    draining.set(false);
+                    close();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                StreamEvent event;
+                while (!closed && (event = queue.poll()) != null) {
+                    emitter.send(toSse(event));
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                draining.set(false);
+                if (!closed && !queue.isEmpty()) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            try {
+                emitter.complete();
+            } catch (IllegalStateException ignored) {
+                // already completed by the container
+            }
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(StreamEvent event) {
+        if (event == HEARTBEAT) {
+            return SseEmitter.event().comment("heartbeat");
+        }
+        return SseEmitter.event()
+                .id(event.id())
+                .name(event.name())
+                .data(event.data(), MediaType.APPLICATION_JSON);
+    }
+}
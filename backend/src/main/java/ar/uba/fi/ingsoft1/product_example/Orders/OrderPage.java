@@ -0,0 +1,8 @@
+package ar.uba.fi.ingsoft1.product_example.Orders;
+
+import java.util.List;
+
+public record OrderPage(
+        List<OrderDTO> orders,
+        OrderCursor next
+) {}
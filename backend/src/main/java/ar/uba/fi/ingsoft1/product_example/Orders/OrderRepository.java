@@ -1,12 +1,47 @@
 package ar.uba.fi.ingsoft1.product_example.Orders;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    String SUMMARY_SELECT = "SELECT new ar.uba.fi.ingsoft1.product_example.Orders.OrderDTO("
+            + "o.id, u.id, o.creationDate, o.estimatedDeliveryTime, o.totalPrice, s.id) "
+            + "FROM Order o LEFT JOIN o.user u JOIN o.state s ";
+    String AFTER_CURSOR = "(o.creationDate > :afterDate OR (o.creationDate = :afterDate AND o.id > :afterId)) ";
+
     List<Order> findAll();
 
     List<Order> findByUser_Id(Long userId);
-}
\ No newline at end of file
+
+    @Query("SELECT new ar.uba.fi.ingsoft1.product_example.Orders.OrderStateCount(s.id, COUNT(o)) "
+            + "FROM Order o JOIN o.state s GROUP BY s.id")
+    List<OrderStateCount> countByState();
+
+    // Order rows only, without details; see OrderDetailRepository#findDTOsByOrderIds
+    @Query(SUMMARY_SELECT + "ORDER BY o.id")
+    List<OrderDTO> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + "WHERE u.id = :userId ORDER BY o.id")
+    List<OrderDTO> findSummariesByUserId(@Param("userId") Long userId);
+
+    @Query(SUMMARY_SELECT + "WHERE s.id = :stateId ORDER BY o.id")
+    List<OrderDTO> findSummariesByStateId(@Param("stateId") Long stateId);
+
+    // Keyset pages ordered by (creationDate, id): served by idx_orders_creation, and by
+    // idx_orders_state_creation when filtered by state
+    @Query(SUMMARY_SELECT + "WHERE " + AFTER_CURSOR + "ORDER BY o.creationDate, o.id")
+    List<OrderDTO> findSummariesAfter(@Param("afterDate") LocalDateTime afterDate,
+                                      @Param("afterId") long afterId,
+                                      Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE s.id = :stateId AND " + AFTER_CURSOR + "ORDER BY o.creationDate, o.id")
+    List<OrderDTO> findSummariesByStateIdAfter(@Param("stateId") Long stateId,
+                                               @Param("afterDate") LocalDateTime afterDate,
+                                               @Param("afterId") long afterId,
+                                               Limit limit);
+}
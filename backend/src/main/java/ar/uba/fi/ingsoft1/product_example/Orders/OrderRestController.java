@@ -2,12 +2,15 @@ package ar.uba.fi.ingsoft1.product_example.Orders;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import ar.uba.fi.ingsoft1.product_example.user.User;
+import ar.uba.fi.ingsoft1.product_example.common.ConcurrencyRetry;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,11 +21,44 @@ import java.util.Optional;
 @Validated
 @RequiredArgsConstructor
 class OrderRestController {
+    private static final int CREATE_ORDER_ATTEMPTS = 3;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_BATCH_SIZE = 200;
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final OrderService orderService;
+    private final OrderEventStream orderEventStream;
 
     @GetMapping
-    public List<OrderDTO> getAllOrders() {
-        return orderService.geAlltOrders();
+    public ResponseEntity<List<OrderDTO>> getAllOrders(
+            @RequestParam(required = false) Long state,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit
+    ) {
+        if (state == null && after == null && limit == null) {
+            return ResponseEntity.ok(orderService.geAlltOrders());
+        }
+
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        OrderCursor cursor = after != null ? OrderCursor.decode(after) : null;
+
+        OrderPage page = orderService.getOrdersPage(state, cursor, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.next() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.next().encode());
+        }
+        return response.body(page.orders());
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderEvents(
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        return orderEventStream.subscribe(lastEventId);
     }
 
     @GetMapping("/confirmed")
@@ -48,13 +84,28 @@ class OrderRestController {
             @RequestBody @Validated OrderCreateDTO dto,
             @AuthenticationPrincipal User authenticatedUser
     ) {
-        return orderService.createOrder(dto, authenticatedUser)
+        return ConcurrencyRetry.run(CREATE_ORDER_ATTEMPTS, () -> orderService.createOrder(dto, authenticatedUser))
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.INTERNAL_SERVER_ERROR, "Order could not be created"
                 ));
     }
 
+    /**
+     * Places a group of orders at once, e.g. for an event. Orders succeed or fail individually; the
+     * response lists the outcome of each one in request order.
+     */
+    @PostMapping("/batch")
+    public List<OrderBatchResultDTO> createOrders(
+            @RequestBody @Validated OrderBatchCreateDTO dto,
+            @AuthenticationPrincipal User authenticatedUser
+    ) {
+        if (dto.orders().isEmpty() || dto.orders().size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch must contain between 1 and " + MAX_BATCH_SIZE + " orders");
+        }
+        return ConcurrencyRetry.run(CREATE_ORDER_ATTEMPTS, () -> orderService.createOrders(dto.orders(), authenticatedUser));
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<OrderDTO> updateOrder(
             @PathVariable Long id,
@@ -108,10 +159,7 @@ class OrderRestController {
 
     @GetMapping("/state/{stateId}")
     public List<OrderDTO> getOrdersByState(@PathVariable Long stateId) {
-        return orderService.geAlltOrders()
-                .stream()
-                .filter(o -> o.stateId() == stateId)
-                .toList();
+        return orderService.getOrdersByState(stateId);
     }
 
     @GetMapping("/my-orders")
@@ -1,25 +1,37 @@
 package ar.uba.fi.ingsoft1.product_example.Orders;
 
 import ar.uba.fi.ingsoft1.product_example.OrderDetails.OrderDetail;
+import ar.uba.fi.ingsoft1.product_example.OrderDetails.OrderDetailDTO;
 import ar.uba.fi.ingsoft1.product_example.OrderDetails.OrderDetailRepository;
 import ar.uba.fi.ingsoft1.product_example.OrderDetails.OrderDetailCreateDTO;
+import ar.uba.fi.ingsoft1.product_example.Products.BillOfMaterialsCache;
 import ar.uba.fi.ingsoft1.product_example.Products.Product;
 import ar.uba.fi.ingsoft1.product_example.Combos.Combo;
 import ar.uba.fi.ingsoft1.product_example.Products.ProductRepository;
 import ar.uba.fi.ingsoft1.product_example.Combos.ComboRepository;
-import ar.uba.fi.ingsoft1.product_example.Ingredients.IngredientRepository;
+import ar.uba.fi.ingsoft1.product_example.Ingredients.StockLedger;
 import ar.uba.fi.ingsoft1.product_example.user.User;
-import ar.uba.fi.ingsoft1.product_example.Promotions.PromotionService;
-import ar.uba.fi.ingsoft1.product_example.Promotions.Promotion;
+import ar.uba.fi.ingsoft1.product_example.Promotions.PromotionEngine;
+import ar.uba.fi.ingsoft1.product_example.common.OutcomeTimer;
+import io.micrometer.core.instrument.Timer;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 @Service
 @Transactional
@@ -30,8 +42,10 @@ public class OrderService {
     private final OrderDetailRepository orderDetailRepository;
     private final ProductRepository productRepository;
     private final ComboRepository comboRepository;
-    private final IngredientRepository ingredientRepository;
-    private final PromotionService promotionService;
+    private final PromotionEngine promotionEngine;
+    private final StockLedger stockLedger;
+    private final BillOfMaterialsCache billOfMaterialsCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final Long STATUS_CONFIRMED = 1L;
     private static final Long STATUS_IN_PREPARATION = 2L;
@@ -39,58 +53,121 @@ public class OrderService {
     private static final Long STATUS_COMPLETE = 4L;
     private static final Long STATUS_CANCELED = 5L;
 
+    private static final int DETAIL_BATCH_SIZE = 500;
+
+    private static final OutcomeTimer CREATE_TIMER =
+            OutcomeTimer.of("orders.create", "Pricing, stock reservation and insert of a single order");
+    private static final OutcomeTimer RESERVE_TIMER =
+            OutcomeTimer.of("orders.stock.reserve", "Reserving the ingredients of one order");
+
+    @Transactional(readOnly = true)
     public List<OrderDTO> geAlltOrders() {
-        return orderRepository.findAll()
-                .stream()
-                .map(OrderDTO::new)
-                .toList();
+        return withDetails(orderRepository.findAllSummaries());
     }
 
+    @Transactional(readOnly = true)
     public List<OrderDTO> getOrdersByUserId(Long userId) {
-        return orderRepository.findByUser_Id(userId)
-                .stream()
-                .map(Order::toDTO)
-                .toList();
+        return withDetails(orderRepository.findSummariesByUserId(userId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderDTO> getOrdersByState(Long stateId) {
+        return withDetails(orderRepository.findSummariesByStateId(stateId));
     }
 
+    /**
+     * Returns up to {@code limit} orders created after {@code after} (or from the start when null),
+     * oldest first, optionally restricted to one state.
+     */
+    @Transactional(readOnly = true)
+    public OrderPage getOrdersPage(Long stateId, OrderCursor after, int limit) {
+        OrderCursor from = after != null ? after : OrderCursor.START;
+        // One extra row tells whether there is a next page without a count query.
+        Limit fetch = Limit.of(limit + 1);
+        List<OrderDTO> rows = stateId != null
+                ? orderRepository.findSummariesByStateIdAfter(stateId, from.creationDate(), from.id(), fetch)
+                : orderRepository.findSummariesAfter(from.creationDate(), from.id(), fetch);
+
+        boolean hasMore = rows.size() > limit;
+        List<OrderDTO> page = withDetails(hasMore ? rows.subList(0, limit) : rows);
+        return new OrderPage(page, hasMore ? OrderCursor.after(page.get(page.size() - 1)) : null);
+    }
+
+    @Transactional(readOnly = true)
     public List<OrderDTO> getConfirmedOrders() {
-        return orderRepository.findAll()
-                .stream()
-                .filter(o -> o.getState() != null && STATUS_CONFIRMED.equals(o.getState().getId()))
-                .map(OrderDTO::new)
+        return getOrdersByState(STATUS_CONFIRMED);
+    }
+
+    // Loads the details of all given orders with one projection query per batch of orders,
+    // instead of initializing every order's details and their product/combo one by one.
+    private List<OrderDTO> withDetails(List<OrderDTO> orders) {
+        if (orders.isEmpty()) {
+            return orders;
+        }
+        Map<Long, List<OrderDetailDTO>> detailsByOrder = new HashMap<>();
+        for (int from = 0; from < orders.size(); from += DETAIL_BATCH_SIZE) {
+            List<Long> ids = orders.subList(from, Math.min(from + DETAIL_BATCH_SIZE, orders.size()))
+                    .stream()
+                    .map(OrderDTO::id)
+                    .toList();
+            for (OrderDetailDTO detail : orderDetailRepository.findDTOsByOrderIds(ids)) {
+                detailsByOrder.computeIfAbsent(detail.orderId(), id -> new ArrayList<>()).add(detail);
+            }
+        }
+        return orders.stream()
+                .map(o -> o.withDetails(detailsByOrder.getOrDefault(o.id(), List.of())))
                 .toList();
     }
 
     public boolean isProductInStock(Product p) {
-        return p.getProductIngredients()
-                .stream()
-                .allMatch(pi -> pi.getIngredient().getStock() > 0);
+        return billOfMaterialsCache.forProduct(p).allInStock(stockLedger::available);
     }
 
     public boolean isComboInStock(Combo c) {
-        return c.getComboProducts()
-                .stream()
-                .allMatch(cp -> isProductInStock(cp.getProduct()));
+        return billOfMaterialsCache.forCombo(c).allInStock(stockLedger::available);
     }
 
+    @Transactional(readOnly = true)
     public List<OrderDTO> getOrdersWithAllMenuItemsInStock() {
+        long bomGeneration = billOfMaterialsCache.generation();
         return orderRepository.findAll()
                 .stream()
-                .filter(order -> order.getDetails().stream()
-                        .allMatch(d -> (d.getProduct() == null || isProductInStock(d.getProduct())) &&
-                                (d.getCombo() == null || isComboInStock(d.getCombo()))
-                        )
-                )
+                .filter(order -> order.getDetails().stream().allMatch(d -> isInStock(d, bomGeneration)))
                 .map(OrderDTO::new)
                 .toList();
     }
 
+    private boolean isInStock(OrderDetail d, long bomGeneration) {
+        if (d.getProduct() != null
+                && !billOfMaterialsCache.forProduct(d.getProduct(), bomGeneration).allInStock(stockLedger::available)) {
+            return false;
+        }
+        return d.getCombo() == null
+                || billOfMaterialsCache.forCombo(d.getCombo(), bomGeneration).allInStock(stockLedger::available);
+    }
+
     public Optional<OrderDTO> getOrderById(long id) {
         return orderRepository.findById(id).map(OrderDTO::new);
     }
 
     @Transactional
     public Optional<OrderDTO> createOrder(OrderCreateDTO dto, User user) {
+        Timer.Sample sample = CREATE_TIMER.start();
+        String outcome = "error";
+        try {
+            Optional<OrderDTO> created = placeOrder(dto, user);
+            outcome = "created";
+            return created;
+        } catch (EntityNotFoundException | IllegalArgumentException | IllegalStateException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            CREATE_TIMER.stop(sample, outcome);
+        }
+    }
+
+    private Optional<OrderDTO> placeOrder(OrderCreateDTO dto, User user) {
+        long bomGeneration = billOfMaterialsCache.generation();
         Order order = new Order();
 
         order.setUser(user);
@@ -129,16 +206,118 @@ public class OrderService {
         }
 
         order.calculateTotal();
-        List<Promotion> promotions = promotionService.getPromotionsActiveNow();
-        for (Promotion promo : promotions) {
-            promo.apply(order);
-        }
+        promotionEngine.apply(order);
         order.calculateTotal();
 
-        discountIngredients(order);
+        discountIngredients(order, bomGeneration);
 
         order = orderRepository.save(order);
-        return Optional.of(order.toDTO());
+        OrderDTO created = order.toDTO();
+        eventPublisher.publishEvent(OrderChangedEvent.created(created));
+        return Optional.of(created);
+    }
+
+    /**
+     * Places several orders for {@code user} in one transaction. Every product and combo in the
+     * batch is loaded with one query per kind, stock is reserved order by order in a single pass,
+     * and the orders that could be placed are saved together so their inserts go out in JDBC
+     * batches. An order that references something unknown or runs out of stock is reported as
+     * failed and does not affect the rest.
+     */
+    @Transactional
+    public List<OrderBatchResultDTO> createOrders(List<OrderCreateDTO> dtos, User user) {
+        long bomGeneration = billOfMaterialsCache.generation();
+        Map<Long, Product> products = new HashMap<>();
+        productRepository.findAllById(referencedIds(dtos, OrderDetailCreateDTO::productId))
+                .forEach(p -> products.put(p.getId(), p));
+        Map<Long, Combo> combos = new HashMap<>();
+        comboRepository.findAllById(referencedIds(dtos, OrderDetailCreateDTO::comboId))
+                .forEach(c -> combos.put(c.getId(), c));
+
+        LocalDateTime now = LocalDateTime.now();
+        OrderBatchResultDTO[] results = new OrderBatchResultDTO[dtos.size()];
+        List<Order> placed = new ArrayList<>();
+        List<Integer> placedIndexes = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            try {
+                Order order = buildOrder(dtos.get(i), user, now, products, combos);
+                discountIngredients(order, bomGeneration);
+                placed.add(order);
+                placedIndexes.add(i);
+            } catch (EntityNotFoundException | IllegalArgumentException | IllegalStateException e) {
+                results[i] = OrderBatchResultDTO.failed(i, e.getMessage());
+            }
+        }
+
+        List<Order> saved = orderRepository.saveAll(placed);
+        for (int k = 0; k < saved.size(); k++) {
+            OrderDTO created = saved.get(k).toDTO();
+            results[placedIndexes.get(k)] = OrderBatchResultDTO.created(placedIndexes.get(k), created);
+            eventPublisher.publishEvent(OrderChangedEvent.created(created));
+        }
+        return Arrays.asList(results);
+    }
+
+    private static Set<Long> referencedIds(List<OrderCreateDTO> dtos, Function<OrderDetailCreateDTO, Long> id) {
+        Set<Long> ids = new HashSet<>();
+        for (OrderCreateDTO dto : dtos) {
+            for (OrderDetailCreateDTO detail : dto.details()) {
+                if (id.apply(detail) != null) {
+                    ids.add(id.apply(detail));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private Order buildOrder(
+            OrderCreateDTO dto,
+            User user,
+            LocalDateTime creationDate,
+            Map<Long, Product> products,
+            Map<Long, Combo> combos
+    ) {
+        if (dto.details().isEmpty()) {
+            throw new IllegalArgumentException("Order has no details");
+        }
+        Order order = new Order();
+        order.setUser(user);
+        order.setCreationDate(creationDate);
+        order.setState(new OrderStatus(STATUS_CONFIRMED, "confirmed"));
+
+        for (OrderDetailCreateDTO detailDto : dto.details()) {
+            if ((detailDto.productId() == null) == (detailDto.comboId() == null)) {
+                throw new IllegalArgumentException("Each detail must reference exactly one product or combo");
+            }
+            if (detailDto.quantity() < 1) {
+                throw new IllegalArgumentException("Quantity must be at least 1");
+            }
+            OrderDetail detail = new OrderDetail();
+            if (detailDto.productId() != null) {
+                Product product = products.get(detailDto.productId());
+                if (product == null) {
+                    throw new EntityNotFoundException("Product not found with id: " + detailDto.productId());
+                }
+                detail.setProduct(product);
+                detail.setPrice(product.getPrice());
+            } else {
+                Combo combo = combos.get(detailDto.comboId());
+                if (combo == null) {
+                    throw new EntityNotFoundException("Combo not found with id: " + detailDto.comboId());
+                }
+                detail.setCombo(combo);
+                detail.setPrice(combo.getPrice());
+            }
+            detail.setDiscount(BigDecimal.ZERO);
+            detail.setQuantity(detailDto.quantity());
+            detail.calculateTotal();
+            order.addDetail(detail);
+        }
+
+        order.calculateTotal();
+        promotionEngine.apply(order);
+        order.calculateTotal();
+        return order;
     }
 
     @Transactional
@@ -167,48 +346,33 @@ public class OrderService {
         order.setEstimatedDeliveryTime(estimatedDTO.estimatedDeliveryTime());
         order.setState(new OrderStatus(STATUS_IN_PREPARATION, "in preparation"));
 
-        return Optional.of(orderRepository.save(order).toDTO());
+        return Optional.of(saveStateChange(order));
     }
 
-    private void discountIngredients(Order order) {
+    // bomGeneration is the bill of materials cache generation read before the order's products and
+    // combos were loaded.
+    private void discountIngredients(Order order, long bomGeneration) {
+        Map<Long, Integer> required = new HashMap<>();
         for (OrderDetail detail : order.getDetails()) {
             if (detail.getProduct() != null) {
-                Product product = detail.getProduct();
-                discountIngredientsForProduct(product, detail.getQuantity());
+                billOfMaterialsCache.forProduct(detail.getProduct(), bomGeneration).addTo(required, detail.getQuantity());
             } else if (detail.getCombo() != null) {
-                discountIngredientsForCombo(detail.getCombo(), detail.getQuantity());
+                billOfMaterialsCache.forCombo(detail.getCombo(), bomGeneration).addTo(required, detail.getQuantity());
             }
         }
-    }
-
-    private void discountIngredientsForCombo(Combo combo, int quantityOrdered) {
-        if (combo.getComboProducts() == null) return;
-
-        for (var comboProduct : combo.getComboProducts()) {
-            Product product = comboProduct.getProduct();
-            int totalProductQuantity = comboProduct.getQuantity() * quantityOrdered;
-            discountIngredientsForProduct(product, totalProductQuantity);
+        Timer.Sample sample = RESERVE_TIMER.start();
+        String outcome = "error";
+        try {
+            stockLedger.reserve(required);
+            outcome = "reserved";
+        } catch (IllegalStateException e) {
+            outcome = "insufficient";
+            throw e;
+        } finally {
+            RESERVE_TIMER.stop(sample, outcome);
         }
     }
 
-    private void discountIngredientsForProduct(Product product, int quantityOrdered) {
-        if (product.getProductIngredients() == null) return;
-
-        product.getProductIngredients().forEach(pi -> {
-            var ingredient = pi.getIngredient();
-            int required = pi.getQuantity() * quantityOrdered;
-
-            int newStock = ingredient.getStock() - required;
-            if (newStock < 0) {
-                throw new IllegalStateException(
-                        "Not enough stock for ingredient: " + ingredient.getName()
-                );
-            }
-            ingredient.setStock(newStock);
-            ingredientRepository.save(ingredient);
-        });
-    }
-
     @Transactional
     public Optional<OrderDTO> markReady(Long id) {
         Order order = orderRepository.findById(id)
@@ -217,7 +381,7 @@ public class OrderService {
             throw new IllegalStateException("Order must be in preparation to mark ready");
         }
         order.setState(new OrderStatus(STATUS_READY, "ready for pickup"));
-        return Optional.of(orderRepository.save(order).toDTO());
+        return Optional.of(saveStateChange(order));
     }
 
     @Transactional
@@ -228,7 +392,7 @@ public class OrderService {
             throw new IllegalStateException("Order must be ready for pickup");
         }
         order.setState(new OrderStatus(STATUS_COMPLETE, "complete"));
-        return Optional.of(orderRepository.save(order).toDTO());
+        return Optional.of(saveStateChange(order));
     }
 
     @Transactional
@@ -241,7 +405,13 @@ public class OrderService {
             throw new IllegalStateException("Order cannot be canceled once preparation has started");
         }
         order.setState(new OrderStatus(STATUS_CANCELED, "canceled"));
-        return Optional.of(orderRepository.save(order).toDTO());
+        return Optional.of(saveStateChange(order));
+    }
+
+    private OrderDTO saveStateChange(Order order) {
+        OrderDTO saved = orderRepository.save(order).toDTO();
+        eventPublisher.publishEvent(OrderChangedEvent.stateChanged(saved));
+        return saved;
     }
 
     public boolean deleteOrder(long id) {
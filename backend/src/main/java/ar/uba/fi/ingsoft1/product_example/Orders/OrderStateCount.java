@@ -0,0 +1,4 @@
+package ar.uba.fi.ingsoft1.product_example.Orders;
+
+public record OrderStateCount(Long stateId, Long orders) {
+}
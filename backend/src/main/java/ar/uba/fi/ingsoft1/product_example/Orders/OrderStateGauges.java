@@ -0,0 +1,56 @@
+package ar.uba.fi.ingsoft1.product_example.Orders;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes {@code orders.by.state}, the number of orders in each state tagged with the state name.
+ * Counting on every scrape would put a grouped scan on the database each time Prometheus polls, so
+ * the counts are refreshed every {@code metrics.gauges.refresh-interval-ms} and the gauges read the
+ * last result.
+ */
+@Component
+public class OrderStateGauges {
+
+    private final OrderRepository orderRepository;
+    private final Map<Long, AtomicLong> counts = new HashMap<>();
+
+    @Autowired
+    public OrderStateGauges(
+            OrderRepository orderRepository,
+            OrderService orderService,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        this(orderRepository, orderService, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    OrderStateGauges(OrderRepository orderRepository, OrderService orderService, MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        for (OrderStatus status : orderService.getAllStatuses()) {
+            AtomicLong count = new AtomicLong();
+            counts.put(status.getId(), count);
+            Gauge.builder("orders.by.state", count, AtomicLong::get)
+                    .description("Orders currently in each state")
+                    .tag("state", status.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${metrics.gauges.refresh-interval-ms:15000}")
+    public void refresh() {
+        Map<Long, Long> current = new HashMap<>();
+        for (OrderStateCount row : orderRepository.countByState()) {
+            current.put(row.stateId(), row.orders());
+        }
+        counts.forEach((stateId, count) -> count.set(current.getOrDefault(stateId, 0L)));
+    }
+}
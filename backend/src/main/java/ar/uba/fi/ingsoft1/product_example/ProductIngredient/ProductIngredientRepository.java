@@ -1,8 +1,15 @@
 package ar.uba.fi.ingsoft1.product_example.ProductIngredient;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface ProductIngredientRepository extends JpaRepository<ProductIngredient, ProductIngredientId> {
 	// Remove all ProductIngredient rows that reference the given ingredient id
 	void deleteById_IngredientId(Long ingredientId);
+
+	// Every (product, ingredient) pair, without loading either side
+	@Query("SELECT pi.id FROM ProductIngredient pi")
+	List<ProductIngredientId> findAllIds();
 }
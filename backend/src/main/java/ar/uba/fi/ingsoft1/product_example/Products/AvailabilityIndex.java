@@ -0,0 +1,257 @@
+package ar.uba.fi.ingsoft1.product_example.Products;
+
+import ar.uba.fi.ingsoft1.product_example.Combos.Combo;
+import ar.uba.fi.ingsoft1.product_example.ComboProduct.ComboProduct;
+import ar.uba.fi.ingsoft1.product_example.ComboProduct.ComboProductId;
+import ar.uba.fi.ingsoft1.product_example.ComboProduct.ComboProductRepository;
+import ar.uba.fi.ingsoft1.product_example.Ingredients.IngredientAvailabilityChangedEvent;
+import ar.uba.fi.ingsoft1.product_example.Ingredients.IngredientRepository;
+import ar.uba.fi.ingsoft1.product_example.Ingredients.StockLedger;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredient;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientId;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientRepository;
+import ar.uba.fi.ingsoft1.product_example.common.CatalogChangedEvent;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Which products and combos can be ordered right now, kept as two bitsets indexed by id. A product
+ * is available when it has ingredients and every one of them has at least one unit in the
+ * {@link StockLedger}; a combo when it has products and all of them are available.
+ *
+ * <p>The index is built from the composition tables on first use and after any product, combo or
+ * ingredient change. Between rebuilds it is updated incrementally: the ledger reports every
+ * ingredient that runs out or comes back, and only the products using that ingredient (and the
+ * combos using those products) are looked at. In {@code stock.persistence=atomic} mode the ledger
+ * keeps no counters and reports the change after the order commits, so it triggers a rebuild
+ * instead.
+ *
+ * <p>Readers never block; they see an immutable view that is replaced on every change.
+ */
+@Component
+public class AvailabilityIndex {
+
+    /**
+     * Order of this index's catalog and stock listeners. Views built on top of it (the menu
+     * snapshot) must listen after it, or they may rebuild from the old index under a new version.
+     */
+    public static final int LISTENER_ORDER = 0;
+
+    private record View(long generation, BitSet products, BitSet combos) {
+    }
+
+    // Reverse edges of the composition graph plus, for each product and combo, how many of its
+    // parts are currently missing. Only touched while holding the index lock.
+    private static final class Graph {
+        private final Map<Long, List<Long>> productsByIngredient = new HashMap<>();
+        private final Map<Long, List<Long>> combosByProduct = new HashMap<>();
+        private final Map<Long, Integer> missingIngredients = new HashMap<>();
+        private final Map<Long, Integer> missingProducts = new HashMap<>();
+        private final BitSet ingredientsInStock = new BitSet();
+    }
+
+    private final IngredientRepository ingredientRepository;
+    private final ProductIngredientRepository productIngredientRepository;
+    private final ComboProductRepository comboProductRepository;
+    private final StockLedger stockLedger;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final Object lock = new Object();
+    private Graph graph;
+    private volatile View view;
+
+    public AvailabilityIndex(
+            IngredientRepository ingredientRepository,
+            ProductIngredientRepository productIngredientRepository,
+            ComboProductRepository comboProductRepository,
+            StockLedger stockLedger
+    ) {
+        this.ingredientRepository = ingredientRepository;
+        this.productIngredientRepository = productIngredientRepository;
+        this.comboProductRepository = comboProductRepository;
+        this.stockLedger = stockLedger;
+    }
+
+    public boolean isProductAvailable(Long productId) {
+        return productId != null && current().products().get(index(productId));
+    }
+
+    public boolean isComboAvailable(Long comboId) {
+        return comboId != null && current().combos().get(index(comboId));
+    }
+
+    public List<Long> availableProductIds() {
+        return ids(current().products());
+    }
+
+    public List<Long> availableComboIds() {
+        return ids(current().combos());
+    }
+
+    /**
+     * Whether {@code product} can be ordered as it stands in the current transaction, worked out
+     * from its ingredients against the ledger. For answering an edit to the product itself, which
+     * the index only picks up once the change commits.
+     */
+    public boolean evaluate(Product product) {
+        List<ProductIngredient> parts = product.getProductIngredients();
+        if (parts == null || parts.isEmpty()) {
+            return false;
+        }
+        for (ProductIngredient part : parts) {
+            if (part.getIngredient() == null || stockLedger.available(part.getIngredient()) < 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Same as {@link #evaluate(Product)} for a combo; its products are looked up in the index. */
+    public boolean evaluate(Combo combo) {
+        List<ComboProduct> parts = combo.getComboProducts();
+        if (parts == null || parts.isEmpty()) {
+            return false;
+        }
+        for (ComboProduct part : parts) {
+            if (part.getProduct() == null || !isProductAvailable(part.getProduct().getId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Order(LISTENER_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        switch (event.type()) {
+            case PRODUCT, COMBO, INGREDIENT -> invalidate();
+            default -> { }
+        }
+    }
+
+    @Order(LISTENER_ORDER)
+    @EventListener
+    public void onIngredientAvailabilityChanged(IngredientAvailabilityChangedEvent event) {
+        if (stockLedger.mode() == StockLedger.Mode.ATOMIC) {
+            invalidate();
+            return;
+        }
+        synchronized (lock) {
+            View current = view;
+            if (graph == null || current == null || current.generation() != generation.get()) {
+                return;
+            }
+            int ingredient = index(event.ingredientId());
+            // Re-read the level: events for the same ingredient may arrive out of order.
+            boolean inStock = stockLedger.available(event.ingredientId()) >= 1;
+            if (graph.ingredientsInStock.get(ingredient) == inStock) {
+                return;
+            }
+            graph.ingredientsInStock.set(ingredient, inStock);
+
+            BitSet products = (BitSet) current.products().clone();
+            BitSet combos = (BitSet) current.combos().clone();
+            int delta = inStock ? -1 : 1;
+            for (Long productId : graph.productsByIngredient.getOrDefault(event.ingredientId(), List.of())) {
+                if (!flipped(graph.missingIngredients, productId, delta, products)) {
+                    continue;
+                }
+                for (Long comboId : graph.combosByProduct.getOrDefault(productId, List.of())) {
+                    flipped(graph.missingProducts, comboId, delta, combos);
+                }
+            }
+            view = new View(current.generation(), products, combos);
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    private View current() {
+        View current = view;
+        if (current != null && current.generation() == generation.get()) {
+            return current;
+        }
+        synchronized (lock) {
+            current = view;
+            long target = generation.get();
+            if (current == null || current.generation() != target) {
+                current = rebuild(target);
+                view = current;
+            }
+            return current;
+        }
+    }
+
+    private View rebuild(long target) {
+        Graph rebuilt = new Graph();
+        stockLedger.available(ingredientRepository.findAll()).forEach((ingredientId, level) -> {
+            if (level >= 1) {
+                rebuilt.ingredientsInStock.set(index(ingredientId));
+            }
+        });
+
+        for (ProductIngredientId edge : productIngredientRepository.findAllIds()) {
+            rebuilt.productsByIngredient.computeIfAbsent(edge.getIngredientId(), id -> new ArrayList<>())
+                    .add(edge.getProductId());
+            boolean inStock = rebuilt.ingredientsInStock.get(index(edge.getIngredientId()));
+            rebuilt.missingIngredients.merge(edge.getProductId(), inStock ? 0 : 1, Integer::sum);
+        }
+        BitSet products = complete(rebuilt.missingIngredients);
+
+        for (ComboProductId edge : comboProductRepository.findAllIds()) {
+            rebuilt.combosByProduct.computeIfAbsent(edge.getProductId(), id -> new ArrayList<>())
+                    .add(edge.getComboId());
+            boolean available = products.get(index(edge.getProductId()));
+            rebuilt.missingProducts.merge(edge.getComboId(), available ? 0 : 1, Integer::sum);
+        }
+        BitSet combos = complete(rebuilt.missingProducts);
+
+        graph = rebuilt;
+        return new View(target, products, combos);
+    }
+
+    // Applies delta to the missing-part count of id and mirrors it in available; returns true if
+    // that changed whether id is available.
+    private static boolean flipped(Map<Long, Integer> missing, Long id, int delta, BitSet available) {
+        int before = missing.getOrDefault(id, 0);
+        int after = before + delta;
+        missing.put(id, after);
+        if ((before == 0) == (after == 0)) {
+            return false;
+        }
+        available.set(index(id), after == 0);
+        return true;
+    }
+
+    private static BitSet complete(Map<Long, Integer> missing) {
+        BitSet available = new BitSet();
+        missing.forEach((id, count) -> {
+            if (count == 0) {
+                available.set(index(id));
+            }
+        });
+        return available;
+    }
+
+    private static List<Long> ids(BitSet bits) {
+        List<Long> ids = new ArrayList<>(bits.cardinality());
+        bits.stream().forEach(id -> ids.add((long) id));
+        return ids;
+    }
+
+    private static int index(long id) {
+        return Math.toIntExact(id);
+    }
+}
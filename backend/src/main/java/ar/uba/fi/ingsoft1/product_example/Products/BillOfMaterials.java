@@ -0,0 +1,106 @@
+package ar.uba.fi.ingsoft1.product_example.Products;
+
+import ar.uba.fi.ingsoft1.product_example.ComboProduct.ComboProduct;
+import ar.uba.fi.ingsoft1.product_example.Combos.Combo;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongToIntFunction;
+
+/**
+ * Flattened ingredient requirements of one unit of a product or combo, sorted by ingredient id.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class BillOfMaterials {
+
+    public static final BillOfMaterials EMPTY = new BillOfMaterials(new long[0], new int[0]);
+
+    private final long[] ingredientIds;
+    private final int[] quantities;
+
+    private BillOfMaterials(long[] ingredientIds, int[] quantities) {
+        this.ingredientIds = ingredientIds;
+        this.quantities = quantities;
+    }
+
+    public static BillOfMaterials of(Product product) {
+        TreeMap<Long, Integer> totals = new TreeMap<>();
+        addProduct(totals, product, 1);
+        return of(totals);
+    }
+
+    public static BillOfMaterials of(Combo combo) {
+        TreeMap<Long, Integer> totals = new TreeMap<>();
+        List<ComboProduct> comboProducts = combo.getComboProducts();
+        if (comboProducts != null) {
+            for (ComboProduct cp : comboProducts) {
+                addProduct(totals, cp.getProduct(), cp.getQuantity());
+            }
+        }
+        return of(totals);
+    }
+
+    private static void addProduct(Map<Long, Integer> totals, Product product, int times) {
+        List<ProductIngredient> productIngredients = product.getProductIngredients();
+        if (productIngredients == null) {
+            return;
+        }
+        for (ProductIngredient pi : productIngredients) {
+            totals.merge(pi.getIngredient().getId(), pi.getQuantity() * times, Integer::sum);
+        }
+    }
+
+    private static BillOfMaterials of(TreeMap<Long, Integer> totals) {
+        if (totals.isEmpty()) {
+            return EMPTY;
+        }
+        long[] ids = new long[totals.size()];
+        int[] quantities = new int[totals.size()];
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : totals.entrySet()) {
+            ids[i] = entry.getKey();
+            quantities[i] = entry.getValue();
+            i++;
+        }
+        return new BillOfMaterials(ids, quantities);
+    }
+
+    public int size() {
+        return ingredientIds.length;
+    }
+
+    public boolean isEmpty() {
+        return ingredientIds.length == 0;
+    }
+
+    public long ingredientId(int index) {
+        return ingredientIds[index];
+    }
+
+    public int quantity(int index) {
+        return quantities[index];
+    }
+
+    /**
+     * True if every ingredient has at least one unit left according to {@code stock}.
+     */
+    public boolean allInStock(LongToIntFunction stock) {
+        for (long id : ingredientIds) {
+            if (stock.applyAsInt(id) < 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the requirements of {@code units} units to {@code required} (ingredient id to quantity).
+     */
+    public void addTo(Map<Long, Integer> required, int units) {
+        for (int i = 0; i < ingredientIds.length; i++) {
+            required.merge(ingredientIds[i], quantities[i] * units, Integer::sum);
+        }
+    }
+}
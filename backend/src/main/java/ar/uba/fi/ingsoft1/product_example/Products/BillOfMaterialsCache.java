@@ -0,0 +1,88 @@
+package ar.uba.fi.ingsoft1.product_example.Products;
+
+import ar.uba.fi.ingsoft1.product_example.Combos.Combo;
+import ar.uba.fi.ingsoft1.product_example.common.CatalogChangedEvent;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the {@link BillOfMaterials} of every product and combo that has been ordered or checked for
+ * stock, so the composition graph is only walked again after it changes. Any product, combo or
+ * ingredient change drops everything: those are rare admin edits, and a combo's bill depends on
+ * its products' ingredients anyway.
+ *
+ * <p>A bill is only stored if the entity it was built from is known to have been loaded after the
+ * last invalidation: callers read {@link #generation()} before loading the product or combo and
+ * pass it along. Otherwise an entity loaded just before an admin edit commits could be cached as
+ * current until the next change.
+ */
+@Component
+public class BillOfMaterialsCache {
+
+    private record Entry(long generation, BillOfMaterials bill) {
+    }
+
+    private final ConcurrentHashMap<Long, Entry> products = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Entry> combos = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    /** To be read before loading the entities passed to {@link #forProduct(Product, long)}. */
+    public long generation() {
+        return generation.get();
+    }
+
+    public BillOfMaterials forProduct(Product product, long loadedAt) {
+        return lookup(products, product.getId(), loadedAt, () -> BillOfMaterials.of(product));
+    }
+
+    public BillOfMaterials forCombo(Combo combo, long loadedAt) {
+        return lookup(combos, combo.getId(), loadedAt, () -> BillOfMaterials.of(combo));
+    }
+
+    /** For entities loaded at an unknown point: served from the cache, but never stored in it. */
+    public BillOfMaterials forProduct(Product product) {
+        return forProduct(product, -1);
+    }
+
+    public BillOfMaterials forCombo(Combo combo) {
+        return forCombo(combo, -1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        switch (event.type()) {
+            case PRODUCT, COMBO, INGREDIENT -> invalidate();
+            default -> { }
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        products.clear();
+        combos.clear();
+    }
+
+    private BillOfMaterials lookup(
+            ConcurrentHashMap<Long, Entry> cache, Long id, long loadedAt, Supplier<BillOfMaterials> build) {
+        if (id == null) {
+            return build.get();
+        }
+        long current = generation.get();
+        Entry entry = cache.get(id);
+        if (entry != null && entry.generation() == current) {
+            return entry.bill();
+        }
+        BillOfMaterials bill = build.get();
+        // Tagged with the generation the entity was loaded under, so a bill from an entity that
+        // predates an invalidation is never served, even if it is stored after the invalidation ran.
+        if (loadedAt == current) {
+            cache.put(id, new Entry(loadedAt, bill));
+        }
+        return bill;
+    }
+}
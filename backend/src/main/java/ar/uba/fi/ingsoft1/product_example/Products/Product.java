@@ -3,8 +3,8 @@ package ar.uba.fi.ingsoft1.product_example.Products;
 import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSection;
 import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredient;
 import ar.uba.fi.ingsoft1.product_example.Tags.Tag;
-import ar.uba.fi.ingsoft1.product_example.Ingredients.Ingredient;
 import ar.uba.fi.ingsoft1.product_example.ComboProduct.ComboProduct;
+import ar.uba.fi.ingsoft1.product_example.common.StoredImage;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -30,10 +30,6 @@ import java.util.Set;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Map;
-import java.util.HashMap;
-import java.util.stream.Collectors;
-import java.util.Collections;
 
 @Entity
 @Table(name = "product")
@@ -64,6 +60,18 @@ public class Product {
     @Column(name = "image", columnDefinition = "BYTEA")
     private byte[] image;
 
+    @Column(name = "image_hash", length = 32)
+    private String imageHash;
+
+    public void setImage(byte[] image) {
+        this.image = image;
+        this.imageHash = StoredImage.hashOf(image);
+    }
+
+    public String getImageUrl() {
+        return StoredImage.url("products", id, imageHash);
+    }
+
     @OneToMany(mappedBy = "product", cascade = {CascadeType.ALL, CascadeType.PERSIST, CascadeType.REMOVE}, orphanRemoval = true)
     private List<ProductIngredient> productIngredients = new ArrayList<>();
 
@@ -80,70 +88,4 @@ public class Product {
 
     @ManyToMany(mappedBy = "products")
     private List<MenuSection> menuSections = new ArrayList<>();
-
-
-    public boolean isAvailable() {
-        if (productIngredients == null || productIngredients.isEmpty()) {
-            return false;
-        }
-
-        for (ProductIngredient pi : productIngredients) {
-            Ingredient ingredient = pi.getIngredient();
-            if (ingredient == null) {
-                return false;
-            }
-
-            int stockDisponible = ingredient.getStock();
-
-            if (stockDisponible < 1) {
-                return false;
-            }
-        }
-
-        return true;
-    }
-
-    public ProductDTO toDTO() {
-        Map<Long, String> tags_ = tags != null
-                ? tags.stream()
-                    .collect(Collectors.toMap(
-                        Tag::getId,
-                        Tag::getTag
-                    ))
-                : Map.of();
-
-        List<Map<String, Object>> ingredients = productIngredients != null
-                ? productIngredients.stream()
-                .map(pi -> {
-                    Map<String, Object> ingredientMap = new HashMap<>();
-                    ingredientMap.put("id", pi.getIngredient().getId());
-                    ingredientMap.put("name", pi.getIngredient().getName());
-                    ingredientMap.put("quantity", pi.getQuantity());
-                    return ingredientMap;
-                })
-                .collect(Collectors.toList())
-                : Collections.emptyList();
-        
-        Map<Long, String> menuSections_ = menuSections != null
-                ? menuSections.stream()
-                    .collect(Collectors.toMap(
-                        MenuSection::getId,
-                        MenuSection::getLabel
-                    ))
-                : Map.of();
-
-        return new ProductDTO(
-            this.getId(),
-            this.getName(),
-            this.getDescription(),
-            this.getPrice(),
-            tags_,
-            ingredients,
-            menuSections_,
-            this.getImage(),
-            this.isAvailable()
-        );
-    }  
-
-
 }
@@ -20,10 +20,14 @@ public record ProductDTO(
         Map<Long, String> tags,
         List<Map<String, Object>> ingredients,
         Map<Long, String> menuSections,
-        byte[] image,
+        String imageUrl,
         Boolean available
 ) {
-    public ProductDTO(Product product) {
+    /**
+     * {@code available} comes from the {@link AvailabilityIndex}, so building the DTO never walks
+     * the product down to ingredient stock.
+     */
+    public ProductDTO(Product product, boolean available) {
         this(
             product.getId(),
             product.getName(),
@@ -54,8 +58,8 @@ public record ProductDTO(
                         MenuSection::getLabel
                     ))
                 : Map.of(),
-            product.getImage(),
-            product.isAvailable()
+            product.getImageUrl(),
+            available
         );
     }
 }
@@ -1,9 +1,13 @@
 package ar.uba.fi.ingsoft1.product_example.Products;
 
+import ar.uba.fi.ingsoft1.product_example.common.StoredImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p " +
@@ -18,6 +22,18 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     List<Product> findAll();
 
+    @Query("SELECT new ar.uba.fi.ingsoft1.product_example.common.StoredImage(p.image, p.imageHash) " +
+           "FROM Product p WHERE p.id = :id AND p.image IS NOT NULL")
+    Optional<StoredImage> findImageById(@Param("id") Long id);
+
+    // Rows stored before image_hash existed; see ProductService#backfillImageHashes
+    @Query("SELECT p.id FROM Product p WHERE p.image IS NOT NULL AND p.imageHash IS NULL")
+    List<Long> findIdsWithoutImageHash();
+
+    @Modifying
+    @Query("UPDATE Product p SET p.imageHash = :hash WHERE p.id = :id")
+    int setImageHash(@Param("id") Long id, @Param("hash") String hash);
+
     // find products that have a tag with the given id
     List<Product> findByTags_Id(Long tagId);
 }
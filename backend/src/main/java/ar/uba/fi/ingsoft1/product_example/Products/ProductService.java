@@ -10,8 +10,13 @@ import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientId;
 import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientRepository;
 import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSection;
 import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSectionRepository;
+import ar.uba.fi.ingsoft1.product_example.common.CatalogChangedEvent;
+import ar.uba.fi.ingsoft1.product_example.common.StoredImage;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -33,25 +38,52 @@ class ProductService {
     private final ProductIngredientRepository productIngredientRepository;
     private final TagRepository tagRepository;
     private final MenuSectionRepository menuSectionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AvailabilityIndex availabilityIndex;
 
     private static final long MAX_IMAGE_SIZE = 2 * 1024 * 1024; // 2 MB
 
+    @Transactional(readOnly = true)
     public List<ProductDTO> geAlltProducts() {
         return productRepository.findAll()
                 .stream()
-                .map(ProductDTO::new)
+                .map(this::toDTO)
                 .toList();
     }
 
+    @Transactional(readOnly = true)
     public List<ProductDTO> getProductsAvailable() {
-        return productRepository.findProductsWithAllIngredientsInStock()
+        return productRepository.findAllById(availabilityIndex.availableProductIds())
                 .stream()
-                .map(ProductDTO::new)
+                .map(product -> new ProductDTO(product, true))
                 .toList();
     }
 
     public Optional<ProductDTO> getProductById(long id) {
-        return productRepository.findById(id).map(ProductDTO::new);
+        return productRepository.findById(id).map(this::toDTO);
+    }
+
+    private ProductDTO toDTO(Product product) {
+        return new ProductDTO(product, availabilityIndex.isProductAvailable(product.getId()));
+    }
+
+    public Optional<StoredImage> getProductImage(long id) {
+        return productRepository.findImageById(id);
+    }
+
+    /**
+     * Hashes the images of rows stored before {@code image_hash} existed. New images are hashed in
+     * {@link Product#setImage}, so this only finds work on the first start after the upgrade.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillImageHashes() {
+        List<Long> ids = productRepository.findIdsWithoutImageHash();
+        for (Long id : ids) {
+            productRepository.findImageById(id).ifPresent(image -> productRepository.setImageHash(id, image.hash()));
+        }
+        if (!ids.isEmpty()) {
+            eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.PRODUCT));
+        }
     }
 
     @Transactional
@@ -103,8 +135,9 @@ class ProductService {
         product.setProductIngredients(productIngredients);
 
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.PRODUCT));
 
-        return Optional.of(savedProduct.toDTO());
+        return Optional.of(new ProductDTO(savedProduct, availabilityIndex.evaluate(savedProduct)));
     }
 
     @Transactional
@@ -172,8 +205,9 @@ class ProductService {
 
 
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.PRODUCT));
 
-        return Optional.of(savedProduct.toDTO());
+        return Optional.of(new ProductDTO(savedProduct, availabilityIndex.evaluate(savedProduct)));
     }
 
 
@@ -189,6 +223,7 @@ class ProductService {
             section.getProducts().remove(product);
         });
         productRepository.delete(product);
+        eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.PRODUCT));
         return true;
     }
 }
@@ -1,6 +1,7 @@
 package ar.uba.fi.ingsoft1.product_example.Promotions;
 
 import ar.uba.fi.ingsoft1.product_example.Orders.Order;
+import ar.uba.fi.ingsoft1.product_example.Products.AvailabilityIndex;
 import ar.uba.fi.ingsoft1.product_example.Products.ProductDTO;
 import ar.uba.fi.ingsoft1.product_example.Combos.ComboDTO;
 import ar.uba.fi.ingsoft1.product_example.Products.Product;
@@ -46,9 +47,8 @@ public class BuyGiveFreePromotion extends Promotion {
             .mapToLong(d -> d.getQuantity())
             .sum();
 
-        if (triggerCount == 0) return;
-
-        long freebies = oneFreePerTrigger ? triggerCount : 1;
+        long freebies = freebiesFor(triggerCount);
+        if (freebies == 0) return;
 
         for (var detail : order.getDetails()) {
             boolean isFreebie =
@@ -56,37 +56,47 @@ public class BuyGiveFreePromotion extends Promotion {
                 (detail.getCombo() != null && freeCombos.contains(detail.getCombo()));
 
             if (isFreebie) {
-                long discountUnits = Math.min(detail.getQuantity(), freebies);
-                BigDecimal unitPrice = detail.getPrice();
-                BigDecimal discount = unitPrice.multiply(BigDecimal.valueOf(discountUnits));
-                detail.setDiscount(detail.getDiscount().add(discount));
-                detail.calculateTotal();
-                freebies -= discountUnits;
+                freebies -= giveFree(detail, freebies);
                 if (freebies <= 0) break;
             }
         }
     }
 
+    long freebiesFor(long triggerCount) {
+        if (triggerCount == 0) return 0;
+        return oneFreePerTrigger ? triggerCount : 1;
+    }
+
+    /** Discounts up to {@code freebies} units of the line and returns how many were given away. */
+    long giveFree(OrderDetail detail, long freebies) {
+        long discountUnits = Math.min(detail.getQuantity(), freebies);
+        BigDecimal unitPrice = detail.getPrice();
+        BigDecimal discount = unitPrice.multiply(BigDecimal.valueOf(discountUnits));
+        detail.setDiscount(detail.getDiscount().add(discount));
+        detail.calculateTotal();
+        return discountUnits;
+    }
+
     @Override
-    public BuyGiveFreePromotionDTO toDTO() {
+    public BuyGiveFreePromotionDTO toDTO(AvailabilityIndex availability) {
         Set<ProductDTO> triggerProducts_ = 
             this.getProducts() != null ? this.getProducts().stream()
-                .map(product -> new ProductDTO(product))
+                .map(product -> new ProductDTO(product, availability.isProductAvailable(product.getId())))
                 .collect(Collectors.toSet()) : Set.of();
 
         Set<ComboDTO> triggerCombos_ = 
             this.getCombos() != null ? this.getCombos().stream()
-                .map(combo -> new ComboDTO(combo))
+                .map(combo -> new ComboDTO(combo, availability.isComboAvailable(combo.getId())))
                 .collect(Collectors.toSet()) : Set.of();
 
         Set<ProductDTO> freeProducts_ =
             this.getFreeProducts() != null ? this.getFreeProducts().stream()
-                .map(product -> new ProductDTO(product))
+                .map(product -> new ProductDTO(product, availability.isProductAvailable(product.getId())))
                 .collect(Collectors.toSet()) : Set.of();
 
         Set<ComboDTO> freeCombos_ =
             this.getFreeCombos() != null ? this.getFreeCombos().stream()
-                .map(combo -> new ComboDTO(combo))
+                .map(combo -> new ComboDTO(combo, availability.isComboAvailable(combo.getId())))
                 .collect(Collectors.toSet()) : Set.of();
 
         Set<DayOfWeek> validDays_ =
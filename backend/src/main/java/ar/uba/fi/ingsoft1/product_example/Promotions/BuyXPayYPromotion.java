@@ -1,6 +1,8 @@
 package ar.uba.fi.ingsoft1.product_example.Promotions;
 
+import ar.uba.fi.ingsoft1.product_example.OrderDetails.OrderDetail;
 import ar.uba.fi.ingsoft1.product_example.Orders.Order;
+import ar.uba.fi.ingsoft1.product_example.Products.AvailabilityIndex;
 import ar.uba.fi.ingsoft1.product_example.Products.ProductDTO;
 import ar.uba.fi.ingsoft1.product_example.Combos.ComboDTO;
 
@@ -18,7 +20,7 @@ import java.time.DayOfWeek;
 @Table(name = "buy_x_pay_y_promo")
 @Data
 @RequiredArgsConstructor
-public class BuyXPayYPromotion extends Promotion {
+public class BuyXPayYPromotion extends Promotion implements LineDiscount {
     private int buyQuantity;
     private int payQuantity;
 
@@ -34,28 +36,33 @@ public class BuyXPayYPromotion extends Promotion {
                  getCombos().stream().anyMatch(c -> c.getId().equals(detail.getCombo().getId())));
 
             if (applies) {
-                int quantity = detail.getQuantity();
-                int groups = quantity / buyQuantity;
-                int freeUnits = groups * (buyQuantity - payQuantity);
-                BigDecimal prevDiscount = detail.getDiscount();
-                if (freeUnits > 0) {
-                    BigDecimal unitPrice = detail.getPrice();
-                    BigDecimal discount = unitPrice.multiply(BigDecimal.valueOf(freeUnits));
-                    detail.setDiscount(prevDiscount.add(discount));
-                    detail.calculateTotal();
-                }
+                applyTo(detail);
             }
         }
     }
 
     @Override
-    public BuyXPayYPromotionDTO toDTO() {
+    public void applyTo(OrderDetail detail) {
+        int quantity = detail.getQuantity();
+        int groups = quantity / buyQuantity;
+        int freeUnits = groups * (buyQuantity - payQuantity);
+        BigDecimal prevDiscount = detail.getDiscount();
+        if (freeUnits > 0) {
+            BigDecimal unitPrice = detail.getPrice();
+            BigDecimal discount = unitPrice.multiply(BigDecimal.valueOf(freeUnits));
+            detail.setDiscount(prevDiscount.add(discount));
+            detail.calculateTotal();
+        }
+    }
+
+    @Override
+    public BuyXPayYPromotionDTO toDTO(AvailabilityIndex availability) {
         Set<ProductDTO> products_ = this.getProducts() != null ? this.getProducts().stream()
-                                    .map(product -> new ProductDTO(product))
+                                    .map(product -> new ProductDTO(product, availability.isProductAvailable(product.getId())))
                                     .collect(Collectors.toSet()) : Set.of();
 
         Set<ComboDTO> combos_ = this.getCombos() != null ? this.getCombos().stream()
-                                .map(combo -> new ComboDTO(combo))
+                                .map(combo -> new ComboDTO(combo, availability.isComboAvailable(combo.getId())))
                                 .collect(Collectors.toSet()) : Set.of();
 
         Set<DayOfWeek> validDays_ = this.getValidDays() != null ? this.getValidDays().stream()
@@ -0,0 +1,11 @@
+package ar.uba.fi.ingsoft1.product_example.Promotions;
+
+import ar.uba.fi.ingsoft1.product_example.OrderDetails.OrderDetail;
+
+/**
+ * A promotion whose effect on an order line depends only on that line.
+ */
+interface LineDiscount {
+
+    void applyTo(OrderDetail detail);
+}
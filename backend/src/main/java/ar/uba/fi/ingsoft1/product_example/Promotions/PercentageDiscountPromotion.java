@@ -1,6 +1,8 @@
 package ar.uba.fi.ingsoft1.product_example.Promotions;
 
+import ar.uba.fi.ingsoft1.product_example.OrderDetails.OrderDetail;
 import ar.uba.fi.ingsoft1.product_example.Orders.Order;
+import ar.uba.fi.ingsoft1.product_example.Products.AvailabilityIndex;
 import ar.uba.fi.ingsoft1.product_example.Products.ProductDTO;
 import ar.uba.fi.ingsoft1.product_example.Combos.ComboDTO;
 
@@ -22,7 +24,7 @@ import java.time.DayOfWeek;
 @Data
 @NoArgsConstructor
 @RequiredArgsConstructor
-public class PercentageDiscountPromotion extends Promotion {
+public class PercentageDiscountPromotion extends Promotion implements LineDiscount {
     @NonNull
     private BigDecimal percentage;
 
@@ -38,22 +40,27 @@ public class PercentageDiscountPromotion extends Promotion {
                  getCombos().stream().anyMatch(c -> c.getId().equals(detail.getCombo().getId())));
 
             if (applies) {
-                BigDecimal prevDiscount = detail.getDiscount();
-                BigDecimal discount = detail.getTotalPrice().multiply(percentage.divide(new BigDecimal("100"), 10, RoundingMode.HALF_UP));
-                detail.setDiscount(prevDiscount.add(discount));
-                detail.calculateTotal();
+                applyTo(detail);
             }
         }
     }
 
     @Override
-    public PercentagePromotionDTO toDTO() {
+    public void applyTo(OrderDetail detail) {
+        BigDecimal prevDiscount = detail.getDiscount();
+        BigDecimal discount = detail.getTotalPrice().multiply(percentage.divide(new BigDecimal("100"), 10, RoundingMode.HALF_UP));
+        detail.setDiscount(prevDiscount.add(discount));
+        detail.calculateTotal();
+    }
+
+    @Override
+    public PercentagePromotionDTO toDTO(AvailabilityIndex availability) {
         Set<ProductDTO> products_ = this.getProducts() != null ? this.getProducts().stream()
-                                    .map(product -> new ProductDTO(product))
+                                    .map(product -> new ProductDTO(product, availability.isProductAvailable(product.getId())))
                                     .collect(Collectors.toSet()) : Set.of();
 
         Set<ComboDTO> combos_ = this.getCombos() != null ? this.getCombos().stream()
-                                .map(combo -> new ComboDTO(combo))
+                                .map(combo -> new ComboDTO(combo, availability.isComboAvailable(combo.getId())))
                                 .collect(Collectors.toSet()) : Set.of();
         
         Set<DayOfWeek> validDays_ = this.getValidDays() != null ? this.getValidDays().stream()
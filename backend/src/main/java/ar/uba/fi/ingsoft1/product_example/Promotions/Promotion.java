@@ -1,5 +1,6 @@
 package ar.uba.fi.ingsoft1.product_example.Promotions;
 
+import ar.uba.fi.ingsoft1.product_example.Products.AvailabilityIndex;
 import ar.uba.fi.ingsoft1.product_example.Products.Product;
 import ar.uba.fi.ingsoft1.product_example.Combos.Combo;
 import ar.uba.fi.ingsoft1.product_example.Orders.Order;
@@ -70,5 +71,5 @@ public abstract class Promotion {
     }
 
     public abstract void apply(Order order);
-    public abstract PromotionDTO toDTO();
+    public abstract PromotionDTO toDTO(AvailabilityIndex availability);
 }
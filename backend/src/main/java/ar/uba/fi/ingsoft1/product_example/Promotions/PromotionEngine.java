@@ -0,0 +1,120 @@
+package ar.uba.fi.ingsoft1.product_example.Promotions;
+
+import ar.uba.fi.ingsoft1.product_example.OrderDetails.OrderDetail;
+import ar.uba.fi.ingsoft1.product_example.Orders.Order;
+import ar.uba.fi.ingsoft1.product_example.common.CatalogChangedEvent;
+import ar.uba.fi.ingsoft1.product_example.common.OutcomeTimer;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Prices orders against a compiled {@link PromotionIndex} of today's active promotions instead of
+ * loading and scanning every promotion per order. The index is rebuilt lazily after any promotion
+ * change and eagerly at midnight, when the set of valid days moves on.
+ */
+@Component
+public class PromotionEngine {
+
+    private static final OutcomeTimer APPLY_TIMER =
+            OutcomeTimer.of("promotions.apply", "Evaluating the active promotions against one order");
+
+    private final PromotionService promotionService;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    private final AtomicLong version = new AtomicLong();
+    private final ReentrantLock compileLock = new ReentrantLock();
+    private volatile PromotionIndex index;
+
+    @Autowired
+    public PromotionEngine(PromotionService promotionService, PlatformTransactionManager transactionManager) {
+        this(promotionService, transactionManager, Clock.systemDefaultZone());
+    }
+
+    PromotionEngine(PromotionService promotionService, PlatformTransactionManager transactionManager, Clock clock) {
+        this.promotionService = promotionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.clock = clock;
+    }
+
+    /**
+     * Applies every active promotion to the order's lines and order-level discount. The caller is
+     * expected to have calculated the order total beforehand and to recalculate it afterwards.
+     */
+    public void apply(Order order) {
+        Timer.Sample sample = APPLY_TIMER.start();
+        String outcome = "error";
+        try {
+            current().apply(order);
+            outcome = discounted(order) ? "discounted" : "unchanged";
+        } finally {
+            APPLY_TIMER.stop(sample, outcome);
+        }
+    }
+
+    private static boolean discounted(Order order) {
+        if (order.getDiscount() != null && order.getDiscount().signum() > 0) {
+            return true;
+        }
+        for (OrderDetail detail : order.getDetails()) {
+            if (detail.getDiscount() != null && detail.getDiscount().signum() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.type() == CatalogChangedEvent.Type.PROMOTION) {
+            version.incrementAndGet();
+        }
+    }
+
+    @Scheduled(cron = "0 0 0 * * *")
+    public void recompile() {
+        version.incrementAndGet();
+        current();
+    }
+
+    PromotionIndex current() {
+        PromotionIndex compiled = index;
+        if (isCurrent(compiled)) {
+            return compiled;
+        }
+        compileLock.lock();
+        try {
+            compiled = index;
+            if (isCurrent(compiled)) {
+                return compiled;
+            }
+            long target = version.get();
+            DayOfWeek today = LocalDate.now(clock).getDayOfWeek();
+            compiled = transactionTemplate.execute(status ->
+                    PromotionIndex.compile(promotionService.getPromotionsActiveOn(today), today, target));
+            index = compiled;
+            return compiled;
+        } finally {
+            compileLock.unlock();
+        }
+    }
+
+    private boolean isCurrent(PromotionIndex compiled) {
+        return compiled != null
+                && compiled.version() == version.get()
+                && compiled.day() == LocalDate.now(clock).getDayOfWeek();
+    }
+}
@@ -0,0 +1,183 @@
+package ar.uba.fi.ingsoft1.product_example.Promotions;
+
+import ar.uba.fi.ingsoft1.product_example.Combos.Combo;
+import ar.uba.fi.ingsoft1.product_example.OrderDetails.OrderDetail;
+import ar.uba.fi.ingsoft1.product_example.Orders.Order;
+import ar.uba.fi.ingsoft1.product_example.Products.Product;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable view of the promotions active on one day, indexed by the product and combo ids they
+ * touch. Applying it to an order gives the same result as calling {@link Promotion#apply} on every
+ * promotion in turn: each line still sees its matching rules in the original promotion order, and
+ * threshold rules compare against the total from before any promotion was applied.
+ */
+final class PromotionIndex {
+
+    private enum Kind {
+        LINE,
+        TRIGGER,
+        FREE
+    }
+
+    private record Rule(int sequence, Kind kind, Promotion promotion, int slot) {
+    }
+
+    private static final Rule[] NO_RULES = new Rule[0];
+
+    private final long version;
+    private final DayOfWeek day;
+    private final Map<Long, Rule[]> byProduct;
+    private final Map<Long, Rule[]> byCombo;
+    private final List<ThresholdDiscountPromotion> thresholds;
+    private final BuyGiveFreePromotion[] giveFree;
+
+    private PromotionIndex(long version, DayOfWeek day, Map<Long, Rule[]> byProduct, Map<Long, Rule[]> byCombo,
+                           List<ThresholdDiscountPromotion> thresholds, BuyGiveFreePromotion[] giveFree) {
+        this.version = version;
+        this.day = day;
+        this.byProduct = byProduct;
+        this.byCombo = byCombo;
+        this.thresholds = thresholds;
+        this.giveFree = giveFree;
+    }
+
+    static PromotionIndex compile(List<Promotion> promotions, DayOfWeek day, long version) {
+        Map<Long, List<Rule>> byProduct = new HashMap<>();
+        Map<Long, List<Rule>> byCombo = new HashMap<>();
+        List<ThresholdDiscountPromotion> thresholds = new ArrayList<>();
+        List<BuyGiveFreePromotion> giveFree = new ArrayList<>();
+
+        int sequence = 0;
+        for (Promotion promotion : promotions) {
+            if (!promotion.isCurrentlyActive()) {
+                continue;
+            }
+            switch (promotion) {
+                case ThresholdDiscountPromotion threshold -> thresholds.add(threshold);
+                case BuyGiveFreePromotion gift -> {
+                    int slot = giveFree.size();
+                    giveFree.add(gift);
+                    index(byProduct, byCombo, gift.getProducts(), gift.getCombos(),
+                            new Rule(sequence, Kind.TRIGGER, gift, slot));
+                    index(byProduct, byCombo, gift.getFreeProducts(), gift.getFreeCombos(),
+                            new Rule(sequence, Kind.FREE, gift, slot));
+                }
+                case LineDiscount line -> index(byProduct, byCombo, promotion.getProducts(), promotion.getCombos(),
+                        new Rule(sequence, Kind.LINE, promotion, -1));
+                default -> throw new IllegalArgumentException(
+                        "Unsupported promotion type: " + promotion.getClass().getSimpleName());
+            }
+            sequence++;
+        }
+
+        return new PromotionIndex(version, day, freeze(byProduct), freeze(byCombo),
+                List.copyOf(thresholds), giveFree.toArray(new BuyGiveFreePromotion[0]));
+    }
+
+    private static void index(Map<Long, List<Rule>> byProduct, Map<Long, List<Rule>> byCombo,
+                              Set<Product> products, Set<Combo> combos, Rule rule) {
+        if (products != null) {
+            products.forEach(p -> byProduct.computeIfAbsent(p.getId(), id -> new ArrayList<>()).add(rule));
+        }
+        if (combos != null) {
+            combos.forEach(c -> byCombo.computeIfAbsent(c.getId(), id -> new ArrayList<>()).add(rule));
+        }
+    }
+
+    private static Map<Long, Rule[]> freeze(Map<Long, List<Rule>> rules) {
+        Map<Long, Rule[]> frozen = new HashMap<>(rules.size() * 2);
+        rules.forEach((id, list) -> frozen.put(id, list.toArray(NO_RULES)));
+        return Map.copyOf(frozen);
+    }
+
+    long version() {
+        return version;
+    }
+
+    DayOfWeek day() {
+        return day;
+    }
+
+    void apply(Order order) {
+        List<OrderDetail> details = order.getDetails();
+        BigDecimal subtotal = order.getTotalPrice();
+
+        Rule[][] matched = new Rule[details.size()][];
+        long[] freebies = new long[giveFree.length];
+        for (int i = 0; i < details.size(); i++) {
+            OrderDetail detail = details.get(i);
+            matched[i] = rulesFor(detail);
+            for (Rule rule : matched[i]) {
+                if (rule.kind() == Kind.TRIGGER) {
+                    freebies[rule.slot()] += detail.getQuantity();
+                }
+            }
+        }
+        for (int slot = 0; slot < giveFree.length; slot++) {
+            freebies[slot] = giveFree[slot].freebiesFor(freebies[slot]);
+        }
+
+        for (int i = 0; i < details.size(); i++) {
+            OrderDetail detail = details.get(i);
+            for (Rule rule : matched[i]) {
+                switch (rule.kind()) {
+                    case LINE -> ((LineDiscount) rule.promotion()).applyTo(detail);
+                    case FREE -> {
+                        if (freebies[rule.slot()] > 0) {
+                            freebies[rule.slot()] -= giveFree[rule.slot()].giveFree(detail, freebies[rule.slot()]);
+                        }
+                    }
+                    case TRIGGER -> { }
+                }
+            }
+        }
+
+        for (ThresholdDiscountPromotion threshold : thresholds) {
+            threshold.applyTo(order, subtotal);
+        }
+    }
+
+    private Rule[] rulesFor(OrderDetail detail) {
+        Rule[] productRules = detail.getProduct() != null
+                ? byProduct.getOrDefault(detail.getProduct().getId(), NO_RULES) : NO_RULES;
+        Rule[] comboRules = detail.getCombo() != null
+                ? byCombo.getOrDefault(detail.getCombo().getId(), NO_RULES) : NO_RULES;
+        if (comboRules.length == 0) {
+            return productRules;
+        }
+        if (productRules.length == 0) {
+            return comboRules;
+        }
+        // A line carrying both a product and a combo matches each promotion at most once.
+        Rule[] merged = Arrays.copyOf(productRules, productRules.length + comboRules.length);
+        int size = productRules.length;
+        for (Rule rule : comboRules) {
+            if (!containsSameRule(productRules, rule)) {
+                merged[size++] = rule;
+            }
+        }
+        merged = Arrays.copyOf(merged, size);
+        Arrays.sort(merged, (a, b) -> a.sequence() != b.sequence()
+                ? Integer.compare(a.sequence(), b.sequence())
+                : a.kind().compareTo(b.kind()));
+        return merged;
+    }
+
+    private static boolean containsSameRule(Rule[] rules, Rule candidate) {
+        for (Rule rule : rules) {
+            if (rule.sequence() == candidate.sequence() && rule.kind() == candidate.kind()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -2,19 +2,28 @@ package ar.uba.fi.ingsoft1.product_example.Promotions;
 
 import ar.uba.fi.ingsoft1.product_example.Combos.Combo;
 import ar.uba.fi.ingsoft1.product_example.Combos.ComboRepository;
+import ar.uba.fi.ingsoft1.product_example.Products.AvailabilityIndex;
 import ar.uba.fi.ingsoft1.product_example.Products.Product;
 import ar.uba.fi.ingsoft1.product_example.Products.ProductRepository;
+import ar.uba.fi.ingsoft1.product_example.common.CatalogChangedEvent;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.util.stream.Collectors;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 
@@ -25,38 +34,94 @@ public class PromotionService {
     private final PromotionRepository promotionRepository;
     private final ProductRepository productRepository;
     private final ComboRepository comboRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AvailabilityIndex availabilityIndex;
 
+    // Active promotions per day, fully initialized so they can be used after the loading
+    // transaction ends. Tagged with a generation so a load racing an eviction is never served.
+    private record ActivePromotions(long generation, List<Promotion> promotions) {
+    }
+
+    private final Map<DayOfWeek, ActivePromotions> activeByDay = new ConcurrentHashMap<>();
+    private final AtomicLong activeGeneration = new AtomicLong();
+
+    @Transactional(readOnly = true)
     public List<PromotionDTO> getAllPromotions() {
         return promotionRepository.findAll()
                 .stream()
-                .map(Promotion::toDTO)
+                .map(promotion -> promotion.toDTO(availabilityIndex))
                 .toList();
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<PromotionDTO> getPromotionsDTOActiveNow() {
         DayOfWeek today = DayOfWeek.from(LocalDate.now());
         return promotionRepository.findActivePromotions(today).stream()
-                .map(Promotion::toDTO)
+                .map(promotion -> promotion.toDTO(availabilityIndex))
                 .toList();
     }
 
     @Transactional(readOnly = true)
     public List<Promotion> getPromotionsActiveNow() {
-        DayOfWeek today = DayOfWeek.from(LocalDate.now());
-        return promotionRepository.findActivePromotions(today);
+        return getPromotionsActiveOn(DayOfWeek.from(LocalDate.now()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Promotion> getPromotionsActiveOn(DayOfWeek day) {
+        long generation = activeGeneration.get();
+        ActivePromotions cached = activeByDay.get(day);
+        if (cached != null && cached.generation() == generation) {
+            return cached.promotions();
+        }
+
+        List<Promotion> promotions = promotionRepository.findActivePromotions(day);
+        promotions.forEach(PromotionService::initialize);
+        List<Promotion> loaded = List.copyOf(promotions);
+        activeByDay.put(day, new ActivePromotions(generation, loaded));
+        return loaded;
+    }
+
+    private static void initialize(Promotion promotion) {
+        Hibernate.initialize(promotion.getProducts());
+        Hibernate.initialize(promotion.getCombos());
+        Hibernate.initialize(promotion.getValidDays());
+        if (promotion instanceof BuyGiveFreePromotion gift) {
+            Hibernate.initialize(gift.getFreeProducts());
+            Hibernate.initialize(gift.getFreeCombos());
+        }
+    }
+
+    /**
+     * Drops the cached active promotions now and again once the current transaction commits, so
+     * nothing loaded before the commit survives it. Must run before the change event is published
+     * so listeners reloading after commit see the eviction.
+     */
+    private void evictActivePromotions() {
+        activeGeneration.incrementAndGet();
+        activeByDay.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    activeGeneration.incrementAndGet();
+                    activeByDay.clear();
+                }
+            });
+        }
     }
 
     public Optional<PromotionDTO> getPromotionById(Long id) {
         return promotionRepository.findById(id)
-                .map(Promotion::toDTO);
+                .map(promotion -> promotion.toDTO(availabilityIndex));
     }
 
     @Transactional
     public Optional<PromotionDTO> createPromotion(PromotionCreateDTO dto) {
         Promotion promotion = dto.toEntity(this);
         Promotion saved = promotionRepository.save(promotion);
-        return Optional.of(saved.toDTO());
+        evictActivePromotions();
+        eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.PROMOTION));
+        return Optional.of(saved.toDTO(availabilityIndex));
     }
 
     @Transactional
@@ -67,7 +132,9 @@ public class PromotionService {
         dto.applyTo(promotion, this);
 
         Promotion saved = promotionRepository.save(promotion);
-        return Optional.of(saved.toDTO());
+        evictActivePromotions();
+        eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.PROMOTION));
+        return Optional.of(saved.toDTO(availabilityIndex));
     }
 
     @Transactional
@@ -77,7 +144,9 @@ public class PromotionService {
 
         promotion.setActive(!promotion.isActive());
         promotion = promotionRepository.save(promotion);
-        return Optional.of(promotion.toDTO());
+        evictActivePromotions();
+        eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.PROMOTION));
+        return Optional.of(promotion.toDTO(availabilityIndex));
     }
 
     public boolean deletePromotion(Long id) {
@@ -85,6 +154,8 @@ public class PromotionService {
             return false;
         }
         promotionRepository.deleteById(id);
+        evictActivePromotions();
+        eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.PROMOTION));
         return true;
     }
 
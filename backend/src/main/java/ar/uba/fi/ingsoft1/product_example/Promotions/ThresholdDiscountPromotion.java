@@ -2,6 +2,7 @@ package ar.uba.fi.ingsoft1.product_example.Promotions;
 
 import ar.uba.fi.ingsoft1.product_example.OrderDetails.OrderDetail;
 import ar.uba.fi.ingsoft1.product_example.Orders.Order;
+import ar.uba.fi.ingsoft1.product_example.Products.AvailabilityIndex;
 import ar.uba.fi.ingsoft1.product_example.Products.ProductDTO;
 import ar.uba.fi.ingsoft1.product_example.Combos.ComboDTO;
 
@@ -33,19 +34,23 @@ public class ThresholdDiscountPromotion extends Promotion {
     public void apply(Order order) {
         if (!isCurrentlyActive() || !isValidToday()) return;
 
-        if (order.getTotalPrice().compareTo(threshold) >= 0) {
+        applyTo(order, order.getTotalPrice());
+    }
+
+    void applyTo(Order order, BigDecimal subtotal) {
+        if (subtotal.compareTo(threshold) >= 0) {
             order.setDiscount(order.getDiscount().add(discount));
         }
     }
 
     @Override
-    public ThresholdPromotionDTO toDTO() {
+    public ThresholdPromotionDTO toDTO(AvailabilityIndex availability) {
         Set<ProductDTO> products_ = this.getProducts() != null ? this.getProducts().stream()
-                                    .map(product -> new ProductDTO(product))
+                                    .map(product -> new ProductDTO(product, availability.isProductAvailable(product.getId())))
                                     .collect(Collectors.toSet()) : Set.of();
 
         Set<ComboDTO> combos_ = this.getCombos() != null ? this.getCombos().stream()
-                                .map(combo -> new ComboDTO(combo))
+                                .map(combo -> new ComboDTO(combo, availability.isComboAvailable(combo.getId())))
                                 .collect(Collectors.toSet()) : Set.of();
         
         Set<DayOfWeek> validDays_ = this.getValidDays() != null ? this.getValidDays().stream()
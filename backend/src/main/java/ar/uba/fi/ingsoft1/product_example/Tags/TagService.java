@@ -4,8 +4,10 @@ import ar.uba.fi.ingsoft1.product_example.Products.Product;
 import ar.uba.fi.ingsoft1.product_example.Products.ProductRepository;
 import ar.uba.fi.ingsoft1.product_example.Combos.Combo;
 import ar.uba.fi.ingsoft1.product_example.Combos.ComboRepository;
+import ar.uba.fi.ingsoft1.product_example.common.CatalogChangedEvent;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -22,6 +24,7 @@ class TagService {
     private final TagRepository tagRepository;
     private final ProductRepository productRepository;
     private final ComboRepository comboRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<TagDTO> getTags() {
         return tagRepository.findAll().stream()
@@ -35,14 +38,18 @@ class TagService {
 
     public TagDTO createTag(TagCreateDTO data) {
         var tag = data.asTag();
-        return new TagDTO(tagRepository.save(tag));
+        TagDTO created = new TagDTO(tagRepository.save(tag));
+        eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.TAG));
+        return created;
     }
 
     public Optional<TagDTO> updateTag(long id, TagCreateDTO data) {
         return tagRepository.findById(id)
                 .map(tag -> {
                     tag.setTag(data.tag());
-                    return new TagDTO(tagRepository.save(tag));
+                    TagDTO updated = new TagDTO(tagRepository.save(tag));
+                    eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.TAG));
+                    return updated;
                 });
     }
 
@@ -71,6 +78,7 @@ class TagService {
 
                 tagRepository.deleteById(id);
                 tagRepository.flush();
+                eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.TAG));
                 return true;
             } catch (DataIntegrityViolationException e) {
                 // Tag is still referenced by other entities (e.g. products) -> return conflict
@@ -0,0 +1,21 @@
+package ar.uba.fi.ingsoft1.product_example.common;
+
+/**
+ * Published by the catalog services whenever something visible on the menu changes. Listeners that
+ * keep derived, in-memory views of the catalog should react after the publishing transaction commits.
+ */
+public record CatalogChangedEvent(Type type) {
+
+    public enum Type {
+        PRODUCT,
+        COMBO,
+        MENU_SECTION,
+        TAG,
+        INGREDIENT,
+        PROMOTION
+    }
+
+    public static CatalogChangedEvent of(Type type) {
+        return new CatalogChangedEvent(type);
+    }
+}
@@ -0,0 +1,42 @@
+package ar.uba.fi.ingsoft1.product_example.common;
+
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a transactional call that lost a race (optimistic version conflict, deadlock, lock
+ * timeout). Must wrap the whole transaction, i.e. be called from outside the {@code @Transactional}
+ * service method.
+ */
+public final class ConcurrencyRetry {
+
+    private static final long BASE_BACKOFF_MS = 5;
+
+    private ConcurrencyRetry() {
+    }
+
+    public static <T> T run(int maxAttempts, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                backoff(attempt);
+            }
+        }
+    }
+
+    private static void backoff(int attempt) {
+        long ceiling = BASE_BACKOFF_MS << Math.min(attempt, 6);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying", e);
+        }
+    }
+}
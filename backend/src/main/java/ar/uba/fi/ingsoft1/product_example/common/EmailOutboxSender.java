@@ -0,0 +1,204 @@
+package ar.uba.fi.ingsoft1.product_example.common;
+
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Delivers the email outbox. Each run picks up to {@code email.outbox.batch-size} due messages and
+ * hands them to {@link JavaMailSender} in a single call, which sends them all over one SMTP
+ * connection. Messages that fail are retried with exponential backoff starting at
+ * {@code email.outbox.backoff-ms}; after {@code email.outbox.max-attempts} they are marked
+ * {@link OutboundEmail.Status#DEAD} and left for someone to look at. Delivered messages are kept for
+ * {@code email.outbox.retention-ms} and then purged by {@link #sweepSent()}.
+ *
+ * <p>Like the stock ledger, this assumes a single application instance drains the outbox.
+ */
+@Component
+public class EmailOutboxSender {
+
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final OutcomeTimer SEND_TIMER =
+            OutcomeTimer.of("email.outbox.send", "Handing one outbox batch to the SMTP server");
+
+    private final OutboundEmailRepository outbox;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration retention;
+    private final int sweepBatchSize;
+
+    private final ReentrantLock drainLock = new ReentrantLock();
+
+    @Autowired
+    public EmailOutboxSender(
+            OutboundEmailRepository outbox,
+            JavaMailSender mailSender,
+            PlatformTransactionManager transactionManager,
+            @Value("${email.outbox.batch-size:50}") int batchSize,
+            @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${email.outbox.backoff-ms:30000}") long backoffMillis,
+            @Value("${email.outbox.retention-ms:604800000}") long retentionMillis,
+            @Value("${email.outbox.sweep-batch-size:1000}") int sweepBatchSize
+    ) {
+        this(outbox, mailSender, transactionManager, batchSize, maxAttempts, backoffMillis,
+                retentionMillis, sweepBatchSize, Clock.systemUTC());
+    }
+
+    EmailOutboxSender(
+            OutboundEmailRepository outbox,
+            JavaMailSender mailSender,
+            PlatformTransactionManager transactionManager,
+            int batchSize,
+            int maxAttempts,
+            long backoffMillis,
+            long retentionMillis,
+            int sweepBatchSize,
+            Clock clock
+    ) {
+        this.outbox = outbox;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoff = Duration.ofMillis(backoffMillis);
+        this.retention = Duration.ofMillis(retentionMillis);
+        this.sweepBatchSize = sweepBatchSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Sends every message that is currently due, one batch at a time, and returns how many were
+     * delivered.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:1000}")
+    public int drain() {
+        if (!drainLock.tryLock()) {
+            return 0;
+        }
+        try {
+            int delivered = 0;
+            while (true) {
+                List<OutboundEmail> batch = transactionTemplate.execute(status ->
+                        outbox.findDue(clock.instant(), Limit.of(batchSize)));
+                if (batch == null || batch.isEmpty()) {
+                    return delivered;
+                }
+                int sent = send(batch);
+                delivered += sent;
+                // A batch where nothing got through usually means the server is down; wait for the next run.
+                if (sent == 0 || batch.size() < batchSize) {
+                    return delivered;
+                }
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes messages delivered more than {@code email.outbox.retention-ms} ago,
+     * {@code email.outbox.sweep-batch-size} rows per transaction, and returns how many were removed.
+     * Dead messages are kept until someone deals with them.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.sweep-interval-ms:600000}")
+    public int sweepSent() {
+        Instant cutoff = clock.instant().minus(retention);
+        int total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> outbox.deleteSentBefore(cutoff, sweepBatchSize));
+            int count = deleted == null ? 0 : deleted;
+            total += count;
+            if (count < sweepBatchSize) {
+                return total;
+            }
+        }
+    }
+
+    private int send(List<OutboundEmail> batch) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = batch.get(i).toMessage();
+        }
+
+        Map<Object, Exception> failed = Map.of();
+        MailException batchFailure = null;
+        Timer.Sample sample = SEND_TIMER.start();
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failed = e.getFailedMessages();
+            if (failed.isEmpty()) {
+                batchFailure = e;
+            }
+        } catch (MailException e) {
+            batchFailure = e;
+        } finally {
+            SEND_TIMER.stop(sample, batchFailure != null ? "failed" : failed.isEmpty() ? "sent" : "partial");
+        }
+
+        Instant now = clock.instant();
+        int delivered = 0;
+        for (int i = 0; i < messages.length; i++) {
+            OutboundEmail email = batch.get(i);
+            Exception error = batchFailure != null ? batchFailure : failedFor(failed, messages[i]);
+            if (error == null) {
+                email.setStatus(OutboundEmail.Status.SENT);
+                email.setSentAt(now);
+                email.setLastError(null);
+                delivered++;
+            } else {
+                retryLater(email, error, now);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> outbox.saveAll(batch));
+        return delivered;
+    }
+
+    private void retryLater(OutboundEmail email, Exception error, Instant now) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setLastError(truncate(String.valueOf(error.getMessage())));
+        if (attempts >= maxAttempts) {
+            email.setStatus(OutboundEmail.Status.DEAD);
+            return;
+        }
+        Duration delay = backoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        email.setNextAttemptAt(now.plus(delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay));
+    }
+
+    // Failed messages are keyed by the message that was passed in; look them up by identity first
+    // so two identical emails in one batch are told apart whenever the sender allows it.
+    private static Exception failedFor(Map<Object, Exception> failed, SimpleMailMessage message) {
+        for (Map.Entry<Object, Exception> entry : failed.entrySet()) {
+            if (entry.getKey() == message) {
+                return entry.getValue();
+            }
+        }
+        return failed.get(message);
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
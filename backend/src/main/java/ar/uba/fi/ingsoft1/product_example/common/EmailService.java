@@ -2,21 +2,27 @@ package ar.uba.fi.ingsoft1.product_example.common;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+
+/**
+ * Composes the application's emails and puts them in the outbox. Nothing talks to SMTP here: the
+ * row is written in the caller's transaction, so an email exists if and only if the change that
+ * triggered it commits, and {@link EmailOutboxSender} delivers it in the background.
+ */
 @Service
 public class EmailService {
 
     @Autowired
-    private JavaMailSender mailSender;
+    private OutboundEmailRepository outbox;
 
     public void sendVerificationEmail(String to, String code) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setTo(to);
         message.setSubject("Email verification");
         message.setText("Your verification code is: " + code);
-        mailSender.send(message);
+        enqueue(message);
     }
 
     public void sendPasswordResetEmail(String to, String code) {
@@ -29,7 +35,7 @@ public class EmailService {
                 "\n\n" +
                 "If you did not request to recover your password, ignore this message."
         );
-        mailSender.send(message);
+        enqueue(message);
     }
 
     public void sendAccountLockedEmail(String to, String code) {
@@ -46,6 +52,12 @@ public class EmailService {
                 "You can change it at /reset-password \n\n" +
                 "Even if you haven't tried to log in, we recommend changing your password anyway to protect your account."
         );
-        mailSender.send(message);
+        enqueue(message);
+    }
+
+    private void enqueue(SimpleMailMessage message) {
+        for (String recipient : message.getTo()) {
+            outbox.save(new OutboundEmail(recipient, message.getSubject(), message.getText(), Instant.now()));
+        }
     }
 }
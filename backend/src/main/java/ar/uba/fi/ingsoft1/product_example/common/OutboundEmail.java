@@ -0,0 +1,84 @@
+package ar.uba.fi.ingsoft1.product_example.common;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.time.Instant;
+
+/**
+ * A message waiting in (or already through) the email outbox. Rows are written by
+ * {@link EmailService} in the caller's transaction and delivered by {@link EmailOutboxSender}.
+ */
+@Entity
+@Table(name = "outbound_email", indexes = {
+        @Index(name = "idx_outbound_email_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_outbound_email_sent", columnList = "status, sent_at")
+})
+@NoArgsConstructor
+@Getter
+@Setter
+public class OutboundEmail {
+
+    public enum Status {
+        PENDING,
+        SENT,
+        DEAD
+    }
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    private Instant sentAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    public OutboundEmail(String recipient, String subject, String body, Instant now) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.createdAt = now;
+        this.nextAttemptAt = now;
+    }
+
+    SimpleMailMessage toMessage() {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(recipient);
+        message.setSubject(subject);
+        message.setText(body);
+        return message;
+    }
+}
@@ -0,0 +1,34 @@
+package ar.uba.fi.ingsoft1.product_example.common;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+    @Query("""
+            SELECT e FROM OutboundEmail e
+            WHERE e.status = ar.uba.fi.ingsoft1.product_example.common.OutboundEmail.Status.PENDING
+              AND e.nextAttemptAt <= :now
+            ORDER BY e.nextAttemptAt, e.id
+            """)
+    List<OutboundEmail> findDue(@Param("now") Instant now, Limit limit);
+
+    long countByStatus(OutboundEmail.Status status);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM outbound_email
+            WHERE id IN (
+                SELECT id FROM outbound_email
+                WHERE status = 'SENT' AND sent_at <= :cutoff
+                LIMIT :batchSize
+            )
+            """, nativeQuery = true)
+    int deleteSentBefore(@Param("cutoff") Instant cutoff, @Param("batchSize") int batchSize);
+}
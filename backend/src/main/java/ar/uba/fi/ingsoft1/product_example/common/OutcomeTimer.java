@@ -0,0 +1,48 @@
+package ar.uba.fi.ingsoft1.product_example.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A latency timer tagged with the outcome of each call, published with percentile histogram
+ * buckets so per-outcome SLOs can be computed on the Prometheus side. Registers against the global
+ * registry by default, which Spring Boot feeds into the application's registries; that keeps the
+ * instrumented classes free of an extra constructor argument and their unit tests unchanged.
+ */
+public final class OutcomeTimer {
+
+    private final String name;
+    private final String description;
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private OutcomeTimer(String name, String description, MeterRegistry registry) {
+        this.name = name;
+        this.description = description;
+        this.registry = registry;
+    }
+
+    public static OutcomeTimer of(String name, String description) {
+        return of(name, description, Metrics.globalRegistry);
+    }
+
+    public static OutcomeTimer of(String name, String description, MeterRegistry registry) {
+        return new OutcomeTimer(name, description, registry);
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void stop(Timer.Sample sample, String outcome) {
+        sample.stop(timers.computeIfAbsent(outcome, o -> Timer.builder(name)
+                .description(description)
+                .tag("outcome", o)
+                .publishPercentileHistogram()
+                .register(registry)));
+    }
+}
@@ -0,0 +1,95 @@
+package ar.uba.fi.ingsoft1.product_example.common;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raw image bytes plus their content hash. The hash doubles as the strong ETag and as the
+ * version segment of the image URL, so a URL that carries the current hash never changes
+ * content and can be cached forever by browsers and the ingress.
+ */
+public record StoredImage(byte[] bytes, String hash) {
+
+    private static final int HASH_HEX_LENGTH = 32;
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS)
+            .cachePublic()
+            .immutable();
+
+    public StoredImage {
+        if (hash == null) {
+            hash = hashOf(bytes);
+        }
+    }
+
+    public static String hashOf(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest).substring(0, HASH_HEX_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** Relative URL (without the servlet context path) of the image of a product or combo. */
+    public static String url(String resource, Long id, String hash) {
+        if (id == null || hash == null) {
+            return null;
+        }
+        return "/" + resource + "/" + id + "/image?v=" + hash;
+    }
+
+    public MediaType mediaType() {
+        if (startsWith(bytes, new byte[]{(byte) 0x89, 'P', 'N', 'G'})) {
+            return MediaType.IMAGE_PNG;
+        }
+        if (startsWith(bytes, "GIF8".getBytes(StandardCharsets.US_ASCII))) {
+            return MediaType.IMAGE_GIF;
+        }
+        if (startsWith(bytes, "RIFF".getBytes(StandardCharsets.US_ASCII)) && bytes.length >= 12
+                && bytes[8] == 'W' && bytes[9] == 'E' && bytes[10] == 'B' && bytes[11] == 'P') {
+            return MediaType.parseMediaType("image/webp");
+        }
+        return MediaType.IMAGE_JPEG;
+    }
+
+    /**
+     * Builds the GET response. Requests whose {@code v} parameter matches the current hash get an
+     * immutable cache policy; anything else must revalidate with the ETag. Conditional requests
+     * ({@code If-None-Match}) are answered with 304 by Spring MVC from the ETag set here.
+     */
+    public ResponseEntity<byte[]> toResponse(String requestedVersion) {
+        CacheControl cacheControl = hash.equals(requestedVersion)
+                ? IMMUTABLE
+                : CacheControl.noCache().cachePublic();
+
+        return ResponseEntity.ok()
+                .eTag(hash)
+                .cacheControl(cacheControl)
+                .contentType(mediaType())
+                .contentLength(bytes.length)
+                .body(bytes);
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        if (bytes.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
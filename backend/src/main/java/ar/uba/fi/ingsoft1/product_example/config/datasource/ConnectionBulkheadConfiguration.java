@@ -0,0 +1,44 @@
+package ar.uba.fi.ingsoft1.product_example.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Puts a {@link ConnectionBulkhead} in front of every Hikari pool (the primary and, when
+ * configured, the replica) while {@code datasource.bulkhead.enabled} is on, which it is by default
+ * whenever {@code spring.threads.virtual.enabled} is. Platform-thread Tomcat is already bounded by
+ * its 200 workers; with virtual threads every queued request can reach the pool at once.
+ *
+ * <p>Each bulkhead admits {@code datasource.bulkhead.permits} callers, defaulting to the pool's
+ * maximum size, and rejects waiters after {@code datasource.bulkhead.timeout-ms}.
+ */
+@Configuration
+@ConditionalOnProperty("datasource.bulkhead.enabled")
+public class ConnectionBulkheadConfiguration {
+
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public static BeanPostProcessor connectionBulkheadPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource pool)) {
+                    return bean;
+                }
+                int permits = environment.getProperty("datasource.bulkhead.permits", Integer.class, 0);
+                long timeoutMillis = environment.getProperty("datasource.bulkhead.timeout-ms", Long.class, 5_000L);
+                return new ConnectionBulkhead(pool, permits > 0 ? permits : poolSize(pool), timeoutMillis);
+            }
+        };
+    }
+
+    // Hikari leaves the size unset (-1) until the pool starts, then applies its default of 10.
+    private static int poolSize(HikariDataSource pool) {
+        return pool.getMaximumPoolSize() > 0 ? pool.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE;
+    }
+}
@@ -0,0 +1,93 @@
+package ar.uba.fi.ingsoft1.product_example.config.datasource;
+
+import ar.uba.fi.ingsoft1.product_example.common.CatalogChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Decides whether read-only transactions may go to the replica. The replica is polled every
+ * {@code datasource.replica.lag-check-interval-ms} for how far behind the primary it is; it is used
+ * only while that lag is known and at most {@code datasource.replica.max-lag-ms}.
+ *
+ * <p>Catalog changes are fenced as well: the product, availability, promotion and menu caches
+ * rebuild right after a change commits, and building them from a replica that has not replayed it
+ * yet would keep the old catalog until the next change. So after a {@link CatalogChangedEvent},
+ * reads stay on the primary until a poll shows the replica has caught up past it. Stock movements
+ * are not catalog changes and do not fence: orders and ledger flushes happen far more often than
+ * the lag is polled, and would keep every read on the primary for as long as orders come in.
+ */
+public class ReplicaLagMonitor {
+
+    /**
+     * Milliseconds a Postgres standby is behind: zero once it has replayed everything it received,
+     * otherwise the age of the last replayed transaction. Also zero when pointed at a non-standby.
+     */
+    static final String POSTGRES_LAG_QUERY = """
+            SELECT COALESCE(CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE CAST(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 AS BIGINT) END, 0)
+            """;
+
+    private record Sample(long lagMillis, Instant replayedUpTo) {
+    }
+
+    private static final Sample UNKNOWN = new Sample(-1, Instant.MIN);
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private final Clock clock;
+
+    private volatile Sample sample = UNKNOWN;
+    private volatile Instant lastCatalogChange = Instant.MIN;
+
+    public ReplicaLagMonitor(JdbcTemplate replica, String lagQuery, long maxLagMillis, Clock clock) {
+        this.replica = replica;
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? POSTGRES_LAG_QUERY : lagQuery;
+        this.maxLagMillis = maxLagMillis;
+        this.clock = clock;
+    }
+
+    public boolean isReplicaUsable() {
+        Sample current = sample;
+        return current.lagMillis() >= 0
+                && current.lagMillis() <= maxLagMillis
+                && !current.replayedUpTo().isBefore(lastCatalogChange);
+    }
+
+    /** Last measured lag in milliseconds, or -1 when the replica could not be reached. */
+    public long lagMillis() {
+        return sample.lagMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        Instant now = clock.instant();
+        try {
+            Long lag = replica.queryForObject(lagQuery, Long.class);
+            long lagMillis = lag == null ? 0 : Math.max(lag, 0);
+            sample = new Sample(lagMillis, now.minusMillis(lagMillis));
+        } catch (DataAccessException e) {
+            sample = UNKNOWN;
+        }
+    }
+
+    // Fenced when the change is published and again when it commits, ahead of the cache listeners.
+    @EventListener
+    public void onCatalogChanging(CatalogChangedEvent event) {
+        lastCatalogChange = clock.instant();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        lastCatalogChange = clock.instant();
+    }
+}
@@ -1,5 +1,7 @@
 package ar.uba.fi.ingsoft1.product_example.config.security;
 
+import ar.uba.fi.ingsoft1.product_example.common.OutcomeTimer;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,22 +17,22 @@ import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.server.ResponseStatusException;
 
-import ar.uba.fi.ingsoft1.product_example.user.UserRepository;
-import ar.uba.fi.ingsoft1.product_example.user.User;
-
 import java.io.IOException;
 import java.util.List;
 
 @Component
 class JwtAuthFilter extends OncePerRequestFilter {
 
+    private static final OutcomeTimer AUTHENTICATION_TIMER =
+            OutcomeTimer.of("security.jwt.authentication", "Verifying the bearer token and loading its principal");
+
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final UserPrincipalCache principalCache;
 
     @Autowired
-    JwtAuthFilter(JwtService jwtService, UserRepository userRepository) {
+    JwtAuthFilter(JwtService jwtService, UserPrincipalCache principalCache) {
         this.jwtService = jwtService;
-        this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -40,29 +42,39 @@ class JwtAuthFilter extends OncePerRequestFilter {
             FilterChain filterChain
     ) throws ServletException, IOException {
         try {
-            this.authenticateToken(request);
+            this.authenticate(request);
             filterChain.doFilter(request, response);
         } catch (ResponseStatusException e) {
             response.sendError(e.getStatusCode().value());
         }
     }
 
-    private void authenticateToken(HttpServletRequest request) {
+    private void authenticate(HttpServletRequest request) {
+        Timer.Sample sample = AUTHENTICATION_TIMER.start();
+        String outcome = "error";
+        try {
+            outcome = this.authenticateToken(request);
+        } finally {
+            AUTHENTICATION_TIMER.stop(sample, outcome);
+        }
+    }
+
+    private String authenticateToken(HttpServletRequest request) {
         // Is the user already authenticated?
         if (SecurityContextHolder.getContext().getAuthentication() != null) {
-            return;
+            return "authenticated";
         }
 
         // Try to get the token
         String authHeader = request.getHeader("Authorization");
         String headerPrefix = "Bearer ";
         if (authHeader == null || !authHeader.startsWith(headerPrefix)) {
-            return;
+            return "anonymous";
         }
         String token = authHeader.substring(headerPrefix.length());
 
         jwtService.extractVerifiedUserDetails(token).ifPresent(userDetails -> {
-            userRepository.findByUsername(userDetails.username()).ifPresent(user -> {
+            principalCache.principalFor(userDetails.username()).ifPresent(user -> {
                 var authToken = new UsernamePasswordAuthenticationToken(
                         user,
                         null,
@@ -72,5 +84,6 @@ class JwtAuthFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             });
         });
+        return SecurityContextHolder.getContext().getAuthentication() != null ? "authenticated" : "rejected";
     }
 }
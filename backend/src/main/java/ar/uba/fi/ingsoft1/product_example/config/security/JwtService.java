@@ -1,7 +1,11 @@
 package ar.uba.fi.ingsoft1.product_example.config.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,39 +15,90 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
+/**
+ * Issues and verifies access tokens. Keys and the parser are built once; both are immutable and
+ * shared by all requests.
+ *
+ * <p>Tokens carry the id ({@code kid}) of the key that signed them. New tokens are always signed
+ * with the current secret, while secrets listed in {@code jwt.access.previous-secrets} are still
+ * accepted for verification, so the secret can be rotated without logging everyone out. Tokens
+ * without a {@code kid} predate rotation support and are checked against the current key.
+ */
 @Service
 public class JwtService {
 
-    private final String secret;
     private final Long expiration;
+    private final SecretKey signingKey;
+    private final String signingKeyId;
+    private final Map<String, SecretKey> verificationKeys;
+    private final JwtParser parser;
 
     @Autowired
     public JwtService(
             @Value("${jwt.access.secret}") String secret,
-            @Value("${jwt.access.expiration}") Long expiration
+            @Value("${jwt.access.expiration}") Long expiration,
+            @Value("${jwt.access.previous-secrets:}") String[] previousSecrets
     ) {
-        this.secret = secret;
         this.expiration = expiration;
+        this.signingKey = keyFor(secret);
+        this.signingKeyId = keyIdOf(signingKey);
+
+        Map<String, SecretKey> keys = new LinkedHashMap<>();
+        keys.put(signingKeyId, signingKey);
+        for (String previous : previousSecrets) {
+            if (!previous.isBlank()) {
+                SecretKey key = keyFor(previous.trim());
+                keys.putIfAbsent(keyIdOf(key), key);
+            }
+        }
+        this.verificationKeys = Map.copyOf(keys);
+
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(ProtectedHeader header) {
+                        String keyId = header.getKeyId();
+                        if (keyId == null) {
+                            return signingKey;
+                        }
+                        SecretKey key = verificationKeys.get(keyId);
+                        if (key == null) {
+                            throw new JwtException("Unknown signing key: " + keyId);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    public JwtService(String secret, Long expiration) {
+        this(secret, expiration, new String[0]);
     }
 
     public String createToken(JwtUserDetails claims) {
         return Jwts.builder()
+                .header().keyId(signingKeyId).and()
                 .subject(claims.username())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expiration))
                 .claim("role", claims.role())
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
     Optional<JwtUserDetails> extractVerifiedUserDetails(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            Claims claims = parser
                     .parseSignedClaims(token)
                     .getPayload();
             if (claims.containsKey("sub")
@@ -58,8 +113,19 @@ public class JwtService {
         return Optional.empty();
     }
 
-    private SecretKey getSigningKey() {
+    private static SecretKey keyFor(String secret) {
         byte[] bytes = Decoders.BASE64.decode(secret);
         return Keys.hmacShaKeyFor(bytes);
     }
+
+    // Derived from the key itself so that every instance agrees on it without extra configuration.
+    private static String keyIdOf(SecretKey key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update("kid:".getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(key.getEncoded()), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
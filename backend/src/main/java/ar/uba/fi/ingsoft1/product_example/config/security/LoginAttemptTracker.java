@@ -0,0 +1,93 @@
+package ar.uba.fi.ingsoft1.product_example.config.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts failed sign-ins per username over a sliding window of
+ * {@code security.login.failure-window-ms}, in memory. Wrong passwords therefore cost no database
+ * write; the caller only persists something once the count reaches its lock threshold.
+ *
+ * <p>Each username has its own small log of failure times and lock, so contention is limited to
+ * concurrent attempts against the same account.
+ */
+@Component
+public class LoginAttemptTracker {
+
+    // More failures than this inside one window are still reported as this many.
+    private static final int MAX_TRACKED = 32;
+
+    private static final class Window {
+        private final long[] failures = new long[MAX_TRACKED];
+        private int next;
+        private int size;
+
+        synchronized int record(long now, long windowMillis) {
+            failures[next] = now;
+            next = (next + 1) % MAX_TRACKED;
+            size = Math.min(size + 1, MAX_TRACKED);
+            return count(now, windowMillis);
+        }
+
+        synchronized int count(long now, long windowMillis) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (now - failures[i] < windowMillis) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    private final long windowMillis;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LoginAttemptTracker(@Value("${security.login.failure-window-ms:900000}") long windowMillis) {
+        this(windowMillis, Clock.systemUTC());
+    }
+
+    LoginAttemptTracker(long windowMillis, Clock clock) {
+        this.windowMillis = windowMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Records a failed attempt and returns how many failures {@code username} has within the window,
+     * this one included.
+     */
+    public int recordFailure(String username) {
+        long now = clock.millis();
+        int[] count = new int[1];
+        windows.compute(username, (key, window) -> {
+            Window current = window == null ? new Window() : window;
+            count[0] = current.record(now, windowMillis);
+            return current;
+        });
+        return count[0];
+    }
+
+    public int failures(String username) {
+        Window window = windows.get(username);
+        return window == null ? 0 : window.count(clock.millis(), windowMillis);
+    }
+
+    public void reset(String username) {
+        windows.remove(username);
+    }
+
+    @Scheduled(fixedDelayString = "${security.login.eviction-interval-ms:60000}")
+    void evictExpired() {
+        long now = clock.millis();
+        for (String username : windows.keySet()) {
+            windows.computeIfPresent(username, (key, window) -> window.count(now, windowMillis) == 0 ? null : window);
+        }
+    }
+}
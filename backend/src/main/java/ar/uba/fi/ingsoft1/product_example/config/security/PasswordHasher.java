@@ -0,0 +1,195 @@
+package ar.uba.fi.ingsoft1.product_example.config.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt on a small dedicated pool so that a burst of logins cannot take every CPU away from
+ * the rest of the API. The pool has a bounded queue; when it is full, or a hash waits longer than
+ * {@code security.password-hashing.timeout-ms}, the request fails fast with 429 instead of piling up.
+ *
+ * <p>The cost factor comes from {@code security.password-hashing.strength}, or when that is not set
+ * it is calibrated at startup so that one hash takes about {@code security.password-hashing.target-ms}
+ * on this machine. Hashes stored with a different cost are reported by {@link #needsRehash(String)}.
+ *
+ * <p>This is also the application's only {@link PasswordEncoder}, so no hash is computed outside
+ * the pool or with another cost.
+ */
+@Component
+public class PasswordHasher implements PasswordEncoder {
+
+    static final int MIN_STRENGTH = 4;
+    static final int MAX_STRENGTH = 16;
+    private static final int CALIBRATION_BASE = 8;
+
+    private final int strength;
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Counter rejected;
+
+    @Autowired
+    public PasswordHasher(
+            @Value("${security.password-hashing.strength:0}") int strength,
+            @Value("${security.password-hashing.target-ms:250}") long targetMillis,
+            @Value("${security.password-hashing.threads:0}") int threads,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password-hashing.timeout-ms:5000}") long timeoutMillis,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        this(
+                strength > 0 ? strength : calibrate(targetMillis),
+                threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                queueCapacity,
+                timeoutMillis,
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)
+        );
+    }
+
+    public PasswordHasher(int strength, int threads, int queueCapacity, long timeoutMillis, MeterRegistry meterRegistry) {
+        if (strength < MIN_STRENGTH || strength > MAX_STRENGTH) {
+            throw new IllegalArgumentException("BCrypt strength must be between 4 and 16: " + strength);
+        }
+        this.strength = strength;
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.timeoutMillis = timeoutMillis;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hasher-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.encodeTimer = Timer.builder("password.hashing.duration")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchTimer = Timer.builder("password.hashing.duration")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queue.depth", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.strength", this, PasswordHasher::strength)
+                .register(meterRegistry);
+    }
+
+    public int strength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encodeTimer.record(() -> encoder.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> matchTimer.record(() -> encoder.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return needsRehash(encodedPassword);
+    }
+
+    /**
+     * Whether a stored hash was made with a different cost than the current one and should be
+     * replaced the next time its plain-text password is at hand.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return encodedPassword == null
+                || encodedPassword.length() < 7
+                || !encodedPassword.startsWith("$2")
+                || costOf(encodedPassword) != strength;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many sign-ins in progress, try again shortly");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many sign-ins in progress, try again shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static int costOf(String encodedPassword) {
+        // $2a$10$...: the cost is the two digits after the version.
+        int start = encodedPassword.indexOf('$', 1) + 1;
+        try {
+            return Integer.parseInt(encodedPassword.substring(start, start + 2));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    // Every extra unit of cost doubles the work, so one timing at a cheap cost is enough to pick one.
+    // Never goes below 10, the cost every existing hash was made with.
+    static int calibrate(long targetMillis) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(CALIBRATION_BASE);
+        probe.encode("calibration");
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        double elapsedMillis = Math.max((System.nanoTime() - start) / 1_000_000.0, 0.1);
+
+        int extra = (int) Math.floor(Math.log(targetMillis / elapsedMillis) / Math.log(2));
+        return Math.min(MAX_STRENGTH, Math.max(10, CALIBRATION_BASE + extra));
+    }
+}
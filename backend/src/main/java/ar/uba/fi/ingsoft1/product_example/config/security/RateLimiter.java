@@ -0,0 +1,161 @@
+package ar.uba.fi.ingsoft1.product_example.config.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory token buckets for the unauthenticated endpoints that attackers hammer: sign-in and
+ * password-reset requests. Buckets are keyed by policy plus username, email or client address and
+ * are updated with a compare-and-set, so concurrent requests never block each other. Buckets that
+ * have refilled completely carry no information and are dropped by {@link #evictFull()}.
+ *
+ * <p>Each policy's size can be set with {@code security.rate-limit.<policy>.capacity} and
+ * {@code security.rate-limit.<policy>.refill-period-ms}, e.g. {@code login-client}. Client
+ * addresses are only as good as {@code server.forward-headers-strategy}: the application trusts
+ * {@code X-Forwarded-For} from the proxies Tomcat considers internal, and from no one else.
+ *
+ * <p>State is per instance; behind a load balancer each instance enforces its own limits.
+ */
+@Component
+public class RateLimiter {
+
+    public enum Policy {
+        LOGIN_USERNAME("login-username", 10, 60_000),
+        LOGIN_CLIENT("login-client", 30, 60_000),
+        PASSWORD_RESET_EMAIL("password-reset-email", 3, 900_000),
+        PASSWORD_RESET_CLIENT("password-reset-client", 10, 900_000);
+
+        private final String property;
+        private final int defaultCapacity;
+        private final long defaultRefillPeriodMillis;
+
+        Policy(String property, int defaultCapacity, long defaultRefillPeriodMillis) {
+            this.property = property;
+            this.defaultCapacity = defaultCapacity;
+            this.defaultRefillPeriodMillis = defaultRefillPeriodMillis;
+        }
+    }
+
+    // Up to capacity requests at once, then capacity more spread evenly over the refill period.
+    private record Limit(int capacity, long refillPeriodMillis) {
+        double tokensPerMilli() {
+            return (double) capacity / refillPeriodMillis;
+        }
+    }
+
+    private record Bucket(double tokens, long refilledAt) {
+    }
+
+    private final boolean enabled;
+    private final Map<Policy, Limit> limits = new EnumMap<>(Policy.class);
+    private final Clock clock;
+    private final ConcurrentHashMap<String, AtomicReference<Bucket>> buckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RateLimiter(@Value("${security.rate-limit.enabled:true}") boolean enabled, Environment environment) {
+        this(enabled, environment, Clock.systemUTC());
+    }
+
+    RateLimiter(boolean enabled, PropertyResolver properties, Clock clock) {
+        this.enabled = enabled;
+        this.clock = clock;
+        for (Policy policy : Policy.values()) {
+            String prefix = "security.rate-limit." + policy.property;
+            Limit limit = new Limit(
+                    properties.getProperty(prefix + ".capacity", Integer.class, policy.defaultCapacity),
+                    properties.getProperty(prefix + ".refill-period-ms", Long.class, policy.defaultRefillPeriodMillis)
+            );
+            if (limit.capacity() < 1 || limit.refillPeriodMillis() < 1) {
+                throw new IllegalArgumentException("Invalid rate limit for " + prefix + ": " + limit);
+            }
+            limits.put(policy, limit);
+        }
+    }
+
+    /**
+     * Takes one token from the bucket for {@code key}, or fails with 429 if it is empty.
+     */
+    public void acquire(Policy policy, String key) {
+        if (!tryAcquire(policy, key)) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many attempts, try again later");
+        }
+    }
+
+    /**
+     * Fails with 429 if the bucket for {@code key} is empty, without taking a token. For limits that
+     * only {@link #charge} the requests that went wrong, such as failed sign-ins; requests already
+     * in flight may overshoot the limit by their number.
+     */
+    public void check(Policy policy, String key) {
+        if (!hasTokens(policy, key)) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many attempts, try again later");
+        }
+    }
+
+    /**
+     * Takes one token from the bucket for {@code key} if it has any left.
+     */
+    public void charge(Policy policy, String key) {
+        tryAcquire(policy, key);
+    }
+
+    boolean hasTokens(Policy policy, String key) {
+        if (!enabled || key == null) {
+            return true;
+        }
+        AtomicReference<Bucket> ref = buckets.get(policy.name() + ':' + key);
+        return ref == null || refilled(limits.get(policy), ref.get(), clock.millis()) >= 1;
+    }
+
+    boolean tryAcquire(Policy policy, String key) {
+        if (!enabled || key == null) {
+            return true;
+        }
+        Limit limit = limits.get(policy);
+        long now = clock.millis();
+        AtomicReference<Bucket> ref = buckets.computeIfAbsent(
+                policy.name() + ':' + key,
+                ignored -> new AtomicReference<>(new Bucket(limit.capacity(), now))
+        );
+        while (true) {
+            Bucket current = ref.get();
+            double tokens = refilled(limit, current, now);
+            if (tokens < 1) {
+                return false;
+            }
+            if (ref.compareAndSet(current, new Bucket(tokens - 1, Math.max(now, current.refilledAt())))) {
+                return true;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.rate-limit.eviction-interval-ms:60000}")
+    void evictFull() {
+        long now = clock.millis();
+        buckets.entrySet().removeIf(entry -> {
+            Limit limit = limits.get(Policy.valueOf(entry.getKey().substring(0, entry.getKey().indexOf(':'))));
+            return refilled(limit, entry.getValue().get(), now) >= limit.capacity();
+        });
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private static double refilled(Limit limit, Bucket bucket, long now) {
+        long elapsed = Math.max(0, now - bucket.refilledAt());
+        return Math.min(limit.capacity(), bucket.tokens() + elapsed * limit.tokensPerMilli());
+    }
+}
@@ -1,5 +1,6 @@
 package ar.uba.fi.ingsoft1.product_example.config.security;
 
+import jakarta.servlet.DispatcherType;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -10,8 +11,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -25,7 +24,9 @@ public class SecurityConfig {
             "/sessions",
             "/error",
             "/swagger-ui/**",
-            "/v3/api-docs/**"
+            "/v3/api-docs/**",
+            "/actuator/health",
+            "/actuator/prometheus"
     };
 
     public static final String[] PUBLIC_POST_ENDPOINTS = {
@@ -73,14 +74,19 @@ public class SecurityConfig {
         return http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // re-dispatch of an already authorized async request (e.g. the order stream)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(PUBLIC_ENDPOINTS).permitAll()
                         .requestMatchers(PUBLIC_POST_ENDPOINTS).permitAll()
                         .requestMatchers(HttpMethod.GET, "/menus").permitAll()
                         .requestMatchers(HttpMethod.GET, "/promotions/active").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/products/*/image", "/combos/*/image").permitAll()
 
                         .requestMatchers(HttpMethod.POST, "/orders").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/orders/batch").authenticated()
                         .requestMatchers(HttpMethod.POST, "/orders/*/confirm").authenticated()
 
+                        .requestMatchers(HttpMethod.GET, "/orders/stream").hasAnyRole("STAFF", "ADMIN", "KITCHEN")
                         .requestMatchers(HttpMethod.GET, STAFF_ORDER_ENDPOINTS)
                         .authenticated()
                         .requestMatchers(HttpMethod.POST, STAFF_ORDER_ENDPOINTS)
@@ -111,14 +117,10 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(List.of("*"));
         configuration.setAllowedMethods(List.of("*"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("X-Next-Cursor"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
     }
-
-    @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package ar.uba.fi.ingsoft1.product_example.config.security;
+
+import ar.uba.fi.ingsoft1.product_example.user.User;
+import ar.uba.fi.ingsoft1.product_example.user.UserRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snapshots of the users behind access tokens, so that authenticating a request does not query the
+ * users table every time. Entries expire after {@code security.principal-cache.ttl-ms} and the
+ * cache never holds more than {@code security.principal-cache.max-size} users.
+ *
+ * <p>Anything that changes what a principal looks like (role, lock, password) must call
+ * {@link #invalidate(String)}; the entry is dropped immediately and again when the surrounding
+ * transaction commits, so a request racing the change cannot re-cache the old row. Each
+ * invalidation also retires every other entry through a generation counter; account changes are
+ * rare enough that the extra reloads do not matter.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private record Snapshot(Long id, String username, String role, boolean verified, boolean locked) {
+
+        static Snapshot of(User user) {
+            return new Snapshot(user.getId(), user.getUsername(), user.getRole(), user.isVerified(), user.isLocked());
+        }
+
+        // Detached and without a password: enough for authorities and for referencing the user by id.
+        User toPrincipal() {
+            User user = new User(username, null, role, id);
+            user.setVerified(verified);
+            user.setLocked(locked);
+            return user;
+        }
+    }
+
+    private record Entry(long generation, long expiresAt, Snapshot snapshot) {
+    }
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final int maxSize;
+    private final Clock clock;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public UserPrincipalCache(
+            UserRepository userRepository,
+            @Value("${security.principal-cache.ttl-ms:300000}") long ttlMillis,
+            @Value("${security.principal-cache.max-size:10000}") int maxSize
+    ) {
+        this(userRepository, ttlMillis, maxSize, Clock.systemUTC());
+    }
+
+    UserPrincipalCache(UserRepository userRepository, long ttlMillis, int maxSize, Clock clock) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    public Optional<User> principalFor(String username) {
+        long now = clock.millis();
+        Entry entry = entries.get(username);
+        if (entry != null && entry.generation() == generation.get() && entry.expiresAt() > now) {
+            return Optional.of(entry.snapshot().toPrincipal());
+        }
+
+        long loadedAt = generation.get();
+        Optional<Snapshot> snapshot = userRepository.findByUsername(username).map(Snapshot::of);
+        snapshot.ifPresent(loaded -> {
+            if (generation.get() == loadedAt) {
+                makeRoom(now);
+                entries.put(username, new Entry(loadedAt, now + ttlMillis, loaded));
+            }
+        });
+        return snapshot.map(Snapshot::toPrincipal);
+    }
+
+    public void invalidate(String username) {
+        evict(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(username);
+                }
+            });
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict(String username) {
+        generation.incrementAndGet();
+        entries.remove(username);
+    }
+
+    private void makeRoom(long now) {
+        if (entries.size() < maxSize) {
+            return;
+        }
+        entries.values().removeIf(entry -> entry.expiresAt() <= now || entry.generation() != generation.get());
+        Iterator<String> oldest = entries.keySet().iterator();
+        while (entries.size() >= maxSize && oldest.hasNext()) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+}
@@ -8,8 +8,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
-import ar.uba.fi.ingsoft1.product_example.common.EmailService;
-import java.util.Random;
+import ar.uba.fi.ingsoft1.product_example.config.security.LoginAttemptTracker;
+import ar.uba.fi.ingsoft1.product_example.config.security.RateLimiter;
+import ar.uba.fi.ingsoft1.product_example.config.security.UserPrincipalCache;
+import jakarta.servlet.http.HttpServletRequest;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -22,35 +24,41 @@ public class PasswordResetController {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final EmailService emailService;
+    private final UserService userService;
+    private final UserPrincipalCache principalCache;
+    private final RateLimiter rateLimiter;
+    private final LoginAttemptTracker loginAttempts;
 
     @Autowired
     PasswordResetController(
             UserRepository userRepository,
             PasswordEncoder passwordEncoder,
-            EmailService emailService) {
+            UserService userService,
+            UserPrincipalCache principalCache,
+            RateLimiter rateLimiter,
+            LoginAttemptTracker loginAttempts) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.emailService = emailService;
+        this.userService = userService;
+        this.principalCache = principalCache;
+        this.rateLimiter = rateLimiter;
+        this.loginAttempts = loginAttempts;
     }
 
     @PostMapping("/request")
     @Operation(summary = "Request password reset code")
-    public ResponseEntity<?> requestPasswordReset(@RequestBody PasswordResetRequestDTO request) {
-        Optional<User> optionalUser = userRepository.findByUsername(request.email());
-        if (optionalUser.isEmpty()) {
+    @ApiResponse(responseCode = "429", description = "Too many reset requests")
+    public ResponseEntity<?> requestPasswordReset(
+            @RequestBody PasswordResetRequestDTO request,
+            HttpServletRequest httpRequest) {
+        rateLimiter.acquire(RateLimiter.Policy.PASSWORD_RESET_CLIENT, httpRequest.getRemoteAddr());
+        rateLimiter.acquire(RateLimiter.Policy.PASSWORD_RESET_EMAIL, request.email());
+        if (!userService.requestPasswordReset(request.email())) {
             Map<String, String> response = new HashMap<>();
             response.put("message", "Invalid email");
             return ResponseEntity.ok(response);
         }
 
-        User user = optionalUser.get();
-        String resetCode = generateResetCode();
-        user.setVerificationCode(resetCode);
-        userRepository.save(user);
-
-        emailService.sendPasswordResetEmail(request.email(), resetCode);
-
         Map<String, String> response = new HashMap<>();
         response.put("message", "You will receive a recovery code");
         return ResponseEntity.ok(response);
@@ -78,13 +86,9 @@ public class PasswordResetController {
         user.setFailedLoginAttempts(0);
 
         userRepository.save(user);
+        principalCache.invalidate(user.getUsername());
+        loginAttempts.reset(user.getUsername());
 
         return ResponseEntity.ok(Map.of("message", "Password updated successfully"));
     }
-
-    private String generateResetCode() {
-        Random random = new Random();
-        int code = 100000 + random.nextInt(900000); 
-        return String.valueOf(code);
-    }
 }
\ No newline at end of file
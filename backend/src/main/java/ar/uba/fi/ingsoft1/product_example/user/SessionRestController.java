@@ -3,7 +3,9 @@ package ar.uba.fi.ingsoft1.product_example.user;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import ar.uba.fi.ingsoft1.product_example.config.security.RateLimiter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -23,22 +25,33 @@ import org.springframework.web.server.ResponseStatusException;
 class SessionRestController {
 
     private final UserService userService;
+    private final RateLimiter rateLimiter;
 
     @Autowired
-    SessionRestController(UserService userService) {
+    SessionRestController(UserService userService, RateLimiter rateLimiter) {
         this.userService = userService;
+        this.rateLimiter = rateLimiter;
     }
 
     @PostMapping(produces = "application/json")
     @Operation(summary = "Log in, creating a new session")
     @ResponseStatus(HttpStatus.CREATED)
     @ApiResponse(responseCode = "401", description = "Invalid username or password supplied", content = @Content)
+    @ApiResponse(responseCode = "429", description = "Too many sign-in attempts, or too many in progress", content = @Content)
     public TokenDTO login(
-            @Valid @NonNull @RequestBody UserLoginDTO data
+            @Valid @NonNull @RequestBody UserLoginDTO data,
+            HttpServletRequest request
     ) throws MethodArgumentNotValidException {
+        String client = request.getRemoteAddr();
+        rateLimiter.check(RateLimiter.Policy.LOGIN_CLIENT, client);
+        rateLimiter.acquire(RateLimiter.Policy.LOGIN_USERNAME, data.username());
         return userService
                 .loginUser(data)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+                .orElseThrow(() -> {
+                    // Only failures count against the address: a campus NAT puts many users behind one
+                    rateLimiter.charge(RateLimiter.Policy.LOGIN_CLIENT, client);
+                    return new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+                });
     }
 
     @PutMapping(produces = "application/json")
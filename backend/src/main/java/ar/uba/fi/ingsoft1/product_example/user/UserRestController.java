@@ -1,6 +1,6 @@
 package ar.uba.fi.ingsoft1.product_example.user;
 
-import ar.uba.fi.ingsoft1.product_example.common.EmailService;
+import ar.uba.fi.ingsoft1.product_example.config.security.UserPrincipalCache;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,13 +12,11 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -36,20 +34,17 @@ class UserRestController {
 
     private final UserService userService;
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final EmailService emailService;
+    private final UserPrincipalCache principalCache;
 
     @Autowired
     UserRestController(
         UserService userService,
         UserRepository userRepository,
-        PasswordEncoder passwordEncoder,
-        EmailService emailService
+        UserPrincipalCache principalCache
     ) {
         this.userService = userService;
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
-        this.emailService = emailService;
+        this.principalCache = principalCache;
     }
 
     // --- Endpoint original (sign-up genérico)
@@ -85,36 +80,20 @@ class UserRestController {
             UserRegisterDTO.class
         );
 
-        if (userRepository.findByUsername(data.email()).isPresent()) {
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "The email is already registered");
-            return ResponseEntity.badRequest().body(response);
-        }
-
-        String verificationCode = UUID.randomUUID().toString().substring(0, 6);
-
-        User newUser = new User();
-        newUser.setEmail(data.email());
-        newUser.setPassword(passwordEncoder.encode(data.password()));
-        newUser.setRole("ROLE_USER");
-        newUser.setNombre(data.nombre());
-        newUser.setApellido(data.apellido());
-        newUser.setEdad(data.edad());
-        newUser.setGenero(data.genero());
-        newUser.setDomicilio(data.domicilio());
-        newUser.setVerificationCode(verificationCode);
-        newUser.setVerified(false);
-
+        byte[] photoBytes = null;
         if (photo != null && !photo.isEmpty()) {
             try {
-                newUser.setFoto(photo.getBytes());
+                photoBytes = photo.getBytes();
             } catch (IOException e) {
                 throw new RuntimeException("Error uploading the image.", e);
             }
         }
 
-        userRepository.save(newUser);
-        emailService.sendVerificationEmail(data.email(), verificationCode);
+        if (!userService.register(data, photoBytes)) {
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "The email is already registered");
+            return ResponseEntity.badRequest().body(response);
+        }
 
         Map<String, String> response = new HashMap<>();
         response.put(
@@ -176,6 +155,7 @@ class UserRestController {
 
         user.setRole(newRole);
         userRepository.save(user);
+        principalCache.invalidate(user.getUsername());
         response.put("message", "Role updated successfully for user: " + user.getEmail());
         return ResponseEntity.ok(response);
     }
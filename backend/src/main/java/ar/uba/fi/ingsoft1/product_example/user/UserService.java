@@ -3,43 +3,63 @@ package ar.uba.fi.ingsoft1.product_example.user;
 import ar.uba.fi.ingsoft1.product_example.common.EmailService;
 import ar.uba.fi.ingsoft1.product_example.config.security.JwtService;
 import ar.uba.fi.ingsoft1.product_example.config.security.JwtUserDetails;
+import ar.uba.fi.ingsoft1.product_example.config.security.LoginAttemptTracker;
+import ar.uba.fi.ingsoft1.product_example.config.security.PasswordHasher;
+import ar.uba.fi.ingsoft1.product_example.config.security.UserPrincipalCache;
 import ar.uba.fi.ingsoft1.product_example.user.refresh_token.RefreshToken;
 import ar.uba.fi.ingsoft1.product_example.user.refresh_token.RefreshTokenService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
 import java.util.Random;
+import java.util.UUID;
 
+/**
+ * Password hashing waits on the {@link PasswordHasher} pool, so the methods that hash run outside
+ * any transaction and only open short ones around their reads and writes; a connection held while
+ * queueing for the pool would drain the connection pool before the hash queue fills up.
+ */
 @Service
 @Transactional
 class UserService implements UserDetailsService {
     public static final int MAX_ATTEMPTS = 5;
 
     private final JwtService jwtService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final UserRepository userRepository;
     private final RefreshTokenService refreshTokenService;
     private final EmailService emailService;
+    private final UserPrincipalCache principalCache;
+    private final LoginAttemptTracker loginAttempts;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     UserService(
             JwtService jwtService,
-            PasswordEncoder passwordEncoder,
+            PasswordHasher passwordHasher,
             UserRepository userRepository,
             RefreshTokenService refreshTokenService,
-            EmailService emailService
+            EmailService emailService,
+            UserPrincipalCache principalCache,
+            LoginAttemptTracker loginAttempts,
+            PlatformTransactionManager transactionManager
     ) {
         this.jwtService = jwtService;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.userRepository = userRepository;
         this.refreshTokenService = refreshTokenService;
         this.emailService = emailService;
+        this.principalCache = principalCache;
+        this.loginAttempts = loginAttempts;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -52,18 +72,74 @@ class UserService implements UserDetailsService {
                 });
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     Optional<TokenDTO> createUser(UserCreateDTO data) {
-        if (userRepository.findByUsername(data.username()).isPresent()) {
+        if (findOnPrimary(data.username()).isPresent()) {
             return loginUser(data);
-        } else {
-            var user = data.asUser(passwordEncoder::encode);
+        }
+        String passwordHash = passwordHasher.encode(data.password());
+        return Optional.of(transactionTemplate.execute(status -> {
+            var user = data.asUser(password -> passwordHash);
             userRepository.save(user);
-            return Optional.of(generateTokens(user));
+            return generateTokens(user);
+        }));
+    }
+
+    /**
+     * Stores a new, unverified account and queues its verification email in the same transaction.
+     * Returns false if the email is already registered.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    boolean register(UserRegisterDTO data, byte[] photo) {
+        if (findOnPrimary(data.email()).isPresent()) {
+            return false;
+        }
+        String passwordHash = passwordHasher.encode(data.password());
+        transactionTemplate.executeWithoutResult(status -> store(data, passwordHash, photo));
+        return true;
+    }
+
+    private void store(UserRegisterDTO data, String passwordHash, byte[] photo) {
+        String verificationCode = UUID.randomUUID().toString().substring(0, 6);
+
+        User newUser = new User();
+        newUser.setEmail(data.email());
+        newUser.setPassword(passwordHash);
+        newUser.setRole("ROLE_USER");
+        newUser.setNombre(data.nombre());
+        newUser.setApellido(data.apellido());
+        newUser.setEdad(data.edad());
+        newUser.setGenero(data.genero());
+        newUser.setDomicilio(data.domicilio());
+        newUser.setVerificationCode(verificationCode);
+        newUser.setVerified(false);
+        newUser.setFoto(photo);
+
+        userRepository.save(newUser);
+        emailService.sendVerificationEmail(data.email(), verificationCode);
+    }
+
+    /**
+     * Gives the user a new reset code and queues the email carrying it in the same transaction.
+     * Returns false if no user has that email.
+     */
+    boolean requestPasswordReset(String email) {
+        Optional<User> maybeUser = userRepository.findByUsername(email);
+        if (maybeUser.isEmpty()) {
+            return false;
         }
+
+        User user = maybeUser.get();
+        String resetCode = generateResetCode();
+        user.setVerificationCode(resetCode);
+        userRepository.save(user);
+        emailService.sendPasswordResetEmail(email, resetCode);
+        return true;
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     Optional<TokenDTO> loginUser(UserCredentials data) {
-        Optional<User> maybeUser = userRepository.findByUsername(data.username());
+        Optional<User> maybeUser = findOnPrimary(data.username());
         if (maybeUser.isEmpty()) {
             return Optional.empty();
         }
@@ -73,17 +149,33 @@ class UserService implements UserDetailsService {
             return Optional.empty();
         }
 
-        if (passwordEncoder.matches(data.password(), user.getPassword())) {
+        String checkedHash = user.getPassword();
+        if (passwordHasher.matches(data.password(), checkedHash)) {
             // Correct password
             if (!user.isEnabled()) {
                 return Optional.empty();
             }
-            user.setFailedLoginAttempts(0);
-            userRepository.save(user);
-            return Optional.of(generateTokens(user));
+            String rehashed = passwordHasher.needsRehash(checkedHash) ? passwordHasher.encode(data.password()) : null;
+            return transactionTemplate.execute(status -> {
+                // The password may have been reset, or the account locked, while we were hashing
+                User current = userRepository.findByUsername(data.username())
+                        .filter(User::isAccountNonLocked)
+                        .filter(found -> checkedHash.equals(found.getPassword()))
+                        .orElse(null);
+                if (current == null) {
+                    return Optional.empty();
+                }
+                if (rehashed != null) {
+                    current.setPassword(rehashed);
+                }
+                loginAttempts.reset(current.getUsername());
+                current.setFailedLoginAttempts(0);
+                userRepository.save(current);
+                return Optional.of(generateTokens(current));
+            });
         } else {
             // Wrong password
-            handleFailedLoginAttempt(user);
+            handleFailedLoginAttempt(user.getUsername());
             return Optional.empty();
         }
     }
@@ -107,23 +199,33 @@ class UserService implements UserDetailsService {
         return new TokenDTO(accessToken, refreshToken.value(), user.getRole(), user.getId());
     }
 
-    private void handleFailedLoginAttempt(User user) {
-        user.setFailedLoginAttempts(user.getFailedLoginAttempts() + 1);
-
-        if (user.getFailedLoginAttempts() >= MAX_ATTEMPTS) {
-            user.setLocked(true);
-            String resetCode = generateResetCode();
-            user.setVerificationCode(resetCode);
+    // Failures are only counted in memory; the row is written once, when the account gets locked.
+    private void handleFailedLoginAttempt(String username) {
+        int failures = loginAttempts.recordFailure(username);
 
-            try {
-                emailService.sendAccountLockedEmail(user.getUsername(), resetCode);
-            } catch (Exception e) {
-                System.err.println("Failed to send password reset email to " + user.getUsername() + ": " + e.getMessage());
-            }
+        if (failures >= MAX_ATTEMPTS) {
+            transactionTemplate.executeWithoutResult(status -> userRepository.findByUsername(username)
+                    .ifPresent(user -> lock(user, failures)));
+            loginAttempts.reset(username);
         }
+    }
+
+    private void lock(User user, int failures) {
+        user.setFailedLoginAttempts(failures);
+        user.setLocked(true);
+        principalCache.invalidate(user.getUsername());
+        String resetCode = generateResetCode();
+        user.setVerificationCode(resetCode);
+        emailService.sendAccountLockedEmail(user.getUsername(), resetCode);
         userRepository.save(user);
     }
 
+    // A read-write transaction of its own: a read-only one may be routed to a replica that has not
+    // seen the latest password or lock yet.
+    private Optional<User> findOnPrimary(String username) {
+        return transactionTemplate.execute(status -> userRepository.findByUsername(username));
+    }
+
     private String generateResetCode() {
         Random random = new Random();
         int code = 100000 + random.nextInt(900000);
@@ -4,18 +4,32 @@ import ar.uba.fi.ingsoft1.product_example.user.User;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.NoArgsConstructor;
 
 import java.time.Instant;
 
+/**
+ * A refresh token, stored under the SHA-256 of its value: the table holds fixed-size binary keys
+ * and nothing that could be replayed if it leaked. The plain value only exists on the instance
+ * returned by {@link RefreshTokenService#createFor}, to be handed to the client once.
+ */
 @Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_refresh_tokens_user", columnList = "user_id, expires_at")
+})
 @NoArgsConstructor
-@AllArgsConstructor
 public class RefreshToken {
     @Id
+    @Column(name = "token_hash", length = RefreshTokenHash.LENGTH, nullable = false)
+    private byte[] hash;
+
+    @Transient
     private String value;
 
     @ManyToOne(optional = false)
@@ -25,6 +39,13 @@ public class RefreshToken {
     @Column(nullable = false)
     private Instant expiresAt;
 
+    public RefreshToken(String value, User user, Instant expiresAt) {
+        this.hash = RefreshTokenHash.of(value);
+        this.value = value;
+        this.user = user;
+        this.expiresAt = expiresAt;
+    }
+
     public String value() {
         return this.value;
     }
@@ -0,0 +1,21 @@
+package ar.uba.fi.ingsoft1.product_example.user.refresh_token;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+final class RefreshTokenHash {
+
+    static final int LENGTH = 32;
+
+    private RefreshTokenHash() {
+    }
+
+    static byte[] of(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,6 +1,30 @@
 package ar.uba.fi.ingsoft1.product_example.user.refresh_token;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+import java.time.Instant;
+import java.util.List;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, byte[]> {
+
+    @Query("""
+            SELECT t.hash FROM RefreshToken t
+            WHERE t.user.id = :userId
+            ORDER BY t.expiresAt DESC
+            """)
+    List<byte[]> findHashesByUserIdNewestFirst(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM refresh_tokens
+            WHERE token_hash IN (
+                SELECT token_hash FROM refresh_tokens
+                WHERE expires_at <= :now
+                LIMIT :batchSize
+            )
+            """, nativeQuery = true)
+    int deleteExpired(@Param("now") Instant now, @Param("batchSize") int batchSize);
 }
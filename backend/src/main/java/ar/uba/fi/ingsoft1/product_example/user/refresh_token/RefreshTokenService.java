@@ -3,50 +3,104 @@ package ar.uba.fi.ingsoft1.product_example.user.refresh_token;
 import ar.uba.fi.ingsoft1.product_example.user.User;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigInteger;
 import java.security.SecureRandom;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Issues single-use refresh tokens. Each user keeps at most {@code jwt.refresh.max-per-user}
+ * tokens (the ones expiring last win) and expired rows are purged in chunks by
+ * {@link #sweepExpired()}, so the table stays proportional to the number of live sessions.
+ */
 @Service
 public class RefreshTokenService {
 
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     private final Long expiration;
     private final Integer byteSize;
+    private final int maxPerUser;
+    private final int sweepBatchSize;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public RefreshTokenService(
             @Value("${jwt.refresh.expiration}") Long expiration,
             @Value("${jwt.refresh.bytes}") Integer byteSize,
-            RefreshTokenRepository refreshTokenRepository
+            @Value("${jwt.refresh.max-per-user:10}") int maxPerUser,
+            @Value("${jwt.refresh.sweep-batch-size:1000}") int sweepBatchSize,
+            RefreshTokenRepository refreshTokenRepository,
+            PlatformTransactionManager transactionManager
     ) {
         this.expiration = expiration;
         this.byteSize = byteSize;
+        this.maxPerUser = maxPerUser;
+        this.sweepBatchSize = sweepBatchSize;
         this.refreshTokenRepository = refreshTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
+    @Transactional
     public RefreshToken createFor(User user) {
         String value = getRandomString();
         RefreshToken result = new RefreshToken(value, user, getExpirationFor(Instant.now()));
+        enforceCap(user);
         refreshTokenRepository.save(result);
         return result;
     }
 
+    @Transactional
     public Optional<RefreshToken> findByValue(String value) {
-        Optional<RefreshToken> result = refreshTokenRepository.findById(value);
+        Optional<RefreshToken> result = refreshTokenRepository.findById(RefreshTokenHash.of(value));
         result.ifPresent(refreshTokenRepository::delete);
         return result.filter(RefreshToken::isValid);
     }
 
+    /**
+     * Deletes expired tokens {@code jwt.refresh.sweep-batch-size} rows at a time, each chunk in its
+     * own short transaction so the sweep never holds locks on a large part of the table. Returns
+     * the number of rows removed.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh.sweep-interval-ms:600000}")
+    public int sweepExpired() {
+        Instant now = Instant.now();
+        int total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status ->
+                    refreshTokenRepository.deleteExpired(now, sweepBatchSize));
+            int count = deleted == null ? 0 : deleted;
+            total += count;
+            if (count < sweepBatchSize) {
+                return total;
+            }
+        }
+    }
+
+    // Makes room for one more token by dropping the user's oldest ones.
+    private void enforceCap(User user) {
+        if (user.getId() == null) {
+            return;
+        }
+        List<byte[]> hashes = refreshTokenRepository.findHashesByUserIdNewestFirst(user.getId());
+        if (hashes.size() >= maxPerUser) {
+            refreshTokenRepository.deleteAllById(hashes.subList(maxPerUser - 1, hashes.size()));
+        }
+    }
+
     String getRandomString() {
-        SecureRandom random = new SecureRandom();
         byte[] randomBytes = new byte[this.byteSize];
-        random.nextBytes(randomBytes);
-        return new BigInteger(1, randomBytes).toString(32);
+        RANDOM.nextBytes(randomBytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
     }
 
     Instant getExpirationFor(Instant reference) {
@@ -1,7 +1,9 @@
 package ar.uba.fi.ingsoft1.product_example.Combos;
 
+import ar.uba.fi.ingsoft1.product_example.common.StoredImage;
 import ar.uba.fi.ingsoft1.product_example.config.security.JwtService;
 import ar.uba.fi.ingsoft1.product_example.config.security.SecurityConfig;
+import ar.uba.fi.ingsoft1.product_example.config.security.UserPrincipalCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -38,6 +41,9 @@ class ComboRestControllerTest {
     @MockBean
     private JwtService jwtService;
 
+    @MockBean
+    private UserPrincipalCache userPrincipalCache;
+
     @MockBean
     private UserRepository userRepository;
 
@@ -48,7 +54,7 @@ class ComboRestControllerTest {
 
     @BeforeEach
     void setUp() {
-        comboDTO = new ComboDTO(1L, "Combo Pizza", "Delicious combo with pizza", new BigDecimal("700.00"), Map.of(), List.of(), Map.of(), new byte[5 * 1024], true);
+        comboDTO = new ComboDTO(1L, "Combo Pizza", "Delicious combo with pizza", new BigDecimal("700.00"), Map.of(), List.of(), Map.of(), "/combos/1/image?v=abc", true);
     }
 
     @Test
@@ -176,7 +182,7 @@ class ComboRestControllerTest {
 
         ComboDTO updatedDTO = new ComboDTO(
                 1L, "Combo Pizza Updated", "Updated Description", new BigDecimal("750.00"),
-                Map.of(), List.of(), Map.of(), new byte[5 * 1024], true
+                Map.of(), List.of(), Map.of(), "/combos/1/image?v=abc", true
         );
 
         Mockito.when(comboService.updateCombo(Mockito.eq(1L), any(), any()))
@@ -212,4 +218,44 @@ class ComboRestControllerTest {
         mockMvc.perform(delete("/combos/999"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void getComboImage_withCurrentVersion_isPublicAndImmutable() throws Exception {
+        StoredImage image = new StoredImage(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 1}, null);
+        Mockito.when(comboService.getComboImage(1L)).thenReturn(Optional.of(image));
+
+        mockMvc.perform(get("/combos/1/image").param("v", image.hash()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+                .andExpect(content().bytes(image.bytes()))
+                .andExpect(header().string("ETag", "\"" + image.hash() + "\""))
+                .andExpect(header().string("Cache-Control", containsString("immutable")));
+    }
+
+    @Test
+    void getComboImage_withStaleVersion_mustRevalidate() throws Exception {
+        StoredImage image = new StoredImage(new byte[]{1, 2, 3}, null);
+        Mockito.when(comboService.getComboImage(1L)).thenReturn(Optional.of(image));
+
+        mockMvc.perform(get("/combos/1/image").param("v", "old"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", containsString("no-cache")));
+    }
+
+    @Test
+    void getComboImage_matchingETag_returnsNotModified() throws Exception {
+        StoredImage image = new StoredImage(new byte[]{1, 2, 3}, null);
+        Mockito.when(comboService.getComboImage(1L)).thenReturn(Optional.of(image));
+
+        mockMvc.perform(get("/combos/1/image").header("If-None-Match", "\"" + image.hash() + "\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getComboImage_notFound() throws Exception {
+        Mockito.when(comboService.getComboImage(999L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/combos/999/image"))
+                .andExpect(status().isNotFound());
+    }
 }
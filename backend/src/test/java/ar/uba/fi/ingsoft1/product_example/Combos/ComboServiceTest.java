@@ -2,6 +2,7 @@ package ar.uba.fi.ingsoft1.product_example.Combos;
 
 import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSection;
 import ar.uba.fi.ingsoft1.product_example.Products.Product;
+import ar.uba.fi.ingsoft1.product_example.Products.AvailabilityIndex;
 import ar.uba.fi.ingsoft1.product_example.Products.ProductRepository;
 import ar.uba.fi.ingsoft1.product_example.Tags.Tag;
 import ar.uba.fi.ingsoft1.product_example.Tags.TagRepository;
@@ -10,6 +11,7 @@ import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientRep
 import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSectionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -42,6 +44,12 @@ class ComboServiceTest {
     @Mock
     private MenuSectionRepository menuSectionRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
     @InjectMocks
     private ComboService comboService;
 
@@ -292,7 +300,8 @@ class ComboServiceTest {
         Combo combo = new Combo("Combo 1", "Delicioso combo", new BigDecimal("300.0"));
         combo.setId(1L);
 
-        when(comboRepository.findCombosWithAllProductsInStock()).thenReturn(List.of(combo));
+        when(availabilityIndex.availableComboIds()).thenReturn(List.of(1L));
+        when(comboRepository.findAllById(List.of(1L))).thenReturn(List.of(combo));
 
         List<ComboDTO> result = comboService.getCombosAvailable();
 
@@ -301,6 +310,7 @@ class ComboServiceTest {
         assertEquals("Combo 1", result.get(0).name());
         assertEquals("Delicioso combo", result.get(0).description());
         assertEquals(new BigDecimal("300.0"), result.get(0).price());
+        assertTrue(result.get(0).available());
     }
 
     @Test
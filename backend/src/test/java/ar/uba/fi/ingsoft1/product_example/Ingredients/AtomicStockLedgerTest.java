@@ -0,0 +1,129 @@
+package ar.uba.fi.ingsoft1.product_example.Ingredients;
+
+import ar.uba.fi.ingsoft1.product_example.common.CatalogChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(StockLedger.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.sql.init.mode=never",
+        "stock.persistence=atomic"
+})
+@RecordApplicationEvents
+class AtomicStockLedgerTest {
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private int storedStock(long id) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM ingredient WHERE id = ?", Integer.class, id);
+    }
+
+    private long storedVersion(long id) {
+        return jdbcTemplate.queryForObject("SELECT version FROM ingredient WHERE id = ?", Long.class, id);
+    }
+
+    private void inTransaction(Runnable action) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> action.run());
+    }
+
+    private List<Long> availabilityChanges() {
+        return events.stream(IngredientAvailabilityChangedEvent.class)
+                .map(IngredientAvailabilityChangedEvent::ingredientId)
+                .toList();
+    }
+
+    @Test
+    void reserveWritesStockWithoutBumpingVersion() {
+        Ingredient bread = ingredientRepository.save(new Ingredient("Bread", "-", 10));
+        long version = storedVersion(bread.getId());
+
+        inTransaction(() -> stockLedger.reserve(Map.of(bread.getId(), 3)));
+
+        assertEquals(7, storedStock(bread.getId()));
+        assertEquals(version, storedVersion(bread.getId()));
+    }
+
+    @Test
+    void shortReservationWritesNothing() {
+        Ingredient ham = ingredientRepository.save(new Ingredient("Ham", "-", 10));
+        Ingredient egg = ingredientRepository.save(new Ingredient("Egg", "-", 1));
+
+        inTransaction(() -> assertThrows(IllegalStateException.class,
+                () -> stockLedger.reserve(Map.of(ham.getId(), 2, egg.getId(), 2))));
+
+        assertEquals(10, storedStock(ham.getId()));
+        assertEquals(1, storedStock(egg.getId()));
+    }
+
+    @Test
+    void onlyZeroCrossingsArePublishedAfterCommit() {
+        Ingredient cheese = ingredientRepository.save(new Ingredient("Cheese", "-", 5));
+        Ingredient tomato = ingredientRepository.save(new Ingredient("Tomato", "-", 2));
+        events.clear();
+
+        inTransaction(() -> {
+            stockLedger.reserve(Map.of(cheese.getId(), 1, tomato.getId(), 2));
+            assertEquals(List.of(), availabilityChanges());
+        });
+
+        assertEquals(List.of(tomato.getId()), availabilityChanges());
+        assertEquals(0, events.stream(CatalogChangedEvent.class).count());
+    }
+
+    @Test
+    void rolledBackReservationPublishesNothing() {
+        Ingredient lettuce = ingredientRepository.save(new Ingredient("Lettuce", "-", 3));
+        events.clear();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            stockLedger.reserve(Map.of(lettuce.getId(), 3));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(3, storedStock(lettuce.getId()));
+        assertEquals(List.of(), availabilityChanges());
+    }
+
+    @Test
+    void increaseReturnsStoredLevelAndReportsRestock() {
+        Ingredient rice = ingredientRepository.save(new Ingredient("Rice", "-", 0));
+        events.clear();
+
+        int[] level = new int[1];
+        inTransaction(() -> level[0] = stockLedger.increase(rice, 4));
+
+        assertEquals(4, level[0]);
+        assertEquals(4, storedStock(rice.getId()));
+        assertEquals(List.of(rice.getId()), availabilityChanges());
+    }
+}
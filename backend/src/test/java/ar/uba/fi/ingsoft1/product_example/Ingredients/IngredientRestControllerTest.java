@@ -2,6 +2,7 @@ package ar.uba.fi.ingsoft1.product_example.Ingredients;
 
 import ar.uba.fi.ingsoft1.product_example.config.security.JwtService;
 import ar.uba.fi.ingsoft1.product_example.config.security.SecurityConfig;
+import ar.uba.fi.ingsoft1.product_example.config.security.UserPrincipalCache;
 import ar.uba.fi.ingsoft1.product_example.user.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,6 +37,9 @@ class IngredientRestControllerTest {
     @MockBean
     private JwtService jwtService;
 
+    @MockBean
+    private UserPrincipalCache userPrincipalCache;
+
     @MockBean
     private UserRepository userRepository;
 
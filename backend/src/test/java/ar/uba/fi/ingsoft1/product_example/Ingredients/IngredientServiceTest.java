@@ -3,6 +3,7 @@ package ar.uba.fi.ingsoft1.product_example.Ingredients;
 import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -20,6 +21,12 @@ class IngredientServiceTest {
     @Mock
     private IngredientRepository ingredientRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private StockLedger stockLedger;
+
     @InjectMocks
     private IngredientService ingredientService;
 
@@ -29,6 +36,8 @@ class IngredientServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(stockLedger.available(any(Ingredient.class)))
+                .thenAnswer(inv -> inv.<Ingredient>getArgument(0).getStock());
     }
 
     @Test
@@ -88,12 +97,13 @@ class IngredientServiceTest {
         ingredient.setId(1L);
 
         when(ingredientRepository.findById(1L)).thenReturn(Optional.of(ingredient));
-        when(ingredientRepository.save(any(Ingredient.class))).thenReturn(ingredient);
+        when(stockLedger.increase(ingredient, 5)).thenReturn(15);
 
         Optional<IngredientDTO> result = ingredientService.increaseStock(1L, 5);
 
         assertTrue(result.isPresent());
         assertEquals(15, result.get().stock());
+        verify(stockLedger).increase(ingredient, 5);
     }
 
     @Test
@@ -161,6 +171,7 @@ class IngredientServiceTest {
         verify(productIngredientRepository).flush();
         verify(ingredientRepository).deleteById(1L);
         verify(ingredientRepository).flush();
+        verify(stockLedger).forget(1L);
     }
 
     @Test
@@ -0,0 +1,32 @@
+package ar.uba.fi.ingsoft1.product_example.Ingredients;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LowStockGaugesTest {
+
+    @Test
+    void countsLowAndExhaustedIngredientsFromTheLedger() {
+        IngredientRepository ingredientRepository = mock(IngredientRepository.class);
+        StockLedger stockLedger = mock(StockLedger.class);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        List<Ingredient> ingredients = List.of(
+                new Ingredient("Flour", "-", 500),
+                new Ingredient("Cheese", "-", 500),
+                new Ingredient("Ham", "-", 500)
+        );
+        when(ingredientRepository.findAll()).thenReturn(ingredients);
+        when(stockLedger.available(ingredients)).thenReturn(Map.of(1L, 500, 2L, 10, 3L, 0));
+
+        new LowStockGauges(ingredientRepository, stockLedger, 10, registry).refresh();
+
+        assertEquals(2, registry.get("stock.ingredients.low").gauge().value());
+        assertEquals(1, registry.get("stock.ingredients.out").gauge().value());
+    }
+}
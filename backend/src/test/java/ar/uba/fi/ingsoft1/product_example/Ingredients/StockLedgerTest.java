@@ -0,0 +1,169 @@
+package ar.uba.fi.ingsoft1.product_example.Ingredients;
+
+import ar.uba.fi.ingsoft1.product_example.common.CatalogChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(StockLedger.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.sql.init.mode=never"
+})
+@RecordApplicationEvents
+class StockLedgerTest {
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private int storedStock(long id) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM ingredient WHERE id = ?", Integer.class, id);
+    }
+
+    @Test
+    void reserveIsWrittenBackAsRelativeUpdateOnFlush() {
+        Ingredient bread = ingredientRepository.save(new Ingredient("Bread", "-", 10));
+        Ingredient cheese = ingredientRepository.save(new Ingredient("Cheese", "-", 5));
+
+        stockLedger.reserve(Map.of(bread.getId(), 3, cheese.getId(), 2));
+
+        assertEquals(7, stockLedger.available(bread.getId()));
+        assertEquals(3, stockLedger.available(cheese.getId()));
+        assertEquals(10, storedStock(bread.getId()));
+
+        stockLedger.flush();
+
+        assertEquals(7, storedStock(bread.getId()));
+        assertEquals(3, storedStock(cheese.getId()));
+    }
+
+    @Test
+    void reserveIsAllOrNothing() {
+        Ingredient ham = ingredientRepository.save(new Ingredient("Ham", "-", 10));
+        Ingredient egg = ingredientRepository.save(new Ingredient("Egg", "-", 1));
+
+        assertThrows(IllegalStateException.class,
+                () -> stockLedger.reserve(Map.of(ham.getId(), 2, egg.getId(), 2)));
+
+        assertEquals(10, stockLedger.available(ham.getId()));
+        assertEquals(1, stockLedger.available(egg.getId()));
+    }
+
+    @Test
+    void rolledBackReservationIsReleased() {
+        Ingredient lettuce = ingredientRepository.save(new Ingredient("Lettuce", "-", 4));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            stockLedger.reserve(Map.of(lettuce.getId(), 3));
+            assertEquals(1, stockLedger.available(lettuce.getId()));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(4, stockLedger.available(lettuce.getId()));
+        stockLedger.flush();
+        assertEquals(4, storedStock(lettuce.getId()));
+    }
+
+    @Test
+    void increaseIsAppliedOnCommit() {
+        Ingredient tomato = ingredientRepository.save(new Ingredient("Tomato", "-", 2));
+
+        int expected = stockLedger.increase(tomato, 5);
+        stockLedger.flush();
+
+        assertEquals(7, expected);
+        assertEquals(7, stockLedger.available(tomato.getId()));
+        assertEquals(7, storedStock(tomato.getId()));
+    }
+
+    @Test
+    void concurrentReservationsNeverOversell() throws InterruptedException {
+        Ingredient patty = ingredientRepository.save(new Ingredient("Patty", "-", 50));
+        Ingredient bun = ingredientRepository.save(new Ingredient("Bun", "-", 80));
+
+        int threads = 8;
+        int attemptsPerThread = 50;
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    try {
+                        stockLedger.reserve(Map.of(patty.getId(), 1, bun.getId(), 2));
+                        accepted.incrementAndGet();
+                    } catch (IllegalStateException ignored) {
+                        // sold out
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        stockLedger.flush();
+
+        assertEquals(40, accepted.get());
+        assertEquals(10, storedStock(patty.getId()));
+        assertEquals(0, storedStock(bun.getId()));
+    }
+
+    @Test
+    void flushPublishesNoCatalogChange() {
+        Ingredient rice = ingredientRepository.save(new Ingredient("Rice", "-", 10));
+        stockLedger.reserve(Map.of(rice.getId(), 4));
+        events.clear();
+
+        stockLedger.flush();
+
+        assertEquals(6, storedStock(rice.getId()));
+        assertEquals(0, events.stream(CatalogChangedEvent.class).count());
+    }
+
+    @Test
+    void flushLeavesVersionSoAdminEditsDoNotConflict() {
+        Ingredient flour = ingredientRepository.save(new Ingredient("Flour", "-", 10));
+        stockLedger.reserve(Map.of(flour.getId(), 2));
+        stockLedger.flush();
+
+        flour.setDescription("Wheat flour");
+        ingredientRepository.save(flour);
+
+        assertEquals("Wheat flour", ingredientRepository.findById(flour.getId()).orElseThrow().getDescription());
+        assertEquals(8, storedStock(flour.getId()));
+    }
+}
@@ -2,8 +2,10 @@ package ar.uba.fi.ingsoft1.product_example.Menus;
 
 import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSectionDTO;
 import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSectionService;
+import ar.uba.fi.ingsoft1.product_example.common.CatalogChangedEvent;
 import ar.uba.fi.ingsoft1.product_example.config.security.JwtService;
 import ar.uba.fi.ingsoft1.product_example.config.security.SecurityConfig;
+import ar.uba.fi.ingsoft1.product_example.config.security.UserPrincipalCache;
 import ar.uba.fi.ingsoft1.product_example.user.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -28,7 +30,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(MenuRestController.class)
-@Import({SecurityConfig.class})
+@Import({SecurityConfig.class, MenuSnapshotService.class})
 class MenuRestControllerTest {
 
     @Autowired
@@ -37,6 +39,9 @@ class MenuRestControllerTest {
     @MockBean
     private JwtService jwtService;
 
+    @MockBean
+    private UserPrincipalCache userPrincipalCache;
+
     @MockBean
     private UserRepository userRepository;
 
@@ -46,6 +51,9 @@ class MenuRestControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MenuSnapshotService menuSnapshotService;
+
     private MenuSectionDTO section1;
     private MenuSectionDTO section2;
 
@@ -53,6 +61,7 @@ class MenuRestControllerTest {
     void setUp() {
         section1 = new MenuSectionDTO(1L, "Starters", "Appetizers to begin the meal", List.of(), List.of());
         section2 = new MenuSectionDTO(2L, "Main Courses", "Hearty main dishes", List.of(), List.of());
+        menuSnapshotService.onCatalogChanged(CatalogChangedEvent.of(CatalogChangedEvent.Type.MENU_SECTION));
     }
 
     @Test
@@ -78,4 +87,37 @@ class MenuRestControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(0)));
     }
+
+    @Test
+    void getAllMenuSections_isBuiltOnceUntilCatalogChanges() throws Exception {
+        Mockito.when(menuSectionService.getAllMenuSections())
+                .thenReturn(List.of(section1));
+
+        mockMvc.perform(get("/menus")).andExpect(status().isOk());
+        mockMvc.perform(get("/menus")).andExpect(status().isOk());
+        Mockito.verify(menuSectionService, Mockito.times(1)).getAllMenuSections();
+
+        Mockito.when(menuSectionService.getAllMenuSections())
+                .thenReturn(List.of(section1, section2));
+        menuSnapshotService.onCatalogChanged(CatalogChangedEvent.of(CatalogChangedEvent.Type.PRODUCT));
+
+        mockMvc.perform(get("/menus"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+        Mockito.verify(menuSectionService, Mockito.times(2)).getAllMenuSections();
+    }
+
+    @Test
+    void getAllMenuSections_matchingETag_returnsNotModified() throws Exception {
+        Mockito.when(menuSectionService.getAllMenuSections())
+                .thenReturn(List.of(section1, section2));
+
+        String etag = mockMvc.perform(get("/menus"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/menus").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
 }
@@ -2,6 +2,7 @@ package ar.uba.fi.ingsoft1.product_example.OrderDetails;
 
 import ar.uba.fi.ingsoft1.product_example.config.security.JwtService;
 import ar.uba.fi.ingsoft1.product_example.config.security.SecurityConfig;
+import ar.uba.fi.ingsoft1.product_example.config.security.UserPrincipalCache;
 import ar.uba.fi.ingsoft1.product_example.user.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -39,6 +40,9 @@ class OrderDetailRestControllerTest {
     @MockBean
     private JwtService jwtService;
 
+    @MockBean
+    private UserPrincipalCache userPrincipalCache;
+
     @MockBean
     private UserRepository userRepository;
 
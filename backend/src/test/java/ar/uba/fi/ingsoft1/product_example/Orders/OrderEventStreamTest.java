@@ -0,0 +1,131 @@
+package ar.uba.fi.ingsoft1.product_example.Orders;
+
+import ar.uba.fi.ingsoft1.product_example.config.security.JwtService;
+import ar.uba.fi.ingsoft1.product_example.config.security.SecurityConfig;
+import ar.uba.fi.ingsoft1.product_example.config.security.UserPrincipalCache;
+import ar.uba.fi.ingsoft1.product_example.user.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(OrderRestController.class)
+@Import({ SecurityConfig.class, OrderEventStream.class })
+@TestPropertySource(properties = {
+        "orders.stream.replay-size=4",
+        "orders.stream.subscriber-buffer=8"
+})
+class OrderEventStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderEventStream orderEventStream;
+
+    @MockBean
+    private OrderService orderService;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private UserPrincipalCache userPrincipalCache;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    private static OrderDTO order(long id, long stateId) {
+        return new OrderDTO(id, 1L, LocalDateTime.now(), null, new BigDecimal("10.00"), stateId, List.of());
+    }
+
+    private MockHttpServletResponse subscribe(String lastEventId) throws Exception {
+        var request = get("/orders/stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, Predicate<String> done) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = response.getContentAsString();
+        while (!done.test(content) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = response.getContentAsString();
+        }
+        return content;
+    }
+
+    private static String lastEventId(String content) {
+        String[] ids = content.lines().filter(line -> line.startsWith("id:")).toArray(String[]::new);
+        return ids[ids.length - 1].substring(3);
+    }
+
+    @Test
+    @WithMockUser(roles = { "USER" })
+    void stream_requiresStaffRole() throws Exception {
+        mockMvc.perform(get("/orders/stream")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = { "KITCHEN" })
+    void stream_pushesCommittedOrderChanges() throws Exception {
+        MockHttpServletResponse response = subscribe(null);
+
+        orderEventStream.onOrderChanged(OrderChangedEvent.created(order(41L, 1L)));
+        orderEventStream.onOrderChanged(OrderChangedEvent.stateChanged(order(41L, 2L)));
+
+        String content = awaitContent(response, c -> c.contains("order-state-changed"));
+        assertTrue(content.contains("event:order-created"));
+        assertTrue(content.contains("\"id\":41"));
+        assertTrue(content.contains("\"stateId\":2"));
+    }
+
+    @Test
+    @WithMockUser(roles = { "STAFF" })
+    void stream_resumesFromLastEventId() throws Exception {
+        MockHttpServletResponse first = subscribe(null);
+        orderEventStream.onOrderChanged(OrderChangedEvent.created(order(1L, 1L)));
+        String seen = lastEventId(awaitContent(first, c -> c.contains("id:")));
+
+        orderEventStream.onOrderChanged(OrderChangedEvent.created(order(2L, 1L)));
+        orderEventStream.onOrderChanged(OrderChangedEvent.stateChanged(order(1L, 2L)));
+
+        String resumed = awaitContent(subscribe(seen), c -> c.contains("order-state-changed"));
+        assertEquals(2, resumed.lines().filter(line -> line.startsWith("event:")).count());
+        assertTrue(resumed.contains("\"id\":2"));
+        assertTrue(resumed.contains("\"stateId\":2"));
+        assertFalse(resumed.contains("event:reset"));
+    }
+
+    @Test
+    @WithMockUser(roles = { "STAFF" })
+    void stream_sendsResetWhenLastEventIdIsUnknown() throws Exception {
+        for (long id = 1; id <= 6; id++) {
+            orderEventStream.onOrderChanged(OrderChangedEvent.created(order(id, 1L)));
+        }
+
+        String content = awaitContent(subscribe("previous-run-3"), c -> c.contains("event:reset"));
+        assertTrue(content.contains("event:reset"));
+        assertFalse(content.contains("order-created"));
+    }
+}
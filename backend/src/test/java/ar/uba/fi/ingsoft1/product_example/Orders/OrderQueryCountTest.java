@@ -0,0 +1,175 @@
+package ar.uba.fi.ingsoft1.product_example.Orders;
+
+import ar.uba.fi.ingsoft1.product_example.Combos.Combo;
+import ar.uba.fi.ingsoft1.product_example.Ingredients.StockLedger;
+import ar.uba.fi.ingsoft1.product_example.OrderDetails.OrderDetail;
+import ar.uba.fi.ingsoft1.product_example.OrderDetails.OrderDetailCreateDTO;
+import ar.uba.fi.ingsoft1.product_example.Products.BillOfMaterialsCache;
+import ar.uba.fi.ingsoft1.product_example.Products.Product;
+import ar.uba.fi.ingsoft1.product_example.Promotions.PromotionEngine;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({OrderService.class, BillOfMaterialsCache.class})
+@TestPropertySource(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class OrderQueryCountTest {
+
+    @MockBean
+    private StockLedger stockLedger;
+
+    @MockBean
+    private PromotionEngine promotionEngine;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private OrderStatus confirmed;
+    private OrderStatus ready;
+    private Product product;
+    private Combo combo;
+
+    @BeforeEach
+    void setUp() {
+        confirmed = entityManager.persist(new OrderStatus(null, "confirmed"));
+        ready = entityManager.persist(new OrderStatus(null, "ready"));
+        product = entityManager.persist(new Product("Burger", "-", new BigDecimal("10.00")));
+        combo = entityManager.persist(new Combo("Lunch", "-", new BigDecimal("25.00")));
+    }
+
+    private void createOrders(int count, OrderStatus state) {
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.setCreationDate(LocalDateTime.now());
+            order.setState(state);
+            order.addDetail(detail(product, null));
+            order.addDetail(detail(null, combo));
+            order.calculateTotal();
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private OrderDetail detail(Product product, Combo combo) {
+        BigDecimal price = product != null ? product.getPrice() : combo.getPrice();
+        OrderDetail detail = new OrderDetail(1, price, BigDecimal.ZERO, BigDecimal.ZERO);
+        detail.setProduct(product);
+        detail.setCombo(combo);
+        detail.calculateTotal();
+        return detail;
+    }
+
+    private long statementsFor(Runnable action) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void listingAllOrdersUsesConstantQueries() {
+        createOrders(3, confirmed);
+        long few = statementsFor(() -> assertEquals(3, orderService.geAlltOrders().size()));
+
+        createOrders(30, ready);
+        AtomicReference<List<OrderDTO>> result = new AtomicReference<>();
+        long many = statementsFor(() -> result.set(orderService.geAlltOrders()));
+
+        OrderDTO first = result.get().get(0);
+        assertEquals(33, result.get().size());
+        assertEquals(2, first.details().size());
+        assertEquals(product.getId(), first.details().get(0).productId());
+        assertEquals(combo.getId(), first.details().get(1).comboId());
+        assertEquals(2, few);
+        assertEquals(few, many);
+    }
+
+    @Test
+    void listingOrdersByStateUsesConstantQueries() {
+        createOrders(2, confirmed);
+        createOrders(5, ready);
+        long few = statementsFor(() -> assertEquals(2, orderService.getOrdersByState(confirmed.getId()).size()));
+
+        createOrders(25, confirmed);
+        long many = statementsFor(() -> assertEquals(27, orderService.getOrdersByState(confirmed.getId()).size()));
+
+        assertEquals(2, few);
+        assertEquals(few, many);
+    }
+
+    @Test
+    void pagesThroughOrdersInStateWithKeysetCursor() {
+        createOrders(5, confirmed);
+        createOrders(3, ready);
+
+        OrderPage first = orderService.getOrdersPage(confirmed.getId(), null, 2);
+        OrderPage second = orderService.getOrdersPage(confirmed.getId(), first.next(), 2);
+        OrderPage last = orderService.getOrdersPage(confirmed.getId(), second.next(), 2);
+
+        assertEquals(2, first.orders().size());
+        assertEquals(2, second.orders().size());
+        assertEquals(1, last.orders().size());
+        assertNull(last.next());
+        assertEquals(2, last.orders().get(0).details().size());
+
+        List<Long> ids = new ArrayList<>();
+        List.of(first, second, last).forEach(page -> page.orders().forEach(o -> ids.add(o.id())));
+        assertEquals(5, ids.stream().distinct().count());
+        assertTrue(ids.stream().allMatch(id -> orderService.getOrderById(id).orElseThrow().stateId() == confirmed.getId()));
+
+        long queries = statementsFor(() -> orderService.getOrdersPage(null, first.next(), 4));
+        assertEquals(2, queries);
+    }
+
+    @Test
+    void placingABatchSendsInsertsInJdbcBatches() {
+        entityManager.getEntityManager()
+                .createNativeQuery("MERGE INTO order_status (id, name) KEY (id) VALUES (1, 'confirmed')")
+                .executeUpdate();
+        List<OrderCreateDTO> batch = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            batch.add(new OrderCreateDTO(List.of(
+                    new OrderDetailCreateDTO(product.getId(), null, 1),
+                    new OrderDetailCreateDTO(null, combo.getId(), 2)
+            )));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long statements = statementsFor(() -> {
+            List<OrderBatchResultDTO> results = orderService.createOrders(batch, null);
+            entityManager.flush();
+            assertTrue(results.stream().allMatch(OrderBatchResultDTO::succeeded));
+        });
+
+        assertEquals(60, statistics.getEntityInsertCount());
+        assertTrue(statements < 12, "expected batched inserts, got " + statements + " statements");
+    }
+}
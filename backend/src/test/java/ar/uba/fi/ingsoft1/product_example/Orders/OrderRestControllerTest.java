@@ -3,12 +3,14 @@ package ar.uba.fi.ingsoft1.product_example.Orders;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import ar.uba.fi.ingsoft1.product_example.OrderDetails.OrderDetailCreateDTO;
 import ar.uba.fi.ingsoft1.product_example.config.security.JwtService;
 import ar.uba.fi.ingsoft1.product_example.config.security.SecurityConfig;
+import ar.uba.fi.ingsoft1.product_example.config.security.UserPrincipalCache;
 import ar.uba.fi.ingsoft1.product_example.user.User;
 import ar.uba.fi.ingsoft1.product_example.user.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -25,6 +27,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -38,9 +41,15 @@ class OrderRestControllerTest {
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private OrderEventStream orderEventStream;
+
     @MockBean
     private JwtService jwtService;
 
+    @MockBean
+    private UserPrincipalCache userPrincipalCache;
+
     @MockBean
     private UserRepository userRepository;
 
@@ -83,6 +92,48 @@ class OrderRestControllerTest {
             .andExpect(jsonPath("$[0].id", is(1)));
     }
 
+    @Test
+    @WithMockUser(roles = { "ADMIN" })
+    void getOrders_paged_returnsNextCursorHeader() throws Exception {
+        OrderCursor next = OrderCursor.after(orderDTO);
+        OrderCursor after = new OrderCursor(LocalDateTime.of(2025, 3, 1, 12, 30), 4L);
+        Mockito.when(orderService.getOrdersPage(eq(2L), eq(after), eq(10)))
+            .thenReturn(new OrderPage(List.of(orderDTO), next));
+
+        mockMvc
+            .perform(get("/orders")
+                .param("state", "2")
+                .param("after", after.encode())
+                .param("limit", "10"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Next-Cursor", next.encode()))
+            .andExpect(jsonPath("$[0].id", is(1)));
+    }
+
+    @Test
+    @WithMockUser(roles = { "ADMIN" })
+    void getOrders_lastPage_hasNoCursorHeader() throws Exception {
+        Mockito.when(orderService.getOrdersPage(isNull(), isNull(), eq(50)))
+            .thenReturn(new OrderPage(List.of(orderDTO), null));
+
+        mockMvc
+            .perform(get("/orders").param("limit", "50"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    @WithMockUser(roles = { "ADMIN" })
+    void getOrders_invalidPaging_returns400() throws Exception {
+        mockMvc
+            .perform(get("/orders").param("limit", "0"))
+            .andExpect(status().isBadRequest());
+
+        mockMvc
+            .perform(get("/orders").param("after", "not-a-cursor"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser(roles = { "ADMIN" })
     void getOrderById_found() throws Exception {
@@ -127,6 +178,86 @@ class OrderRestControllerTest {
             .andExpect(jsonPath("$.userId", is(1)));
     }
 
+    @Test
+    @WithMockUser(roles = { "ADMIN" })
+    void createOrder_retriesAfterConcurrencyFailure() throws Exception {
+        OrderCreateDTO dto = new OrderCreateDTO(List.of(createDetail()));
+        String json = objectMapper.writeValueAsString(dto);
+
+        Mockito.when(orderService.createOrder(any(), any()))
+            .thenThrow(new ObjectOptimisticLockingFailureException("Ingredient", 1L))
+            .thenReturn(Optional.of(orderDTO));
+
+        mockMvc
+            .perform(
+                post("/orders")
+                    .content(json)
+                    .contentType(MediaType.APPLICATION_JSON)
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id", is(1)));
+
+        Mockito.verify(orderService, Mockito.times(2)).createOrder(any(), any());
+    }
+
+    @Test
+    @WithMockUser(roles = { "STAFF" })
+    void createOrders_batch_returnsPerOrderResults() throws Exception {
+        OrderBatchCreateDTO dto = new OrderBatchCreateDTO(List.of(
+            new OrderCreateDTO(List.of(createDetail())),
+            new OrderCreateDTO(List.of(new OrderDetailCreateDTO(99L, null, 1)))
+        ));
+
+        Mockito.when(orderService.createOrders(any(), any())).thenReturn(List.of(
+            OrderBatchResultDTO.created(0, orderDTO),
+            OrderBatchResultDTO.failed(1, "Product not found with id: 99")
+        ));
+
+        mockMvc
+            .perform(
+                post("/orders/batch")
+                    .content(objectMapper.writeValueAsString(dto))
+                    .contentType(MediaType.APPLICATION_JSON)
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].order.id", is(1)))
+            .andExpect(jsonPath("$[1].index", is(1)))
+            .andExpect(jsonPath("$[1].error", is("Product not found with id: 99")));
+    }
+
+    @Test
+    @WithMockUser(roles = { "STAFF" })
+    void createOrders_emptyBatch_returns400() throws Exception {
+        mockMvc
+            .perform(
+                post("/orders/batch")
+                    .content(objectMapper.writeValueAsString(new OrderBatchCreateDTO(List.of())))
+                    .contentType(MediaType.APPLICATION_JSON)
+            )
+            .andExpect(status().isBadRequest());
+
+        Mockito.verify(orderService, Mockito.never()).createOrders(any(), any());
+    }
+
+    @Test
+    @WithMockUser(roles = { "USER" })
+    void createOrders_allowedForAnyAuthenticatedUser() throws Exception {
+        OrderBatchCreateDTO dto = new OrderBatchCreateDTO(List.of(new OrderCreateDTO(List.of(createDetail()))));
+
+        Mockito.when(orderService.createOrders(any(), any())).thenReturn(List.of(
+            OrderBatchResultDTO.created(0, orderDTO)
+        ));
+
+        mockMvc
+            .perform(
+                post("/orders/batch")
+                    .content(objectMapper.writeValueAsString(dto))
+                    .contentType(MediaType.APPLICATION_JSON)
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].order.id", is(1)));
+    }
+
     @Test
     @WithMockUser(roles = { "ADMIN" })
     void createOrder_fail_returns500() throws Exception {
@@ -347,7 +478,7 @@ class OrderRestControllerTest {
 
     @Test
     @WithMockUser(roles = { "ADMIN" })
-    void getOrdersByState_returnsFilteredList() throws Exception {
+    void getOrdersByState_returnsOrdersInState() throws Exception {
         OrderDTO match = new OrderDTO(
             1L,
             1L,
@@ -357,18 +488,9 @@ class OrderRestControllerTest {
             10L,
             List.of()
         );
-        OrderDTO notMatch = new OrderDTO(
-            2L,
-            1L,
-            LocalDateTime.now(),
-            null,
-            new BigDecimal("600.00"),
-            20L,
-            List.of()
-        );
 
-        Mockito.when(orderService.geAlltOrders()).thenReturn(
-            List.of(match, notMatch)
+        Mockito.when(orderService.getOrdersByState(10L)).thenReturn(
+            List.of(match)
         );
 
         mockMvc
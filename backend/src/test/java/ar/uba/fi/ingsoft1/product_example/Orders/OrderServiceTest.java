@@ -1,21 +1,24 @@
 package ar.uba.fi.ingsoft1.product_example.Orders;
 
 import ar.uba.fi.ingsoft1.product_example.OrderDetails.*;
+import ar.uba.fi.ingsoft1.product_example.Products.BillOfMaterialsCache;
 import ar.uba.fi.ingsoft1.product_example.Products.Product;
 import ar.uba.fi.ingsoft1.product_example.Combos.Combo;
 import ar.uba.fi.ingsoft1.product_example.Ingredients.Ingredient;
 import ar.uba.fi.ingsoft1.product_example.Ingredients.IngredientRepository;
+import ar.uba.fi.ingsoft1.product_example.Ingredients.StockLedger;
 import ar.uba.fi.ingsoft1.product_example.Products.ProductRepository;
 import ar.uba.fi.ingsoft1.product_example.Combos.ComboRepository;
 import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredient;
 import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientId;
 import ar.uba.fi.ingsoft1.product_example.ComboProduct.ComboProductId;
 import ar.uba.fi.ingsoft1.product_example.ComboProduct.ComboProduct;
-import ar.uba.fi.ingsoft1.product_example.Promotions.PromotionService;
+import ar.uba.fi.ingsoft1.product_example.Promotions.PromotionEngine;
 import ar.uba.fi.ingsoft1.product_example.user.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -41,15 +44,28 @@ class OrderServiceTest {
     @Mock
     private IngredientRepository ingredientRepository;
 
+    @Mock
+    private StockLedger stockLedger;
+
+    @Spy
+    private BillOfMaterialsCache billOfMaterialsCache = new BillOfMaterialsCache();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, Ingredient> ingredients = new HashMap<>();
+
     @InjectMocks
     private OrderService orderService;
 
     @Mock
-    private PromotionService promotionService;
+    private PromotionEngine promotionEngine;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(stockLedger.available(anyLong()))
+                .thenAnswer(inv -> ingredients.get(inv.<Long>getArgument(0)).getStock());
     }
 
     private Order createValidOrder() {
@@ -66,6 +82,7 @@ class OrderServiceTest {
     }
 
     private ProductIngredient createProductIngredient(Product p, Ingredient i, int qty) {
+        ingredients.put(i.getId(), i);
         var id = new ProductIngredientId(p.getId(), i.getId());
         ProductIngredient pi = new ProductIngredient(id, p, i, qty);
         return pi;
@@ -209,6 +226,7 @@ class OrderServiceTest {
 
         assertTrue(result.isPresent());
         assertEquals(3L, order.getState().getId());
+        verify(eventPublisher).publishEvent(OrderChangedEvent.stateChanged(result.get()));
     }
 
     @Test
@@ -265,22 +283,27 @@ class OrderServiceTest {
 
         @Test
     void testGetAllOrders_ReturnsResults() {
-        Order order = createValidOrder();
-        when(orderRepository.findAll()).thenReturn(List.of(order));
+        OrderDetailDTO detail = new OrderDetailDTO(
+                7L, 1L, 3L, null, 2, BigDecimal.TEN, BigDecimal.ZERO, new BigDecimal("20.00"));
+        when(orderRepository.findAllSummaries()).thenReturn(List.of(summary(1L, 1L), summary(2L, 1L)));
+        when(orderDetailRepository.findDTOsByOrderIds(List.of(1L, 2L))).thenReturn(List.of(detail));
 
         List<OrderDTO> result = orderService.geAlltOrders();
 
-        assertEquals(1, result.size());
+        assertEquals(2, result.size());
         assertEquals(1L, result.get(0).id());
+        assertEquals(List.of(detail), result.get(0).details());
+        assertTrue(result.get(1).details().isEmpty());
+        verify(orderRepository, never()).findAll();
+    }
+
+    private OrderDTO summary(long id, long stateId) {
+        return new OrderDTO(id, 1L, LocalDateTime.now(), null, BigDecimal.TEN, stateId);
     }
 
     @Test
     void testGetConfirmedOrders_FiltersCorrectly() {
-        Order confirmed = createValidOrder();
-        Order other = createValidOrder();
-        other.setState(new OrderStatus(2L, "in preparation"));
-
-        when(orderRepository.findAll()).thenReturn(List.of(confirmed, other));
+        when(orderRepository.findSummariesByStateId(1L)).thenReturn(List.of(summary(1L, 1L)));
 
         List<OrderDTO> result = orderService.getConfirmedOrders();
 
@@ -340,6 +363,7 @@ class OrderServiceTest {
     @Test
     void testIsProductInStock_True() {
         Ingredient ingredient = new Ingredient();
+        ingredient.setId(1L);
         ingredient.setStock(5);
 
         ProductIngredient pi = createProductIngredient(productWithIngredients(), ingredient, 1);
@@ -352,6 +376,7 @@ class OrderServiceTest {
     @Test
     void testIsProductInStock_False() {
         Ingredient ingredient = new Ingredient();
+        ingredient.setId(1L);
         ingredient.setStock(0);
 
         ProductIngredient pi = createProductIngredient(productWithIngredients(), ingredient, 1);
@@ -369,6 +394,7 @@ class OrderServiceTest {
     void testIsComboInStock() {
         Product p = new Product("P1", "d", BigDecimal.TEN);
         Ingredient i = new Ingredient();
+        i.setId(1L);
         i.setStock(10);
 
         ProductIngredient pi = createProductIngredient(p, i, 1);
@@ -384,6 +410,7 @@ class OrderServiceTest {
     void testIsComboInStock_False() {
         Product p = new Product("P1", "d", BigDecimal.TEN);
         Ingredient i = new Ingredient();
+        i.setId(1L);
         i.setStock(0);
 
         ProductIngredient pi = createProductIngredient(p, i, 1);
@@ -413,6 +440,7 @@ class OrderServiceTest {
 
         when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
         assertThrows(IllegalStateException.class, () -> orderService.markReady(1L));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -443,11 +471,7 @@ class OrderServiceTest {
 
     @Test
     void testGetOrdersByUserId_ReturnsOrders() {
-        Order order1 = createValidOrder();
-        Order order2 = createValidOrder();
-        order2.setId(2L);
-
-        when(orderRepository.findByUser_Id(1L)).thenReturn(List.of(order1, order2));
+        when(orderRepository.findSummariesByUserId(1L)).thenReturn(List.of(summary(1L, 1L), summary(2L, 1L)));
 
         List<OrderDTO> result = orderService.getOrdersByUserId(1L);
 
@@ -470,8 +494,6 @@ class OrderServiceTest {
         p.setId(1L);
         when(productRepository.findById(1L)).thenReturn(Optional.of(p));
 
-        when(promotionService.getPromotionsActiveNow()).thenReturn(List.of());
-
         when(orderRepository.save(any(Order.class))).thenAnswer(inv -> {
             Order o = inv.getArgument(0);
             o.setId(99L);
@@ -485,6 +507,92 @@ class OrderServiceTest {
         assertEquals(99L, result.get().id());
         assertEquals(5L, result.get().userId());
         assertEquals(new BigDecimal("200.00"), result.get().totalPrice());
+        verify(eventPublisher).publishEvent(OrderChangedEvent.created(result.get()));
+    }
+
+    @Test
+    void testCreateOrder_ReservesFlattenedComboIngredients() {
+        Ingredient bread = new Ingredient("Bread", "-", 50);
+        bread.setId(100L);
+        Product sandwich = new Product("Sandwich", "-", BigDecimal.TEN);
+        sandwich.setId(1L);
+        sandwich.setProductIngredients(List.of(createProductIngredient(sandwich, bread, 2)));
+
+        Combo combo = new Combo("Lunch", "-", new BigDecimal("30.00"));
+        combo.setId(7L);
+        combo.setComboProducts(List.of(createComboProduct(combo, sandwich, 2)));
+
+        when(comboRepository.findById(7L)).thenReturn(Optional.of(combo));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> {
+            Order o = inv.getArgument(0);
+            o.setId(1L);
+            o.getDetails().forEach(d -> d.setId(1L));
+            return o;
+        });
+
+        orderService.createOrder(new OrderCreateDTO(List.of(new OrderDetailCreateDTO(null, 7L, 3))), null);
+
+        verify(stockLedger).reserve(Map.of(100L, 12));
+    }
+
+    @Test
+    void testCreateOrders_LoadsCatalogOnceAndReportsFailuresPerOrder() {
+        Ingredient cheese = new Ingredient("Cheese", "-", 10);
+        cheese.setId(100L);
+        Product pizza = new Product("Pizza", "-", new BigDecimal("50.00"));
+        pizza.setId(1L);
+        pizza.setProductIngredients(List.of(createProductIngredient(pizza, cheese, 1)));
+        Combo combo = new Combo("Lunch", "-", new BigDecimal("80.00"));
+        combo.setId(7L);
+        combo.setComboProducts(List.of(createComboProduct(combo, pizza, 2)));
+
+        when(productRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(pizza));
+        when(comboRepository.findAllById(Set.of(7L))).thenReturn(List.of(combo));
+        doThrow(new IllegalStateException("Not enough stock for ingredient with id: 100"))
+                .when(stockLedger).reserve(Map.of(100L, 6));
+        when(orderRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Order> orders = inv.getArgument(0);
+            long id = 20L;
+            for (Order o : orders) {
+                o.setId(id++);
+                o.getDetails().forEach(d -> d.setId(1L));
+            }
+            return orders;
+        });
+
+        List<OrderBatchResultDTO> results = orderService.createOrders(List.of(
+                new OrderCreateDTO(List.of(new OrderDetailCreateDTO(1L, null, 2))),
+                new OrderCreateDTO(List.of(new OrderDetailCreateDTO(2L, null, 1))),
+                new OrderCreateDTO(List.of(new OrderDetailCreateDTO(null, 7L, 3))),
+                new OrderCreateDTO(List.of(new OrderDetailCreateDTO(1L, null, 1), new OrderDetailCreateDTO(null, 7L, 1)))
+        ), null);
+
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).succeeded());
+        assertEquals(new BigDecimal("100.00"), results.get(0).order().totalPrice());
+        assertEquals("Product not found with id: 2", results.get(1).error());
+        assertEquals("Not enough stock for ingredient with id: 100", results.get(2).error());
+        assertTrue(results.get(3).succeeded());
+        assertEquals(3, results.get(3).index());
+
+        verify(productRepository, never()).findById(any());
+        verify(comboRepository, never()).findById(any());
+        verify(stockLedger).reserve(Map.of(100L, 2));
+        verify(stockLedger).reserve(Map.of(100L, 3));
+        verify(orderRepository).saveAll(argThat(orders -> ((List<Order>) orders).size() == 2));
+        verify(eventPublisher, times(2)).publishEvent(any(OrderChangedEvent.class));
+    }
+
+    @Test
+    void testCreateOrders_RejectsDetailWithoutItem() {
+        when(orderRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<OrderBatchResultDTO> results = orderService.createOrders(List.of(
+                new OrderCreateDTO(List.of(new OrderDetailCreateDTO(null, null, 1)))
+        ), null);
+
+        assertFalse(results.get(0).succeeded());
+        verify(stockLedger, never()).reserve(any());
     }
 
     @Test
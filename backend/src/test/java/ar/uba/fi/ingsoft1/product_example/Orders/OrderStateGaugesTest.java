@@ -0,0 +1,41 @@
+package ar.uba.fi.ingsoft1.product_example.Orders;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrderStateGaugesTest {
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OrderService orderService = mock(OrderService.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void reportsTheLastCountOfEveryState() {
+        when(orderService.getAllStatuses()).thenReturn(List.of(
+                new OrderStatus(1L, "confirmed"),
+                new OrderStatus(3L, "ready")));
+        OrderStateGauges gauges = new OrderStateGauges(orderRepository, orderService, registry);
+
+        when(orderRepository.countByState()).thenReturn(List.of(
+                new OrderStateCount(1L, 7L),
+                new OrderStateCount(3L, 2L)));
+        gauges.refresh();
+        assertEquals(7, gauge("confirmed"));
+        assertEquals(2, gauge("ready"));
+
+        // A state that no longer has orders drops back to zero instead of keeping its old count
+        when(orderRepository.countByState()).thenReturn(List.of(new OrderStateCount(3L, 4L)));
+        gauges.refresh();
+        assertEquals(0, gauge("confirmed"));
+        assertEquals(4, gauge("ready"));
+    }
+
+    private double gauge(String state) {
+        return registry.get("orders.by.state").tag("state", state).gauge().value();
+    }
+}
@@ -0,0 +1,156 @@
+package ar.uba.fi.ingsoft1.product_example.Orders;
+
+import ar.uba.fi.ingsoft1.product_example.Ingredients.Ingredient;
+import ar.uba.fi.ingsoft1.product_example.Ingredients.IngredientRepository;
+import ar.uba.fi.ingsoft1.product_example.OrderDetails.OrderDetailCreateDTO;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredient;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientId;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientRepository;
+import ar.uba.fi.ingsoft1.product_example.Products.Product;
+import ar.uba.fi.ingsoft1.product_example.Products.ProductRepository;
+import ar.uba.fi.ingsoft1.product_example.Promotions.PromotionService;
+import ar.uba.fi.ingsoft1.product_example.common.ConcurrencyRetry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "spring.sql.init.mode=never",
+        "stock.persistence=atomic"
+})
+class OrderStockConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ORDERS = 400;
+    private static final int PATTY_STOCK = 150;
+    private static final int BUN_STOCK = 260;
+
+    @MockBean
+    private JavaMailSender javaMailSender;
+
+    @MockBean
+    private PromotionService promotionService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private ProductIngredientRepository productIngredientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("MERGE INTO order_status (id, name) KEY (id) VALUES (1, 'confirmed')");
+        when(promotionService.getPromotionsActiveOn(any())).thenReturn(List.of());
+    }
+
+    private ProductIngredient productIngredient(Product product, Ingredient ingredient, int quantity) {
+        ProductIngredient pi = new ProductIngredient();
+        pi.setId(new ProductIngredientId(product.getId(), ingredient.getId()));
+        pi.setProduct(product);
+        pi.setIngredient(ingredient);
+        pi.setQuantity(quantity);
+        return pi;
+    }
+
+    @Test
+    void concurrentOrdersNeverOversellIngredients() throws InterruptedException {
+        Ingredient patty = ingredientRepository.save(new Ingredient("Patty", "-", PATTY_STOCK));
+        Ingredient bun = ingredientRepository.save(new Ingredient("Bun", "-", BUN_STOCK));
+
+        Product burger = productRepository.save(new Product("Burger", "-", new BigDecimal("1000.00")));
+        productIngredientRepository.save(productIngredient(burger, patty, 1));
+        productIngredientRepository.save(productIngredient(burger, bun, 2));
+
+        long ordersBefore = orderRepository.count();
+        OrderCreateDTO dto = new OrderCreateDTO(List.of(new OrderDetailCreateDTO(burger.getId(), null, 1)));
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        for (int i = 0; i < ORDERS; i++) {
+            executor.submit(() -> {
+                start.await();
+                try {
+                    ConcurrencyRetry.run(5, () -> orderService.createOrder(dto, null));
+                    accepted.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        int expectedAccepted = Math.min(PATTY_STOCK, BUN_STOCK / 2);
+        assertEquals(0, failed.get());
+        assertEquals(expectedAccepted, accepted.get());
+        assertEquals(ORDERS - expectedAccepted, rejected.get());
+        assertEquals(ordersBefore + expectedAccepted, orderRepository.count());
+
+        Ingredient pattyAfter = ingredientRepository.findById(patty.getId()).orElseThrow();
+        Ingredient bunAfter = ingredientRepository.findById(bun.getId()).orElseThrow();
+        assertEquals(PATTY_STOCK - expectedAccepted, pattyAfter.getStock());
+        assertEquals(BUN_STOCK - 2 * expectedAccepted, bunAfter.getStock());
+        assertEquals(patty.getVersion(), pattyAfter.getVersion());
+    }
+
+    @Test
+    void shortOrderInBatchDoesNotTakeStockFromItsOtherIngredients() {
+        Ingredient patty = ingredientRepository.save(new Ingredient("Patty", "-", 10));
+        Ingredient cheese = ingredientRepository.save(new Ingredient("Cheese", "-", 1));
+
+        Product burger = productRepository.save(new Product("Burger", "-", new BigDecimal("1000.00")));
+        productIngredientRepository.save(productIngredient(burger, patty, 1));
+        Product cheeseburger = productRepository.save(new Product("Cheeseburger", "-", new BigDecimal("1200.00")));
+        productIngredientRepository.save(productIngredient(cheeseburger, patty, 1));
+        productIngredientRepository.save(productIngredient(cheeseburger, cheese, 1));
+
+        List<OrderBatchResultDTO> results = orderService.createOrders(List.of(
+                new OrderCreateDTO(List.of(new OrderDetailCreateDTO(burger.getId(), null, 2))),
+                new OrderCreateDTO(List.of(new OrderDetailCreateDTO(cheeseburger.getId(), null, 3))),
+                new OrderCreateDTO(List.of(new OrderDetailCreateDTO(cheeseburger.getId(), null, 1)))
+        ), null);
+
+        assertTrue(results.get(0).succeeded());
+        assertFalse(results.get(1).succeeded());
+        assertTrue(results.get(2).succeeded());
+        assertEquals(7, ingredientRepository.findById(patty.getId()).orElseThrow().getStock());
+        assertEquals(0, ingredientRepository.findById(cheese.getId()).orElseThrow().getStock());
+        assertTrue(orderRepository.existsById(results.get(2).order().id()));
+    }
+}
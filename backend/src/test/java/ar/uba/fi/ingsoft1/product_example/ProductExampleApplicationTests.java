@@ -1,11 +1,20 @@
 package ar.uba.fi.ingsoft1.product_example;
 
+import ar.uba.fi.ingsoft1.product_example.config.security.PasswordHasher;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.TestPropertySource;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
@@ -16,9 +25,32 @@ class ProductExampleApplicationTests {
     @MockBean
     private JavaMailSender javaMailSender;
 
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
 	@Test
 	void contextLoads() {
 		assertTrue(true);
 	}
 
+	@Test
+	void everyPasswordIsHashedThroughTheHasherPool() {
+		assertInstanceOf(PasswordHasher.class, passwordEncoder);
+	}
+
+	@Test
+	void everyEntitySequenceHandsOutIdsInBlocksOfFifty() {
+		Map<String, Long> increments = new HashMap<>();
+		jdbcTemplate.query("SELECT SEQUENCE_NAME, INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES",
+				row -> { increments.put(row.getString(1).toLowerCase(), row.getLong(2)); });
+
+		for (String sequence : new String[]{"product_seq", "combo_seq", "ingredient_seq", "tag_seq",
+				"menu_section_seq", "promotion_seq", "users_seq", "orders_seq", "order_details_seq"}) {
+			assertEquals(50L, increments.get(sequence), sequence);
+		}
+	}
+
 }
@@ -0,0 +1,151 @@
+package ar.uba.fi.ingsoft1.product_example.Products;
+
+import ar.uba.fi.ingsoft1.product_example.ComboProduct.ComboProduct;
+import ar.uba.fi.ingsoft1.product_example.ComboProduct.ComboProductId;
+import ar.uba.fi.ingsoft1.product_example.ComboProduct.ComboProductRepository;
+import ar.uba.fi.ingsoft1.product_example.Combos.Combo;
+import ar.uba.fi.ingsoft1.product_example.Combos.ComboRepository;
+import ar.uba.fi.ingsoft1.product_example.Ingredients.Ingredient;
+import ar.uba.fi.ingsoft1.product_example.Ingredients.IngredientRepository;
+import ar.uba.fi.ingsoft1.product_example.Ingredients.StockLedger;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredient;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientId;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientRepository;
+import ar.uba.fi.ingsoft1.product_example.common.CatalogChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({StockLedger.class, AvailabilityIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.sql.init.mode=never"
+})
+class AvailabilityIndexTest {
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductIngredientRepository productIngredientRepository;
+
+    @Autowired
+    private ComboRepository comboRepository;
+
+    @Autowired
+    private ComboProductRepository comboProductRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Product product(String name, Ingredient... ingredients) {
+        Product product = productRepository.save(new Product(name, "-", BigDecimal.TEN));
+        for (Ingredient ingredient : ingredients) {
+            productIngredientRepository.save(new ProductIngredient(
+                    new ProductIngredientId(product.getId(), ingredient.getId()), product, ingredient, 1));
+        }
+        return product;
+    }
+
+    private Combo combo(String name, Product... products) {
+        Combo combo = comboRepository.save(new Combo(name, "-", BigDecimal.TEN));
+        for (Product product : products) {
+            comboProductRepository.save(new ComboProduct(
+                    new ComboProductId(combo.getId(), product.getId()), combo, product, 1));
+        }
+        return combo;
+    }
+
+    @Test
+    void productsAndCombosNeedEveryPartInStock() {
+        Ingredient flour = ingredientRepository.save(new Ingredient("Flour", "-", 5));
+        Ingredient eggs = ingredientRepository.save(new Ingredient("Eggs", "-", 0));
+        Product bread = product("Bread", flour);
+        Product pancake = product("Pancake", flour, eggs);
+        Product empty = product("Empty");
+        Combo breakfast = combo("Breakfast", bread);
+        Combo brunch = combo("Brunch", bread, pancake);
+        availabilityIndex.invalidate();
+
+        assertTrue(availabilityIndex.isProductAvailable(bread.getId()));
+        assertFalse(availabilityIndex.isProductAvailable(pancake.getId()));
+        assertFalse(availabilityIndex.isProductAvailable(empty.getId()));
+        assertTrue(availabilityIndex.isComboAvailable(breakfast.getId()));
+        assertFalse(availabilityIndex.isComboAvailable(brunch.getId()));
+        assertTrue(availabilityIndex.availableProductIds().contains(bread.getId()));
+        assertFalse(availabilityIndex.availableComboIds().contains(brunch.getId()));
+    }
+
+    @Test
+    void runningOutAndRestockingFlipOnlyAffectedEntries() {
+        Ingredient cheese = ingredientRepository.save(new Ingredient("Cheese", "-", 1));
+        Ingredient ham = ingredientRepository.save(new Ingredient("Ham", "-", 3));
+        Product toast = product("Toast", cheese, ham);
+        Product sandwich = product("Sandwich", ham);
+        Combo lunch = combo("Lunch", toast, sandwich);
+        availabilityIndex.invalidate();
+        assertTrue(availabilityIndex.isComboAvailable(lunch.getId()));
+
+        stockLedger.reserve(Map.of(cheese.getId(), 1));
+
+        assertFalse(availabilityIndex.isProductAvailable(toast.getId()));
+        assertTrue(availabilityIndex.isProductAvailable(sandwich.getId()));
+        assertFalse(availabilityIndex.isComboAvailable(lunch.getId()));
+
+        stockLedger.increase(ingredientRepository.findById(cheese.getId()).orElseThrow(), 2);
+
+        assertTrue(availabilityIndex.isProductAvailable(toast.getId()));
+        assertTrue(availabilityIndex.isComboAvailable(lunch.getId()));
+    }
+
+    @Test
+    void rolledBackReservationRestoresAvailability() {
+        Ingredient lettuce = ingredientRepository.save(new Ingredient("Lettuce", "-", 2));
+        Product salad = product("Salad", lettuce);
+        availabilityIndex.invalidate();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            stockLedger.reserve(Map.of(lettuce.getId(), 2));
+            assertFalse(availabilityIndex.isProductAvailable(salad.getId()));
+            status.setRollbackOnly();
+        });
+
+        assertTrue(availabilityIndex.isProductAvailable(salad.getId()));
+    }
+
+    @Test
+    void catalogChangesRebuildTheIndex() {
+        Ingredient tomato = ingredientRepository.save(new Ingredient("Tomato", "-", 4));
+        Product soup = product("Soup");
+        availabilityIndex.invalidate();
+        assertFalse(availabilityIndex.isProductAvailable(soup.getId()));
+
+        productIngredientRepository.save(new ProductIngredient(
+                new ProductIngredientId(soup.getId(), tomato.getId()), soup, tomato, 1));
+        assertFalse(availabilityIndex.isProductAvailable(soup.getId()));
+
+        availabilityIndex.onCatalogChanged(CatalogChangedEvent.of(CatalogChangedEvent.Type.PRODUCT));
+        assertTrue(availabilityIndex.isProductAvailable(soup.getId()));
+    }
+}
@@ -0,0 +1,116 @@
+package ar.uba.fi.ingsoft1.product_example.Products;
+
+import ar.uba.fi.ingsoft1.product_example.ComboProduct.ComboProduct;
+import ar.uba.fi.ingsoft1.product_example.ComboProduct.ComboProductId;
+import ar.uba.fi.ingsoft1.product_example.Combos.Combo;
+import ar.uba.fi.ingsoft1.product_example.Ingredients.Ingredient;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredient;
+import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientId;
+import ar.uba.fi.ingsoft1.product_example.common.CatalogChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BillOfMaterialsCacheTest {
+
+    private final BillOfMaterialsCache cache = new BillOfMaterialsCache();
+
+    private Ingredient ingredient(long id, int stock) {
+        Ingredient ingredient = new Ingredient("I" + id, "-", stock);
+        ingredient.setId(id);
+        return ingredient;
+    }
+
+    private Product product(long id, Ingredient ingredient, int quantity) {
+        Product product = new Product("P" + id, "-", BigDecimal.TEN);
+        product.setId(id);
+        product.getProductIngredients().add(new ProductIngredient(
+                new ProductIngredientId(id, ingredient.getId()), product, ingredient, quantity));
+        return product;
+    }
+
+    @Test
+    void comboBillMergesIngredientsAcrossProducts() {
+        Ingredient bread = ingredient(7L, 10);
+        Ingredient cheese = ingredient(3L, 10);
+        Product sandwich = product(1L, bread, 2);
+        sandwich.getProductIngredients().add(new ProductIngredient(
+                new ProductIngredientId(1L, 3L), sandwich, cheese, 1));
+        Product toast = product(2L, bread, 1);
+
+        Combo combo = new Combo("C", "-", BigDecimal.ONE);
+        combo.setId(5L);
+        combo.setComboProducts(List.of(
+                new ComboProduct(new ComboProductId(5L, 1L), combo, sandwich, 2),
+                new ComboProduct(new ComboProductId(5L, 2L), combo, toast, 3)
+        ));
+
+        BillOfMaterials bill = cache.forCombo(combo);
+
+        assertEquals(2, bill.size());
+        assertEquals(3L, bill.ingredientId(0));
+        assertEquals(2, bill.quantity(0));
+        assertEquals(7L, bill.ingredientId(1));
+        assertEquals(7, bill.quantity(1));
+
+        Map<Long, Integer> required = new HashMap<>();
+        bill.addTo(required, 2);
+        assertEquals(Map.of(3L, 4, 7L, 14), required);
+    }
+
+    @Test
+    void allInStockRequiresOneUnitOfEveryIngredient() {
+        Product product = product(1L, ingredient(1L, 0), 1);
+        BillOfMaterials bill = cache.forProduct(product);
+
+        assertFalse(bill.allInStock(id -> 0));
+        assertTrue(bill.allInStock(id -> 1));
+        assertTrue(BillOfMaterials.EMPTY.allInStock(id -> 0));
+    }
+
+    @Test
+    void billIsReusedUntilCompositionChanges() {
+        Product product = product(1L, ingredient(1L, 5), 1);
+        BillOfMaterials first = cache.forProduct(product, cache.generation());
+
+        product.getProductIngredients().clear();
+        assertSame(first, cache.forProduct(product, cache.generation()));
+
+        cache.onCatalogChanged(CatalogChangedEvent.of(CatalogChangedEvent.Type.TAG));
+        assertSame(first, cache.forProduct(product, cache.generation()));
+
+        cache.onCatalogChanged(CatalogChangedEvent.of(CatalogChangedEvent.Type.PRODUCT));
+        assertTrue(cache.forProduct(product, cache.generation()).isEmpty());
+    }
+
+    @Test
+    void billFromEntityLoadedBeforeAnInvalidationIsNotKept() {
+        long loadedAt = cache.generation();
+        Product stale = product(1L, ingredient(1L, 5), 1);
+
+        // The admin edit commits and invalidates after the order loaded the product but before
+        // the order looks its bill up
+        cache.onCatalogChanged(CatalogChangedEvent.of(CatalogChangedEvent.Type.PRODUCT));
+        assertEquals(1, cache.forProduct(stale, loadedAt).size());
+
+        Product fresh = product(1L, ingredient(2L, 5), 3);
+        BillOfMaterials bill = cache.forProduct(fresh, cache.generation());
+        assertEquals(2L, bill.ingredientId(0));
+        assertEquals(3, bill.quantity(0));
+    }
+
+    @Test
+    void billOfEntityWithUnknownLoadTimeIsNotStored() {
+        Product stale = product(1L, ingredient(1L, 5), 1);
+        cache.forProduct(stale);
+
+        Product fresh = product(1L, ingredient(2L, 5), 1);
+        assertEquals(2L, cache.forProduct(fresh, cache.generation()).ingredientId(0));
+        assertSame(cache.forProduct(fresh, cache.generation()), cache.forProduct(stale));
+    }
+}
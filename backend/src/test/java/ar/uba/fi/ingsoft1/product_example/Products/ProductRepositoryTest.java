@@ -5,6 +5,7 @@ import ar.uba.fi.ingsoft1.product_example.Ingredients.IngredientRepository;
 import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredient;
 import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientId;
 import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientRepository;
+import ar.uba.fi.ingsoft1.product_example.common.StoredImage;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
@@ -75,4 +76,37 @@ class ProductRepositoryTest {
         assertEquals(1, result.size());
         assertEquals("Cake", result.get(0).getName());
     }
+
+    @Test
+    void findImageById_returnsBytesAndHash() {
+        Product withImage = new Product();
+        withImage.setName("Burger");
+        withImage.setImage(new byte[]{1, 2, 3});
+        productRepository.save(withImage);
+
+        Product withoutImage = new Product();
+        withoutImage.setName("Salad");
+        productRepository.save(withoutImage);
+
+        StoredImage image = productRepository.findImageById(withImage.getId()).orElseThrow();
+
+        assertArrayEquals(new byte[]{1, 2, 3}, image.bytes());
+        assertEquals(withImage.getImageHash(), image.hash());
+        assertTrue(productRepository.findImageById(withoutImage.getId()).isEmpty());
+    }
+
+    @Test
+    void imageHashBackfill_findsAndFixesRowsStoredWithoutHash() {
+        Product legacy = new Product();
+        legacy.setName("Legacy");
+        legacy.setImage(new byte[]{4, 5, 6});
+        productRepository.save(legacy);
+        productRepository.setImageHash(legacy.getId(), null);
+
+        assertEquals(List.of(legacy.getId()), productRepository.findIdsWithoutImageHash());
+
+        productRepository.setImageHash(legacy.getId(), StoredImage.hashOf(new byte[]{4, 5, 6}));
+
+        assertTrue(productRepository.findIdsWithoutImageHash().isEmpty());
+    }
 }
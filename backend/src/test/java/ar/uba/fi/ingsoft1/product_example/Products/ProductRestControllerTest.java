@@ -1,7 +1,9 @@
 package ar.uba.fi.ingsoft1.product_example.Products;
 
+import ar.uba.fi.ingsoft1.product_example.common.StoredImage;
 import ar.uba.fi.ingsoft1.product_example.config.security.JwtService;
 import ar.uba.fi.ingsoft1.product_example.config.security.SecurityConfig;
+import ar.uba.fi.ingsoft1.product_example.config.security.UserPrincipalCache;
 import ar.uba.fi.ingsoft1.product_example.user.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -38,6 +41,9 @@ class ProductRestControllerTest {
     @MockBean
     private JwtService jwtService;
 
+    @MockBean
+    private UserPrincipalCache userPrincipalCache;
+
     @MockBean
     private UserRepository userRepository;
 
@@ -48,7 +54,7 @@ class ProductRestControllerTest {
 
     @BeforeEach
     void setUp() {
-        productDTO = new ProductDTO(1L, "Pizza", "Delicious pizza", new BigDecimal("500.00"), Map.of(), List.of(), Map.of(), new byte[5 * 1024], true);
+        productDTO = new ProductDTO(1L, "Pizza", "Delicious pizza", new BigDecimal("500.00"), Map.of(), List.of(), Map.of(), "/products/1/image?v=abc", true);
     }
 
     @Test
@@ -174,7 +180,7 @@ class ProductRestControllerTest {
 
         ProductDTO updatedDTO = new ProductDTO(
                 1L, "Pizza Updated", "Updated Description", new BigDecimal("550.00"),
-                Map.of(), List.of(), Map.of(), new byte[5 * 1024], true
+                Map.of(), List.of(), Map.of(), "/products/1/image?v=abc", true
         );
 
         Mockito.when(productService.updateProduct(Mockito.eq(1L), any(), any()))
@@ -210,4 +216,44 @@ class ProductRestControllerTest {
         mockMvc.perform(delete("/products/999"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void getProductImage_withCurrentVersion_isPublicAndImmutable() throws Exception {
+        StoredImage image = new StoredImage(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 1}, null);
+        Mockito.when(productService.getProductImage(1L)).thenReturn(Optional.of(image));
+
+        mockMvc.perform(get("/products/1/image").param("v", image.hash()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+                .andExpect(content().bytes(image.bytes()))
+                .andExpect(header().string("ETag", "\"" + image.hash() + "\""))
+                .andExpect(header().string("Cache-Control", containsString("immutable")));
+    }
+
+    @Test
+    void getProductImage_withStaleVersion_mustRevalidate() throws Exception {
+        StoredImage image = new StoredImage(new byte[]{1, 2, 3}, null);
+        Mockito.when(productService.getProductImage(1L)).thenReturn(Optional.of(image));
+
+        mockMvc.perform(get("/products/1/image").param("v", "old"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", containsString("no-cache")));
+    }
+
+    @Test
+    void getProductImage_matchingETag_returnsNotModified() throws Exception {
+        StoredImage image = new StoredImage(new byte[]{1, 2, 3}, null);
+        Mockito.when(productService.getProductImage(1L)).thenReturn(Optional.of(image));
+
+        mockMvc.perform(get("/products/1/image").header("If-None-Match", "\"" + image.hash() + "\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getProductImage_notFound() throws Exception {
+        Mockito.when(productService.getProductImage(999L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/products/999/image"))
+                .andExpect(status().isNotFound());
+    }
 }
@@ -10,6 +10,7 @@ import ar.uba.fi.ingsoft1.product_example.ProductIngredient.ProductIngredientRep
 import ar.uba.fi.ingsoft1.product_example.MenuSections.MenuSectionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -40,6 +41,12 @@ class ProductServiceTest {
     @Mock
     private MenuSectionRepository menuSectionRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
     @InjectMocks
     private ProductService productService;
 
@@ -68,10 +75,13 @@ class ProductServiceTest {
 
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
 
+        when(availabilityIndex.isProductAvailable(1L)).thenReturn(true);
+
         Optional<ProductDTO> result = productService.getProductById(1L);
 
         assertTrue(result.isPresent());
         assertEquals("Product 1", result.get().name());
+        assertTrue(result.get().available());
     }
 
     @Test
@@ -303,7 +313,8 @@ class ProductServiceTest {
         product.setProductIngredients(List.of()); // No se testean acá los ingredientes
         product.setTags(List.of());
 
-        when(productRepository.findProductsWithAllIngredientsInStock())
+        when(availabilityIndex.availableProductIds()).thenReturn(List.of(1L));
+        when(productRepository.findAllById(List.of(1L)))
                 .thenReturn(List.of(product));
 
         // Act
@@ -314,12 +325,12 @@ class ProductServiceTest {
         assertEquals("Hamburguesa", result.get(0).name());
         assertEquals("Con queso y panceta", result.get(0).description());
         assertEquals(new BigDecimal("1500.00"), result.get(0).price());
+        assertTrue(result.get(0).available());
     }
 
     @Test
     void testGetProductsAvailable_EmptyResult() {
-        when(productRepository.findProductsWithAllIngredientsInStock())
-                .thenReturn(List.of());
+        when(availabilityIndex.availableProductIds()).thenReturn(List.of());
 
         List<ProductDTO> result = productService.getProductsAvailable();
 
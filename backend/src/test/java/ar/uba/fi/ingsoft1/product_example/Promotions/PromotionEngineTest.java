@@ -0,0 +1,191 @@
+package ar.uba.fi.ingsoft1.product_example.Promotions;
+
+import ar.uba.fi.ingsoft1.product_example.Combos.Combo;
+import ar.uba.fi.ingsoft1.product_example.OrderDetails.OrderDetail;
+import ar.uba.fi.ingsoft1.product_example.Orders.Order;
+import ar.uba.fi.ingsoft1.product_example.Orders.OrderStatus;
+import ar.uba.fi.ingsoft1.product_example.Products.Product;
+import ar.uba.fi.ingsoft1.product_example.common.CatalogChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PromotionEngineTest {
+
+    @Mock
+    private PromotionService promotionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-06-02T12:00:00Z"));
+
+    private PromotionEngine engine;
+
+    private final Product burger = product(1L, "Burger", "12.00");
+    private final Product fries = product(2L, "Fries", "5.00");
+    private final Combo lunch = combo(5L, "Lunch", "20.00");
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        engine = new PromotionEngine(promotionService, transactionManager, clock);
+    }
+
+    @Test
+    void apply_MatchesSequentialApplicationOfEveryPromotion() {
+        PercentageDiscountPromotion percentage = new PercentageDiscountPromotion(new BigDecimal("10"));
+        percentage.setProducts(Set.of(burger));
+        percentage.setCombos(Set.of(lunch));
+
+        BuyXPayYPromotion threeForTwo = new BuyXPayYPromotion();
+        threeForTwo.setBuyQuantity(3);
+        threeForTwo.setPayQuantity(2);
+        threeForTwo.setProducts(Set.of(burger, fries));
+
+        BuyGiveFreePromotion friesWithBurger = new BuyGiveFreePromotion();
+        friesWithBurger.setProducts(Set.of(burger));
+        friesWithBurger.setFreeProducts(Set.of(fries));
+        friesWithBurger.setOneFreePerTrigger(true);
+
+        ThresholdDiscountPromotion threshold =
+                new ThresholdDiscountPromotion(new BigDecimal("50.00"), new BigDecimal("7.00"));
+
+        List<Promotion> promotions = List.of(percentage, threeForTwo, friesWithBurger, threshold);
+        when(promotionService.getPromotionsActiveOn(today())).thenReturn(promotions);
+
+        Order expected = sampleOrder();
+        promotions.forEach(p -> p.apply(expected));
+        expected.calculateTotal();
+
+        Order actual = sampleOrder();
+        engine.apply(actual);
+        actual.calculateTotal();
+
+        for (int i = 0; i < expected.getDetails().size(); i++) {
+            assertEquals(expected.getDetails().get(i).getDiscount(), actual.getDetails().get(i).getDiscount());
+            assertEquals(expected.getDetails().get(i).getTotalPrice(), actual.getDetails().get(i).getTotalPrice());
+        }
+        assertEquals(expected.getDiscount(), actual.getDiscount());
+        assertEquals(expected.getTotalPrice(), actual.getTotalPrice());
+        assertNotEquals(0, actual.getDiscount().signum());
+    }
+
+    @Test
+    void apply_ReusesCompiledIndexUntilPromotionsChange() {
+        when(promotionService.getPromotionsActiveOn(any())).thenReturn(List.of());
+
+        engine.apply(sampleOrder());
+        engine.apply(sampleOrder());
+        verify(promotionService, times(1)).getPromotionsActiveOn(any());
+
+        engine.onCatalogChanged(CatalogChangedEvent.of(CatalogChangedEvent.Type.PRODUCT));
+        engine.apply(sampleOrder());
+        verify(promotionService, times(1)).getPromotionsActiveOn(any());
+
+        engine.onCatalogChanged(CatalogChangedEvent.of(CatalogChangedEvent.Type.PROMOTION));
+        engine.apply(sampleOrder());
+        verify(promotionService, times(2)).getPromotionsActiveOn(any());
+    }
+
+    @Test
+    void apply_RecompilesForTheNewDay() {
+        DayOfWeek monday = today();
+        PercentageDiscountPromotion mondayOnly = new PercentageDiscountPromotion(new BigDecimal("50"));
+        mondayOnly.setProducts(Set.of(burger));
+        when(promotionService.getPromotionsActiveOn(monday)).thenReturn(List.of(mondayOnly));
+        when(promotionService.getPromotionsActiveOn(monday.plus(1))).thenReturn(List.of());
+
+        Order first = sampleOrder();
+        engine.apply(first);
+        assertNotEquals(0, first.getDetails().get(0).getDiscount().signum());
+
+        clock.advanceDays(1);
+
+        Order second = sampleOrder();
+        engine.apply(second);
+        assertEquals(0, second.getDetails().get(0).getDiscount().signum());
+    }
+
+    private DayOfWeek today() {
+        return LocalDate.now(clock).getDayOfWeek();
+    }
+
+    private Order sampleOrder() {
+        Order order = new Order();
+        order.setCreationDate(LocalDateTime.now());
+        order.setState(new OrderStatus(1L, "confirmed"));
+        order.setDetails(new ArrayList<>());
+        order.addDetail(detail(burger, null, 4, "12.00"));
+        order.addDetail(detail(fries, null, 3, "5.00"));
+        order.addDetail(detail(null, lunch, 1, "20.00"));
+        order.calculateTotal();
+        return order;
+    }
+
+    private OrderDetail detail(Product product, Combo combo, int quantity, String price) {
+        OrderDetail detail = new OrderDetail(quantity, new BigDecimal(price), BigDecimal.ZERO, BigDecimal.ZERO);
+        detail.setProduct(product);
+        detail.setCombo(combo);
+        detail.calculateTotal();
+        return detail;
+    }
+
+    private static Product product(Long id, String name, String price) {
+        Product product = new Product(name, "desc", new BigDecimal(price));
+        product.setId(id);
+        return product;
+    }
+
+    private static Combo combo(Long id, String name, String price) {
+        Combo combo = new Combo(name, "desc", new BigDecimal(price));
+        combo.setId(id);
+        return combo;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advanceDays(long days) {
+            instant = instant.plusSeconds(days * 86_400);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -2,14 +2,17 @@ package ar.uba.fi.ingsoft1.product_example.Promotions;
 
 import ar.uba.fi.ingsoft1.product_example.Combos.Combo;
 import ar.uba.fi.ingsoft1.product_example.Combos.ComboRepository;
+import ar.uba.fi.ingsoft1.product_example.Products.AvailabilityIndex;
 import ar.uba.fi.ingsoft1.product_example.Products.Product;
 import ar.uba.fi.ingsoft1.product_example.Products.ProductRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import org.mockito.*;
 
 import java.math.BigDecimal;
+import java.time.DayOfWeek;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,6 +30,12 @@ class PromotionServiceTest {
     @Mock
     private ComboRepository comboRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
     @InjectMocks
     private PromotionService promotionService;
 
@@ -184,6 +193,25 @@ class PromotionServiceTest {
         verify(promotionRepository).findActivePromotions(any());
     }
 
+    @Test
+    void testGetPromotionsActiveOn_CachedPerDayUntilPromotionsChange() {
+        PercentageDiscountPromotion promo = createPercentagePromotion();
+        when(promotionRepository.findActivePromotions(any()))
+                .thenReturn(List.of(promo));
+        when(promotionRepository.existsById(1L)).thenReturn(true);
+
+        promotionService.getPromotionsActiveOn(DayOfWeek.MONDAY);
+        promotionService.getPromotionsActiveOn(DayOfWeek.MONDAY);
+        verify(promotionRepository, times(1)).findActivePromotions(DayOfWeek.MONDAY);
+
+        promotionService.getPromotionsActiveOn(DayOfWeek.TUESDAY);
+        verify(promotionRepository, times(1)).findActivePromotions(DayOfWeek.TUESDAY);
+
+        promotionService.deletePromotion(1L);
+        promotionService.getPromotionsActiveOn(DayOfWeek.MONDAY);
+        verify(promotionRepository, times(2)).findActivePromotions(DayOfWeek.MONDAY);
+    }
+
     private BuyXPayYPromotion createBuyXPayYPromotion() {
         BuyXPayYPromotion p = new BuyXPayYPromotion();
         p.setId(1L);
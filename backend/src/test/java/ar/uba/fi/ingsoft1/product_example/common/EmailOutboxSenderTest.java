@@ -0,0 +1,185 @@
+package ar.uba.fi.ingsoft1.product_example.common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(EmailService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.sql.init.mode=never"
+})
+class EmailOutboxSenderTest {
+
+    private static final long BACKOFF_MS = 1000L;
+    private static final long RETENTION_MS = 60_000L;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private OutboundEmailRepository outbox;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private LocalSmtpServer smtp;
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        outbox.deleteAll();
+        smtp = new LocalSmtpServer();
+        clock = new MutableClock();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        smtp.close();
+    }
+
+    private EmailOutboxSender senderFor(int port) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(port);
+        mailSender.getJavaMailProperties().put("mail.smtp.from", "comedor@fi.uba.ar");
+        return new EmailOutboxSender(outbox, mailSender, transactionManager, 10, 2, BACKOFF_MS, RETENTION_MS, 2, clock);
+    }
+
+    private OutboundEmail stored(String recipient) {
+        return outbox.findAll().stream()
+                .filter(email -> email.getRecipient().equals(recipient))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void deliversQueuedEmailsInOneBatchOverOneConnection() {
+        emailService.sendVerificationEmail("a@fi.uba.ar", "111111");
+        emailService.sendPasswordResetEmail("b@fi.uba.ar", "222222");
+        emailService.sendAccountLockedEmail("c@fi.uba.ar", "333333");
+
+        int delivered = senderFor(smtp.port()).drain();
+
+        assertEquals(3, delivered);
+        assertEquals(3, smtp.messages().size());
+        assertEquals(1, smtp.connections());
+        assertEquals(List.of("a@fi.uba.ar"), smtp.messages().get(0).recipients());
+        assertTrue(smtp.messages().get(0).data().contains("111111"));
+        assertEquals(3, outbox.countByStatus(OutboundEmail.Status.SENT));
+    }
+
+    @Test
+    void rejectedEmailIsRetriedWithBackoffAndThenDeadLettered() {
+        smtp.rejectRecipient("nobody@fi.uba.ar");
+        emailService.sendVerificationEmail("someone@fi.uba.ar", "111111");
+        emailService.sendVerificationEmail("nobody@fi.uba.ar", "222222");
+        EmailOutboxSender sender = senderFor(smtp.port());
+
+        assertEquals(1, sender.drain());
+        OutboundEmail rejected = stored("nobody@fi.uba.ar");
+        assertEquals(OutboundEmail.Status.PENDING, rejected.getStatus());
+        assertEquals(1, rejected.getAttempts());
+        assertEquals(clock.instant().plusMillis(BACKOFF_MS), rejected.getNextAttemptAt());
+        assertNotNull(rejected.getLastError());
+
+        assertEquals(0, sender.drain());
+        assertEquals(1, stored("nobody@fi.uba.ar").getAttempts());
+
+        clock.advance(Duration.ofMillis(BACKOFF_MS));
+        assertEquals(0, sender.drain());
+        assertEquals(OutboundEmail.Status.DEAD, stored("nobody@fi.uba.ar").getStatus());
+        assertEquals(OutboundEmail.Status.SENT, stored("someone@fi.uba.ar").getStatus());
+        assertEquals(1, smtp.messages().size());
+    }
+
+    @Test
+    void sentEmailsArePurgedOnceRetentionHasPassed() {
+        emailService.sendVerificationEmail("a@fi.uba.ar", "111111");
+        emailService.sendVerificationEmail("b@fi.uba.ar", "222222");
+        emailService.sendVerificationEmail("c@fi.uba.ar", "333333");
+        EmailOutboxSender sender = senderFor(smtp.port());
+        assertEquals(3, sender.drain());
+        emailService.sendVerificationEmail("d@fi.uba.ar", "444444");
+
+        clock.advance(Duration.ofMillis(RETENTION_MS - 1));
+        assertEquals(0, sender.sweepSent());
+
+        clock.advance(Duration.ofMillis(1));
+        assertEquals(3, sender.sweepSent());
+        assertEquals(0, outbox.countByStatus(OutboundEmail.Status.SENT));
+        assertEquals(OutboundEmail.Status.PENDING, stored("d@fi.uba.ar").getStatus());
+    }
+
+    @Test
+    void unreachableServerLeavesEverythingQueued() throws IOException {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        emailService.sendVerificationEmail("a@fi.uba.ar", "111111");
+        emailService.sendVerificationEmail("b@fi.uba.ar", "222222");
+
+        assertEquals(0, senderFor(closedPort).drain());
+
+        assertEquals(2, outbox.countByStatus(OutboundEmail.Status.PENDING));
+        assertEquals(1, stored("a@fi.uba.ar").getAttempts());
+    }
+
+    @Test
+    void slowRelayDoesNotDelayTheCaller() {
+        smtp.setLatencyPerMessage(Duration.ofMillis(300));
+
+        long start = System.nanoTime();
+        emailService.sendPasswordResetEmail("a@fi.uba.ar", "111111");
+        long enqueueMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(enqueueMillis < 300, "enqueue took " + enqueueMillis + " ms");
+        assertEquals(1, senderFor(smtp.port()).drain());
+    }
+
+    private static final class MutableClock extends Clock {
+        // Just ahead of the wall clock, so that freshly queued emails are already due.
+        private Instant now = Instant.now().plusSeconds(1).truncatedTo(ChronoUnit.MILLIS);
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,12 +1,8 @@
 package ar.uba.fi.ingsoft1.product_example.common;
 
-import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
-import org.springframework.mail.MailSendException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
@@ -14,7 +10,7 @@ import static org.mockito.Mockito.*;
 class EmailServiceTest {
 
     @Mock
-    private JavaMailSender mailSender;
+    private OutboundEmailRepository outbox;
 
     @InjectMocks
     private EmailService emailService;
@@ -29,16 +25,16 @@ class EmailServiceTest {
         String to = "user@test.com";
         String code = "123456";
 
-        ArgumentCaptor<SimpleMailMessage> captor = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        ArgumentCaptor<OutboundEmail> captor = ArgumentCaptor.forClass(OutboundEmail.class);
 
         emailService.sendVerificationEmail(to, code);
 
-        verify(mailSender, times(1)).send(captor.capture());
-        SimpleMailMessage msg = captor.getValue();
+        verify(outbox, times(1)).save(captor.capture());
+        OutboundEmail msg = captor.getValue();
 
-        assertEquals(to, msg.getTo()[0]);
+        assertEquals(to, msg.getRecipient());
         assertEquals("Email verification", msg.getSubject());
-        assertEquals("Your verification code is: " + code, msg.getText());
+        assertEquals("Your verification code is: " + code, msg.getBody());
     }
 
     @Test
@@ -46,16 +42,16 @@ class EmailServiceTest {
         String to = "reset@test.com";
         String code = "987654";
 
-        ArgumentCaptor<SimpleMailMessage> captor = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        ArgumentCaptor<OutboundEmail> captor = ArgumentCaptor.forClass(OutboundEmail.class);
 
         emailService.sendPasswordResetEmail(to, code);
 
-        verify(mailSender, times(1)).send(captor.capture());
-        SimpleMailMessage msg = captor.getValue();
+        verify(outbox, times(1)).save(captor.capture());
+        OutboundEmail msg = captor.getValue();
 
-        assertEquals(to, msg.getTo()[0]);
+        assertEquals(to, msg.getRecipient());
         assertEquals("Password recovery", msg.getSubject());
-        assert msg.getText().contains(code);
+        assert msg.getBody().contains(code);
     }
 
     @Test
@@ -63,40 +59,30 @@ class EmailServiceTest {
         String to = "locked@test.com";
         String code = "LOCKED-1";
 
-        ArgumentCaptor<SimpleMailMessage> captor = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        ArgumentCaptor<OutboundEmail> captor = ArgumentCaptor.forClass(OutboundEmail.class);
 
         emailService.sendAccountLockedEmail(to, code);
 
-        verify(mailSender, times(1)).send(captor.capture());
-        SimpleMailMessage msg = captor.getValue();
+        verify(outbox, times(1)).save(captor.capture());
+        OutboundEmail msg = captor.getValue();
 
-        assertEquals(to, msg.getTo()[0]);
+        assertEquals(to, msg.getRecipient());
         assertEquals("Your account has been blocked [FIUBA Dining Hall]", msg.getSubject());
-        assert msg.getText().contains(code);
-        assert msg.getText().contains("temporarily blocked");
+        assert msg.getBody().contains(code);
+        assert msg.getBody().contains("temporarily blocked");
     }
 
     @Test
-    void testSendVerificationEmail_WhenMailServerFails_ThrowsException() {
-        String to = "user@test.com";
-        String code = "123456";
+    void testQueuedEmailIsPendingAndDueImmediately() {
+        ArgumentCaptor<OutboundEmail> captor = ArgumentCaptor.forClass(OutboundEmail.class);
 
-        doThrow(new MailSendException("Connection failed"))
-                .when(mailSender).send(any(SimpleMailMessage.class));
-
-        Assertions.assertThrows(MailSendException.class, () ->
-                emailService.sendVerificationEmail(to, code));
-    }
-
-    @Test
-    void testSendPasswordResetEmail_WhenMailServerFails_ThrowsException() {
-        String to = "reset@test.com";
-        String code = "999999";
+        emailService.sendVerificationEmail("user@test.com", "123456");
 
-        doThrow(new MailSendException("Connection failed"))
-                .when(mailSender).send(any(SimpleMailMessage.class));
+        verify(outbox, times(1)).save(captor.capture());
+        OutboundEmail email = captor.getValue();
 
-        Assertions.assertThrows(MailSendException.class, () ->
-                emailService.sendPasswordResetEmail(to, code));
+        assertEquals(OutboundEmail.Status.PENDING, email.getStatus());
+        assertEquals(0, email.getAttempts());
+        assertEquals(email.getCreatedAt(), email.getNextAttemptAt());
     }
 }
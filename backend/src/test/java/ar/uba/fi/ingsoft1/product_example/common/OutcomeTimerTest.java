@@ -0,0 +1,35 @@
+package ar.uba.fi.ingsoft1.product_example.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutcomeTimerTest {
+
+    @Test
+    void recordsEachOutcomeUnderItsOwnTag() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        OutcomeTimer timer = OutcomeTimer.of("orders.create", "-", registry);
+
+        timer.stop(timer.start(), "created");
+        timer.stop(timer.start(), "created");
+        timer.stop(timer.start(), "rejected");
+
+        assertEquals(2, registry.get("orders.create").tag("outcome", "created").timer().count());
+        assertEquals(1, registry.get("orders.create").tag("outcome", "rejected").timer().count());
+        assertEquals(2, registry.get("orders.create").timers().size());
+    }
+
+    @Test
+    void publishesHistogramBucketsToPrometheus() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        OutcomeTimer timer = OutcomeTimer.of("menu.sections.load", "-", registry);
+
+        timer.stop(timer.start(), "loaded");
+
+        assertTrue(registry.scrape().contains("menu_sections_load_seconds_bucket{outcome=\"loaded\""));
+    }
+}
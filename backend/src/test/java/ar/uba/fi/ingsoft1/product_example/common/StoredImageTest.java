@@ -0,0 +1,48 @@
+package ar.uba.fi.ingsoft1.product_example.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StoredImageTest {
+
+    @Test
+    void hashIsStableAndChangesWithContent() {
+        String hash = StoredImage.hashOf(new byte[]{1, 2, 3});
+
+        assertEquals(32, hash.length());
+        assertEquals(hash, StoredImage.hashOf(new byte[]{1, 2, 3}));
+        assertNotEquals(hash, StoredImage.hashOf(new byte[]{1, 2, 4}));
+        assertNull(StoredImage.hashOf(null));
+    }
+
+    @Test
+    void urlContainsContentHash() {
+        assertEquals("/products/7/image?v=abc", StoredImage.url("products", 7L, "abc"));
+        assertNull(StoredImage.url("products", 7L, null));
+    }
+
+    @Test
+    void detectsMediaTypeFromMagicBytes() {
+        assertEquals(MediaType.IMAGE_PNG, new StoredImage(new byte[]{(byte) 0x89, 'P', 'N', 'G', 0}, null).mediaType());
+        assertEquals(MediaType.IMAGE_GIF, new StoredImage("GIF89a".getBytes(StandardCharsets.US_ASCII), null).mediaType());
+        assertEquals("image/webp", new StoredImage("RIFF0000WEBPVP8".getBytes(StandardCharsets.US_ASCII), null).mediaType().toString());
+        assertEquals(MediaType.IMAGE_JPEG, new StoredImage(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}, null).mediaType());
+    }
+
+    @Test
+    void onlyCurrentVersionIsImmutable() {
+        StoredImage image = new StoredImage(new byte[]{1, 2, 3}, null);
+
+        ResponseEntity<byte[]> current = image.toResponse(image.hash());
+        ResponseEntity<byte[]> stale = image.toResponse("other");
+
+        assertTrue(current.getHeaders().getCacheControl().contains("immutable"));
+        assertTrue(stale.getHeaders().getCacheControl().contains("no-cache"));
+        assertEquals("\"" + image.hash() + "\"", current.getHeaders().getETag());
+    }
+}
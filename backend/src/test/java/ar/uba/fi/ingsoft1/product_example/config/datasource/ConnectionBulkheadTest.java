@@ -0,0 +1,64 @@
+package ar.uba.fi.ingsoft1.product_example.config.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionBulkheadTest {
+
+    private final DataSource pool = mock(DataSource.class);
+
+    @Test
+    void admitsUpToTheLimitAndReleasesOnClose() throws SQLException {
+        Connection pooled = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(pooled);
+        ConnectionBulkhead bulkhead = new ConnectionBulkhead(pool, 2, 20);
+
+        Connection first = bulkhead.getConnection();
+        Connection second = bulkhead.getConnection();
+        assertEquals(2, bulkhead.inUse());
+        assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+
+        first.close();
+        first.close();
+        assertEquals(1, bulkhead.inUse());
+        verify(pooled, times(1)).close();
+
+        Connection third = bulkhead.getConnection();
+        assertEquals(2, bulkhead.inUse());
+        second.close();
+        third.close();
+        assertEquals(0, bulkhead.inUse());
+    }
+
+    @Test
+    void delegatesStatementsAndKeepsIdentity() throws SQLException {
+        Connection pooled = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(pooled);
+        when(pooled.getAutoCommit()).thenReturn(true);
+        ConnectionBulkhead bulkhead = new ConnectionBulkhead(pool, 1, 20);
+
+        Connection connection = bulkhead.getConnection();
+
+        assertTrue(connection.getAutoCommit());
+        assertEquals(connection, connection);
+        assertNotEquals(connection, pooled);
+        connection.close();
+    }
+
+    @Test
+    void poolFailureGivesThePermitBack() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLException("down"));
+        ConnectionBulkhead bulkhead = new ConnectionBulkhead(pool, 1, 20);
+
+        assertThrows(SQLException.class, bulkhead::getConnection);
+        assertThrows(SQLException.class, bulkhead::getConnection);
+        assertEquals(0, bulkhead.inUse());
+    }
+}
@@ -0,0 +1,182 @@
+package ar.uba.fi.ingsoft1.product_example.config.datasource;
+
+import ar.uba.fi.ingsoft1.product_example.Ingredients.Ingredient;
+import ar.uba.fi.ingsoft1.product_example.Ingredients.IngredientRepository;
+import ar.uba.fi.ingsoft1.product_example.Ingredients.StockLedger;
+import ar.uba.fi.ingsoft1.product_example.common.CatalogChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "datasource.replica.lag-query=SELECT lag FROM replica_lag",
+        "datasource.replica.max-lag-ms=1000",
+        "datasource.replica.lag-check-interval-ms=3600000"
+})
+class ReplicaRoutingTest {
+
+    @MockBean
+    private JavaMailSender javaMailSender;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("CREATE TABLE IF NOT EXISTS replica_lag (lag BIGINT)");
+        setReplicaLag(0);
+    }
+
+    private void setReplicaLag(long millis) {
+        replica.update("DELETE FROM replica_lag");
+        replica.update("INSERT INTO replica_lag (lag) VALUES (?)", millis);
+        lagMonitor.check();
+    }
+
+    private String database(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertEquals("REPLICA", database(true));
+        assertEquals("PRIMARY", database(false));
+        assertEquals("PRIMARY", jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        setReplicaLag(5_000);
+        assertEquals("PRIMARY", database(true));
+        assertEquals(5_000, lagMonitor.lagMillis());
+
+        setReplicaLag(200);
+        assertEquals("REPLICA", database(true));
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToPrimary() {
+        replica.execute("DROP TABLE replica_lag");
+        lagMonitor.check();
+
+        assertEquals(-1, lagMonitor.lagMillis());
+        assertEquals("PRIMARY", database(true));
+    }
+
+    @Test
+    void catalogChangesStayOnPrimaryUntilTheReplicaCatchesUp() {
+        eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogChangedEvent.Type.PRODUCT));
+        assertEquals("PRIMARY", database(true));
+
+        lagMonitor.check();
+        assertEquals("REPLICA", database(true));
+    }
+
+    @Test
+    void stockMovementsKeepReadsOnTheReplica() {
+        Ingredient bread = ingredientRepository.save(new Ingredient("Bread", "-", 3));
+        setReplicaLag(200);
+
+        stockLedger.reserve(Map.of(bread.getId(), 1));
+        stockLedger.flush();
+        assertEquals("REPLICA", database(true));
+
+        // Running out is reported as well, but is still not a catalog change
+        stockLedger.reserve(Map.of(bread.getId(), 2));
+        stockLedger.flush();
+        stockLedger.increase(bread, 5);
+        stockLedger.flush();
+        assertEquals("REPLICA", database(true));
+    }
+
+    @Nested
+    @TestPropertySource(properties = "stock.persistence=atomic")
+    class AtomicStock {
+
+        @Autowired
+        private ReplicaLagMonitor atomicLagMonitor;
+
+        @Autowired
+        private PlatformTransactionManager atomicTransactionManager;
+
+        @Autowired
+        private StockLedger atomicLedger;
+
+        @Autowired
+        private IngredientRepository atomicIngredients;
+
+        @BeforeEach
+        void setUp() {
+            // A replica that got the ingredient before the stock moved and has not caught up since
+            replica.execute("CREATE TABLE ingredient "
+                    + "(id BIGINT PRIMARY KEY, name VARCHAR(255), description VARCHAR(255), stock INT, version BIGINT)");
+            atomicLagMonitor.check();
+        }
+
+        @AfterEach
+        void tearDown() {
+            replica.execute("DROP TABLE ingredient");
+        }
+
+        @Test
+        void stockLevelsAreReadFromThePrimary() {
+            Ingredient bread = atomicIngredients.save(new Ingredient("Bread", "-", 3));
+            replica.update("INSERT INTO ingredient VALUES (?, 'Bread', '-', 3, 0)", bread.getId());
+            new TransactionTemplate(atomicTransactionManager)
+                    .executeWithoutResult(status -> atomicLedger.reserve(Map.of(bread.getId(), 3)));
+
+            TransactionTemplate readOnly = new TransactionTemplate(atomicTransactionManager);
+            readOnly.setReadOnly(true);
+            Ingredient stale = readOnly.execute(status -> atomicIngredients.findById(bread.getId()).orElseThrow());
+            assertEquals(3, stale.getStock());
+
+            assertEquals(0, atomicLedger.available(stale));
+            assertEquals(Map.of(bread.getId(), 0), atomicLedger.available(List.of(stale)));
+            assertEquals(Map.of(bread.getId(), 0), readOnly.execute(status -> atomicLedger.available(List.of(stale))));
+        }
+    }
+}
@@ -5,6 +5,7 @@ import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import javax.crypto.SecretKey;
+import java.util.Date;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.web.server.ResponseStatusException;
@@ -14,6 +15,7 @@ import static org.junit.jupiter.api.Assertions.*;
 class JwtServiceTest {
 
     private static final String SECRET = "MDEyMzQ1Njc4OUFCQ0RFRjAxMjM0NTY3ODlBQkNERUY=";
+    private static final String NEW_SECRET = "RkVEQ0JBOTg3NjU0MzIxMEZFRENCQTk4NzY1NDMyMTA=";
 
     private JwtService jwtService;
 
@@ -58,6 +60,40 @@ class JwtServiceTest {
         assertThrows(ResponseStatusException.class, () -> jwtService.extractVerifiedUserDetails("abc.def.ghi"));
     }
 
+    @Test
+    void extractVerifiedUserDetails_TokenSignedWithPreviousSecret_IsAccepted() {
+        String oldToken = jwtService.createToken(new JwtUserDetails("carol", "STAFF"));
+        JwtService rotated = new JwtService(NEW_SECRET, 60000L, new String[]{SECRET});
+
+        var details = rotated.extractVerifiedUserDetails(oldToken);
+
+        assertTrue(details.isPresent());
+        assertEquals("carol", details.get().username());
+    }
+
+    @Test
+    void extractVerifiedUserDetails_TokenSignedWithRetiredSecret_ShouldThrow() {
+        String oldToken = jwtService.createToken(new JwtUserDetails("carol", "STAFF"));
+        JwtService rotated = new JwtService(NEW_SECRET, 60000L);
+
+        assertThrows(ResponseStatusException.class, () -> rotated.extractVerifiedUserDetails(oldToken));
+    }
+
+    @Test
+    void extractVerifiedUserDetails_TokenWithoutKeyId_UsesCurrentSecret() {
+        String legacyToken = Jwts.builder()
+                .subject("dave")
+                .claim("role", "USER")
+                .expiration(new Date(System.currentTimeMillis() + 60000L))
+                .signWith(signingKey(), Jwts.SIG.HS256)
+                .compact();
+
+        var details = jwtService.extractVerifiedUserDetails(legacyToken);
+
+        assertTrue(details.isPresent());
+        assertEquals("dave", details.get().username());
+    }
+
     private Claims parseClaims(String token) {
         return Jwts.parser()
                 .verifyWith(signingKey())
@@ -0,0 +1,100 @@
+package ar.uba.fi.ingsoft1.product_example.config.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginAttemptTrackerTest {
+
+    private static final long WINDOW = Duration.ofMinutes(15).toMillis();
+
+    private MutableClock clock;
+    private LoginAttemptTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        tracker = new LoginAttemptTracker(WINDOW, clock);
+    }
+
+    @Test
+    void countsFailuresPerUsername() {
+        assertEquals(1, tracker.recordFailure("alice"));
+        assertEquals(2, tracker.recordFailure("alice"));
+        assertEquals(1, tracker.recordFailure("bob"));
+
+        assertEquals(2, tracker.failures("alice"));
+        assertEquals(0, tracker.failures("carol"));
+    }
+
+    @Test
+    void failuresSlideOutOfTheWindow() {
+        tracker.recordFailure("alice");
+        clock.advance(Duration.ofMinutes(10));
+        tracker.recordFailure("alice");
+
+        clock.advance(Duration.ofMinutes(6));
+        assertEquals(1, tracker.failures("alice"));
+        assertEquals(2, tracker.recordFailure("alice"));
+    }
+
+    @Test
+    void resetForgetsFailures() {
+        tracker.recordFailure("alice");
+        tracker.reset("alice");
+
+        assertEquals(0, tracker.failures("alice"));
+    }
+
+    @Test
+    void countIsCappedAtTrackedFailures() {
+        int last = 0;
+        for (int i = 0; i < 100; i++) {
+            last = tracker.recordFailure("alice");
+        }
+        assertEquals(32, last);
+    }
+
+    @Test
+    void evictionDropsOnlyExpiredWindows() {
+        tracker.recordFailure("alice");
+        clock.advance(Duration.ofMinutes(10));
+        tracker.recordFailure("bob");
+
+        clock.advance(Duration.ofMinutes(6));
+        tracker.evictExpired();
+
+        assertEquals(0, tracker.failures("alice"));
+        assertEquals(1, tracker.failures("bob"));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ar.uba.fi.ingsoft1.product_example.config.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        if (hasher != null) {
+            hasher.shutdown();
+        }
+    }
+
+    @Test
+    void encodedPasswordMatchesAndUsesConfiguredStrength() {
+        hasher = new PasswordHasher(4, 1, 4, 5000L, registry);
+
+        String hash = hasher.encode("secret");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(hasher.matches("secret", hash));
+        assertFalse(hasher.matches("other", hash));
+        assertEquals(1, registry.get("password.hashing.duration").tag("operation", "encode").timer().count());
+        assertEquals(2, registry.get("password.hashing.duration").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void needsRehashWhenStoredCostDiffers() {
+        hasher = new PasswordHasher(5, 1, 4, 5000L, registry);
+
+        assertTrue(hasher.needsRehash(new BCryptPasswordEncoder(4).encode("secret")));
+        assertFalse(hasher.needsRehash(new BCryptPasswordEncoder(5).encode("secret")));
+        assertTrue(hasher.needsRehash("plain-text"));
+        assertTrue(hasher.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+    }
+
+    @Test
+    void saturatedPoolFailsFastWithTooManyRequests() throws Exception {
+        hasher = new PasswordHasher(12, 1, 1, 60_000L, registry);
+        CountDownLatch started = new CountDownLatch(2);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        List<Future<String>> inFlight = new ArrayList<>();
+        try {
+            for (int i = 0; i < 2; i++) {
+                inFlight.add(callers.submit(() -> {
+                    started.countDown();
+                    return hasher.encode("secret");
+                }));
+            }
+            started.await();
+            // One hash is running and one is queued, so a third has nowhere to go.
+            while (registry.get("password.hashing.queue.depth").gauge().value() < 1) {
+                Thread.onSpinWait();
+            }
+
+            ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> hasher.encode("secret"));
+            assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatusCode());
+            assertEquals(1.0, registry.get("password.hashing.rejected").counter().count());
+        } finally {
+            hasher.shutdown();
+            callers.shutdownNow();
+            callers.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void calibrationNeverGoesBelowDefaultCost() {
+        assertEquals(10, PasswordHasher.calibrate(1));
+    }
+}
@@ -0,0 +1,145 @@
+package ar.uba.fi.ingsoft1.product_example.config.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private MutableClock clock;
+    private RateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        limiter = new RateLimiter(true, new MockEnvironment(), clock);
+    }
+
+    @Test
+    void burstUpToCapacityThenRejects() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(RateLimiter.Policy.PASSWORD_RESET_EMAIL, "a@example.com"));
+        }
+        assertFalse(limiter.tryAcquire(RateLimiter.Policy.PASSWORD_RESET_EMAIL, "a@example.com"));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> limiter.acquire(RateLimiter.Policy.PASSWORD_RESET_EMAIL, "a@example.com"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatusCode());
+    }
+
+    @Test
+    void keysAndPoliciesHaveSeparateBuckets() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(RateLimiter.Policy.PASSWORD_RESET_EMAIL, "a@example.com");
+        }
+
+        assertTrue(limiter.tryAcquire(RateLimiter.Policy.PASSWORD_RESET_EMAIL, "b@example.com"));
+        assertTrue(limiter.tryAcquire(RateLimiter.Policy.PASSWORD_RESET_CLIENT, "a@example.com"));
+    }
+
+    @Test
+    void tokensRefillOverTime() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(RateLimiter.Policy.PASSWORD_RESET_EMAIL, "a@example.com");
+        }
+
+        clock.advance(Duration.ofMinutes(4));
+        assertFalse(limiter.tryAcquire(RateLimiter.Policy.PASSWORD_RESET_EMAIL, "a@example.com"));
+
+        clock.advance(Duration.ofMinutes(1));
+        assertTrue(limiter.tryAcquire(RateLimiter.Policy.PASSWORD_RESET_EMAIL, "a@example.com"));
+        assertFalse(limiter.tryAcquire(RateLimiter.Policy.PASSWORD_RESET_EMAIL, "a@example.com"));
+    }
+
+    @Test
+    void fullyRefilledBucketsAreEvicted() {
+        limiter.tryAcquire(RateLimiter.Policy.LOGIN_USERNAME, "alice");
+        limiter.tryAcquire(RateLimiter.Policy.PASSWORD_RESET_EMAIL, "a@example.com");
+
+        clock.advance(Duration.ofMinutes(1));
+        limiter.evictFull();
+        assertEquals(1, limiter.size());
+
+        clock.advance(Duration.ofMinutes(5));
+        limiter.evictFull();
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    void limitsComeFromProperties() {
+        RateLimiter configured = new RateLimiter(true, new MockEnvironment()
+                .withProperty("security.rate-limit.password-reset-email.capacity", "1")
+                .withProperty("security.rate-limit.password-reset-email.refill-period-ms", "1000"), clock);
+
+        assertTrue(configured.tryAcquire(RateLimiter.Policy.PASSWORD_RESET_EMAIL, "a@example.com"));
+        assertFalse(configured.tryAcquire(RateLimiter.Policy.PASSWORD_RESET_EMAIL, "a@example.com"));
+
+        clock.advance(Duration.ofSeconds(1));
+        assertTrue(configured.tryAcquire(RateLimiter.Policy.PASSWORD_RESET_EMAIL, "a@example.com"));
+    }
+
+    @Test
+    void invalidLimitIsRejected() {
+        MockEnvironment properties = new MockEnvironment()
+                .withProperty("security.rate-limit.login-client.capacity", "0");
+
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(true, properties, clock));
+    }
+
+    @Test
+    void checkDoesNotTakeTokensUntilCharged() {
+        for (int i = 0; i < 10; i++) {
+            limiter.check(RateLimiter.Policy.PASSWORD_RESET_CLIENT, "10.0.0.1");
+        }
+        assertEquals(0, limiter.size());
+
+        for (int i = 0; i < 10; i++) {
+            limiter.charge(RateLimiter.Policy.PASSWORD_RESET_CLIENT, "10.0.0.1");
+        }
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> limiter.check(RateLimiter.Policy.PASSWORD_RESET_CLIENT, "10.0.0.1"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatusCode());
+    }
+
+    @Test
+    void disabledLimiterAlwaysAllows() {
+        RateLimiter disabled = new RateLimiter(false, new MockEnvironment(), clock);
+        for (int i = 0; i < 10; i++) {
+            disabled.acquire(RateLimiter.Policy.PASSWORD_RESET_EMAIL, "a@example.com");
+        }
+        assertEquals(0, disabled.size());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
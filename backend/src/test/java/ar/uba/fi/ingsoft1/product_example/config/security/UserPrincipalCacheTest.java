@@ -0,0 +1,107 @@
+package ar.uba.fi.ingsoft1.product_example.config.security;
+
+import ar.uba.fi.ingsoft1.product_example.user.User;
+import ar.uba.fi.ingsoft1.product_example.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UserPrincipalCacheTest {
+
+    private static final long TTL = 60_000L;
+
+    private UserRepository userRepository;
+    private MutableClock clock;
+    private UserPrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername(anyString())).thenAnswer(invocation ->
+                Optional.of(new User(invocation.getArgument(0), "hash", "ROLE_USER", 1L)));
+        clock = new MutableClock();
+        cache = new UserPrincipalCache(userRepository, TTL, 2, clock);
+    }
+
+    @Test
+    void repeatedLookupsHitTheDatabaseOnce() {
+        User first = cache.principalFor("alice").orElseThrow();
+        User second = cache.principalFor("alice").orElseThrow();
+
+        assertEquals(1L, second.getId());
+        assertEquals("ROLE_USER", second.getRole());
+        assertNull(first.getPassword());
+        verify(userRepository, times(1)).findByUsername("alice");
+    }
+
+    @Test
+    void entriesExpireAfterTtl() {
+        cache.principalFor("alice");
+        clock.advance(Duration.ofMillis(TTL + 1));
+        cache.principalFor("alice");
+
+        verify(userRepository, times(2)).findByUsername("alice");
+    }
+
+    @Test
+    void invalidateReloadsTheUser() {
+        cache.principalFor("alice");
+        when(userRepository.findByUsername("alice"))
+                .thenReturn(Optional.of(new User("alice", "hash", "ROLE_ADMIN", 1L)));
+
+        cache.invalidate("alice");
+
+        assertEquals("ROLE_ADMIN", cache.principalFor("alice").orElseThrow().getRole());
+    }
+
+    @Test
+    void unknownUsersAreNotCached() {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertTrue(cache.principalFor("ghost").isEmpty());
+        assertTrue(cache.principalFor("ghost").isEmpty());
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+
+    @Test
+    void cacheStaysWithinMaxSize() {
+        cache.principalFor("a");
+        cache.principalFor("b");
+        cache.principalFor("c");
+
+        assertEquals(2, cache.size());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
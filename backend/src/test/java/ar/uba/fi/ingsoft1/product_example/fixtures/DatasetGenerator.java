@@ -0,0 +1,457 @@
+package ar.uba.fi.ingsoft1.product_example.fixtures;
+
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Bulk-loads a synthetic catalog, users and order history straight into the schema Hibernate
+ * creates, for benchmarks and query-plan checks that are meaningless against {@code data.sql}.
+ * The same seed and size always produce the same rows. Rows are appended after the highest
+ * existing id of each table and the id sequences are moved past them afterwards, so the
+ * application keeps working on top of the generated data.
+ *
+ * <p>Shapes follow a lunch service: about one ingredient in ten is out of stock, a few products
+ * and combos get most of the orders, three quarters of the orders land between 11:30 and 14:30,
+ * and only the last day of history has orders that are not complete or canceled.
+ *
+ * <p>From a test, {@code new DatasetGenerator(42).load(dataSource, DatasetSize.SMALL)}. From the
+ * command line, against a schema the backend has already created:
+ * <pre>
+ * mvn -Pdataset test-compile exec:exec -Ddataset.args="--url=jdbc:postgresql://127.0.0.1:20001/products --size=production"
+ * </pre>
+ */
+public final class DatasetGenerator {
+
+    public static final String PASSWORD = "password";
+    // BCrypt of PASSWORD at cost 4; hashing once per user would dominate the load
+    static final String PASSWORD_HASH = "$2a$04$FpKYgBium7Ye4W4wK..M0uU6gzjCkncCiVtXvTBccRwmqaSjY0Tqa";
+    static final LocalDate HISTORY_END = LocalDate.of(2025, 6, 30);
+
+    private static final String[] STATES = {"confirmed", "in preparation", "finished", "delivered", "canceled"};
+    private static final long CONFIRMED = 1;
+    private static final long IN_PREPARATION = 2;
+    private static final long READY = 3;
+    private static final long COMPLETE = 4;
+    private static final long CANCELED = 5;
+
+    private static final int LUNCH_START = 11 * 3600 + 30 * 60;
+    private static final int LUNCH_END = 14 * 3600 + 30 * 60;
+    private static final int DAY_START = 8 * 3600;
+    private static final int DAY_END = 20 * 3600;
+
+    private static final String[][] SEQUENCES = {
+            {"ingredient", "ingredient_seq"},
+            {"tag", "tag_seq"},
+            {"product", "product_seq"},
+            {"combo", "combo_seq"},
+            {"menu_section", "menu_section_seq"},
+            {"promotion", "promotion_seq"},
+            {"users", "users_seq"},
+            {"order_status", "order_status_seq"},
+            {"orders", "orders_seq"},
+            {"order_details", "order_details_seq"}
+    };
+
+    /** Where generated rows go, one table at a time. */
+    interface Sink {
+        Table open(String table, String... columns) throws SQLException;
+    }
+
+    interface Table extends AutoCloseable {
+        void row(Object... values) throws SQLException;
+
+        @Override
+        void close() throws SQLException;
+    }
+
+    /** Highest id already present in each table; generated ids start right after it. */
+    record Offsets(long ingredient, long tag, long product, long combo, long menuSection, long promotion,
+                   long user, long order, long orderDetail) {
+        static final Offsets NONE = new Offsets(0, 0, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    public record Result(DatasetSize size, long seed, long orderDetails, Duration elapsed) {
+    }
+
+    private final long seed;
+
+    public DatasetGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public Result load(DataSource dataSource, DatasetSize size) throws SQLException {
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                ensureOrderStates(connection);
+                long orderDetails = write(size, offsets(connection), new JdbcTables(connection));
+                restartSequences(connection);
+                connection.commit();
+                return new Result(size, seed, orderDetails, Duration.ofNanos(System.nanoTime() - started));
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Generates every row into {@code sink}, parents before children, and returns the number of
+     * order details written.
+     */
+    long write(DatasetSize size, Offsets ids, Sink sink) throws SQLException {
+        Random random = new Random(seed);
+
+        try (Table table = sink.open("ingredient", "id", "name", "description", "stock", "version")) {
+            for (int i = 1; i <= size.ingredients(); i++) {
+                int stock = random.nextInt(10) == 0 ? 0 : 50 + random.nextInt(5_000);
+                table.row(ids.ingredient() + i, "Ingredient " + i, "Synthetic ingredient", stock, 0L);
+            }
+        }
+        try (Table table = sink.open("tag", "id", "tag")) {
+            for (int i = 1; i <= size.tags(); i++) {
+                table.row(ids.tag() + i, "Tag " + i);
+            }
+        }
+
+        BigDecimal[] productPrices = new BigDecimal[size.products()];
+        int[][] productIngredients = new int[size.products()][];
+        int[][] productTags = new int[size.products()][];
+        try (Table table = sink.open("product", "id", "name", "description", "price")) {
+            for (int i = 0; i < size.products(); i++) {
+                productPrices[i] = price(random, 500, 60);
+                productIngredients[i] = distinct(random, 2 + random.nextInt(5), size.ingredients());
+                productTags[i] = distinct(random, random.nextInt(4), size.tags());
+                table.row(ids.product() + i + 1, "Product " + (i + 1), "Synthetic product", productPrices[i]);
+            }
+        }
+        try (Table table = sink.open("product_ingredient", "id_prod", "id_ing", "quantity")) {
+            for (int i = 0; i < size.products(); i++) {
+                for (int ingredient : productIngredients[i]) {
+                    table.row(ids.product() + i + 1, ids.ingredient() + ingredient + 1, 1 + random.nextInt(3));
+                }
+            }
+        }
+        try (Table table = sink.open("product_tag", "product_id", "tag_id")) {
+            for (int i = 0; i < size.products(); i++) {
+                for (int tag : productTags[i]) {
+                    table.row(ids.product() + i + 1, ids.tag() + tag + 1);
+                }
+            }
+        }
+
+        BigDecimal[] comboPrices = new BigDecimal[size.combos()];
+        int[][] comboProducts = new int[size.combos()][];
+        int[][] comboTags = new int[size.combos()][];
+        try (Table table = sink.open("combo", "id", "name", "description", "price")) {
+            for (int i = 0; i < size.combos(); i++) {
+                comboPrices[i] = price(random, 2_000, 40);
+                comboProducts[i] = distinct(random, 2 + random.nextInt(3), size.products());
+                comboTags[i] = distinct(random, random.nextInt(3), size.tags());
+                table.row(ids.combo() + i + 1, "Combo " + (i + 1), "Synthetic combo", comboPrices[i]);
+            }
+        }
+        try (Table table = sink.open("combo_product", "combo_id", "product_id", "quantity")) {
+            for (int i = 0; i < size.combos(); i++) {
+                for (int product : comboProducts[i]) {
+                    table.row(ids.combo() + i + 1, ids.product() + product + 1, 1 + random.nextInt(2));
+                }
+            }
+        }
+        try (Table table = sink.open("combo_tag", "combo_id", "tag_id")) {
+            for (int i = 0; i < size.combos(); i++) {
+                for (int tag : comboTags[i]) {
+                    table.row(ids.combo() + i + 1, ids.tag() + tag + 1);
+                }
+            }
+        }
+
+        try (Table table = sink.open("menu_section", "id", "label", "description")) {
+            for (int i = 1; i <= size.menuSections(); i++) {
+                table.row(ids.menuSection() + i, "Section " + i, "Synthetic menu section");
+            }
+        }
+        try (Table table = sink.open("menu_section_product", "menu_section_id", "product_id")) {
+            for (int i = 0; i < size.products(); i++) {
+                table.row(ids.menuSection() + i % size.menuSections() + 1, ids.product() + i + 1);
+            }
+        }
+        try (Table table = sink.open("menu_section_combo", "menu_section_id", "combo_id")) {
+            for (int i = 0; i < size.combos(); i++) {
+                table.row(ids.menuSection() + i % size.menuSections() + 1, ids.combo() + i + 1);
+            }
+        }
+
+        writePromotions(size, ids, sink, random);
+
+        try (Table table = sink.open("users", "id", "username", "password", "role", "verified", "locked",
+                "failed_login_attempts", "nombre", "apellido")) {
+            for (int i = 1; i <= size.users(); i++) {
+                long id = ids.user() + i;
+                table.row(id, "student" + id + "@fi.uba.ar", PASSWORD_HASH, role(i), true, false, 0,
+                        "Student", "Number " + id);
+            }
+        }
+
+        return writeOrders(size, ids, sink, random, productPrices, comboPrices);
+    }
+
+    private void writePromotions(DatasetSize size, Offsets ids, Sink sink, Random random) throws SQLException {
+        int[][] products = new int[size.promotions()][];
+        int[][] combos = new int[size.promotions()][];
+        try (Table table = sink.open("promotion", "id", "active", "name", "description")) {
+            for (int i = 0; i < size.promotions(); i++) {
+                products[i] = distinct(random, 1 + random.nextInt(5), size.products());
+                combos[i] = distinct(random, random.nextInt(3), size.combos());
+                // Most promotions in a long-lived database are old ones that were switched off
+                table.row(ids.promotion() + i + 1, random.nextInt(3) == 0, "Promotion " + (i + 1), "Synthetic promotion");
+            }
+        }
+        try (Table buyXPayY = sink.open("buy_x_pay_y_promo", "id", "buy_quantity", "pay_quantity")) {
+            for (int i = 0; i < size.promotions(); i += 4) {
+                int buy = 2 + random.nextInt(2);
+                buyXPayY.row(ids.promotion() + i + 1, buy, buy - 1);
+            }
+        }
+        try (Table percentage = sink.open("percentage_discount_promo", "id", "percentage")) {
+            for (int i = 1; i < size.promotions(); i += 4) {
+                percentage.row(ids.promotion() + i + 1, BigDecimal.valueOf(5 + 5L * random.nextInt(6)).setScale(2));
+            }
+        }
+        try (Table giveFree = sink.open("buy_give_free_promo", "id", "one_free_per_trigger")) {
+            for (int i = 2; i < size.promotions(); i += 4) {
+                giveFree.row(ids.promotion() + i + 1, random.nextBoolean());
+            }
+        }
+        try (Table threshold = sink.open("threshold_discount_promo", "id", "threshold", "discount")) {
+            for (int i = 3; i < size.promotions(); i += 4) {
+                threshold.row(ids.promotion() + i + 1, price(random, 5_000, 20), price(random, 200, 10));
+            }
+        }
+        try (Table table = sink.open("promotion_products", "promotion_id", "product_id")) {
+            for (int i = 0; i < size.promotions(); i++) {
+                for (int product : products[i]) {
+                    table.row(ids.promotion() + i + 1, ids.product() + product + 1);
+                }
+            }
+        }
+        try (Table table = sink.open("promotion_combos", "promotion_id", "combo_id")) {
+            for (int i = 0; i < size.promotions(); i++) {
+                for (int combo : combos[i]) {
+                    table.row(ids.promotion() + i + 1, ids.combo() + combo + 1);
+                }
+            }
+        }
+        try (Table table = sink.open("buy_give_free_products", "buy_give_free_promotion_id", "free_products_id")) {
+            for (int i = 2; i < size.promotions(); i += 4) {
+                table.row(ids.promotion() + i + 1, ids.product() + random.nextInt(size.products()) + 1);
+            }
+        }
+    }
+
+    // Orders go out one day at a time, each day's orders before its details, so that no batch or
+    // COPY ever references an order that has not been written yet.
+    private long writeOrders(DatasetSize size, Offsets ids, Sink sink, Random random,
+                             BigDecimal[] productPrices, BigDecimal[] comboPrices) throws SQLException {
+        long nextOrder = ids.order();
+        long nextDetail = ids.orderDetail();
+        for (int day = 0; day < size.historyDays(); day++) {
+            int count = size.orders() / size.historyDays() + (day < size.orders() % size.historyDays() ? 1 : 0);
+            if (count == 0) {
+                continue;
+            }
+            LocalDateTime midnight = HISTORY_END.minusDays(size.historyDays() - 1L - day).atStartOfDay();
+            boolean lastDay = day == size.historyDays() - 1;
+
+            int[] seconds = new int[count];
+            for (int i = 0; i < count; i++) {
+                seconds[i] = random.nextInt(4) == 0
+                        ? DAY_START + random.nextInt(DAY_END - DAY_START)
+                        : LUNCH_START + random.nextInt(LUNCH_END - LUNCH_START);
+            }
+            Arrays.sort(seconds);
+
+            Object[][] details = new Object[count * size.maxLinesPerOrder()][];
+            int detailCount = 0;
+            try (Table orders = sink.open("orders", "id", "user_id", "creation_date", "estimated_delivery_time",
+                    "discount", "total_price", "state_id")) {
+                for (int i = 0; i < count; i++) {
+                    long orderId = ++nextOrder;
+                    LocalDateTime created = midnight.plusSeconds(seconds[i]);
+                    int lines = 1 + (int) (size.maxLinesPerOrder() * square(random));
+                    BigDecimal total = BigDecimal.ZERO.setScale(2);
+                    for (int line = 0; line < lines; line++) {
+                        boolean combo = comboPrices.length > 0 && random.nextInt(5) == 0;
+                        int item = (int) ((combo ? comboPrices.length : productPrices.length) * square(random));
+                        BigDecimal price = combo ? comboPrices[item] : productPrices[item];
+                        int quantity = random.nextInt(10) < 7 ? 1 : 1 + random.nextInt(3);
+                        BigDecimal lineTotal = price.multiply(BigDecimal.valueOf(quantity));
+                        total = total.add(lineTotal);
+                        details[detailCount++] = new Object[]{
+                                ++nextDetail,
+                                orderId,
+                                combo ? null : ids.product() + item + 1,
+                                combo ? ids.combo() + item + 1 : null,
+                                quantity,
+                                price,
+                                BigDecimal.ZERO.setScale(2),
+                                lineTotal
+                        };
+                    }
+                    long state = state(random, lastDay);
+                    LocalDateTime estimated = state == CONFIRMED || state == CANCELED
+                            ? null
+                            : created.plusMinutes(10 + random.nextInt(21));
+                    orders.row(orderId, ids.user() + random.nextInt(size.users()) + 1, created, estimated,
+                            BigDecimal.ZERO.setScale(2), total, state);
+                }
+            }
+            try (Table table = sink.open("order_details", "id", "order_id", "product_id", "combo_id", "quantity",
+                    "price", "discount", "total_price")) {
+                for (int i = 0; i < detailCount; i++) {
+                    table.row(details[i]);
+                }
+            }
+        }
+        return nextDetail - ids.orderDetail();
+    }
+
+    private static long state(Random random, boolean lastDay) {
+        int roll = random.nextInt(100);
+        if (!lastDay) {
+            return roll < 95 ? COMPLETE : CANCELED;
+        }
+        if (roll < 30) {
+            return CONFIRMED;
+        }
+        if (roll < 50) {
+            return IN_PREPARATION;
+        }
+        if (roll < 70) {
+            return READY;
+        }
+        return roll < 95 ? COMPLETE : CANCELED;
+    }
+
+    private static String role(int i) {
+        if (i <= 2) {
+            return "ROLE_ADMIN";
+        }
+        if (i <= 7) {
+            return "ROLE_STAFF";
+        }
+        return i <= 12 ? "ROLE_KITCHEN" : "ROLE_USER";
+    }
+
+    private static BigDecimal price(Random random, int base, int steps) {
+        return BigDecimal.valueOf(base + 50L * random.nextInt(steps)).setScale(2);
+    }
+
+    // Skews picks towards low indexes, so a few items get most of the orders
+    private static double square(Random random) {
+        double u = random.nextDouble();
+        return u * u;
+    }
+
+    private static int[] distinct(Random random, int count, int bound) {
+        Set<Integer> picked = new LinkedHashSet<>();
+        int wanted = Math.min(count, bound);
+        while (picked.size() < wanted) {
+            picked.add(random.nextInt(bound));
+        }
+        return picked.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static void ensureOrderStates(Connection connection) throws SQLException {
+        try (PreparedStatement exists = connection.prepareStatement("SELECT COUNT(*) FROM order_status WHERE id = ?");
+             PreparedStatement insert = connection.prepareStatement("INSERT INTO order_status (id, name) VALUES (?, ?)")) {
+            for (int i = 0; i < STATES.length; i++) {
+                exists.setLong(1, i + 1);
+                try (ResultSet rs = exists.executeQuery()) {
+                    rs.next();
+                    if (rs.getLong(1) > 0) {
+                        continue;
+                    }
+                }
+                insert.setLong(1, i + 1);
+                insert.setString(2, STATES[i]);
+                insert.executeUpdate();
+            }
+        }
+    }
+
+    private static Offsets offsets(Connection connection) throws SQLException {
+        Map<String, Long> max = new HashMap<>();
+        for (String[] sequence : SEQUENCES) {
+            max.put(sequence[0], maxId(connection, sequence[0]));
+        }
+        return new Offsets(max.get("ingredient"), max.get("tag"), max.get("product"), max.get("combo"),
+                max.get("menu_section"), max.get("promotion"), max.get("users"), max.get("orders"),
+                max.get("order_details"));
+    }
+
+    // Hibernate's pooled-lo optimizer hands out [value, value + increment), so restarting at
+    // max + 1 is enough for the next block to start after the generated rows.
+    private static void restartSequences(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String[] sequence : SEQUENCES) {
+                statement.execute("ALTER SEQUENCE " + sequence[1] + " RESTART WITH " + (maxId(connection, sequence[0]) + 1));
+            }
+        }
+    }
+
+    private static long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * {@code --url=<jdbc url>} (required), {@code --username}, {@code --password},
+     * {@code --size=small|medium|production}, {@code --orders=<count>} and {@code --seed}.
+     */
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        String url = options.get("url");
+        if (url == null) {
+            throw new IllegalArgumentException("--url is required");
+        }
+        DatasetSize size = DatasetSize.named(options.getOrDefault("size", "small"));
+        if (options.containsKey("orders")) {
+            size = size.withOrders(Integer.parseInt(options.get("orders")));
+        }
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+        DataSource dataSource = new DriverManagerDataSource(url,
+                options.getOrDefault("username", "postgres"), options.getOrDefault("password", "dev-password"));
+        Result result = new DatasetGenerator(seed).load(dataSource, size);
+        System.out.printf("Loaded %s with seed %d: %d orders, %d order details in %d s%n",
+                size, seed, size.orders(), result.orderDetails(), result.elapsed().toSeconds());
+    }
+}
@@ -0,0 +1,96 @@
+package ar.uba.fi.ingsoft1.product_example.fixtures;
+
+import ar.uba.fi.ingsoft1.product_example.Products.Product;
+import ar.uba.fi.ingsoft1.product_example.Products.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.datasource.url=jdbc:h2:mem:dataset;DB_CLOSE_DELAY=-1;NON_KEYWORDS=DAY"
+})
+class DatasetGeneratorTest {
+
+    private static final DatasetSize SIZE = DatasetSize.SMALL.withOrders(600);
+
+    @MockBean
+    private JavaMailSender javaMailSender;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void sameSeedGeneratesSameRows() throws SQLException {
+        Map<String, List<List<Object>>> first = record(42);
+        Map<String, List<List<Object>>> second = record(42);
+        Map<String, List<List<Object>>> other = record(7);
+
+        assertEquals(first, second);
+        assertNotEquals(first.get("orders"), other.get("orders"));
+        assertEquals(SIZE.orders(), first.get("orders").size());
+        assertEquals(SIZE.products(), first.get("product").size());
+    }
+
+    @Test
+    void loadsIntoTheSchemaAndKeepsTheApplicationWorking() throws SQLException {
+        DatasetGenerator.Result result = new DatasetGenerator(42).load(dataSource, SIZE);
+
+        assertEquals(SIZE.products(), count("product"));
+        assertEquals(SIZE.combos(), count("combo"));
+        assertEquals(SIZE.promotions(), count("promotion"));
+        assertEquals(SIZE.users(), count("users"));
+        assertEquals(SIZE.orders(), count("orders"));
+        assertEquals(result.orderDetails(), count("order_details"));
+        assertTrue(result.orderDetails() >= SIZE.orders());
+
+        int inStock = productRepository.findProductsWithAllIngredientsInStock().size();
+        assertTrue(inStock > 0 && inStock < SIZE.products(), "some products should miss an ingredient");
+
+        long generatedMax = jdbcTemplate.queryForObject("SELECT MAX(id) FROM product", Long.class);
+        Product saved = productRepository.save(new Product("After the load", "-", BigDecimal.TEN));
+        assertTrue(saved.getId() > generatedMax);
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private static Map<String, List<List<Object>>> record(long seed) throws SQLException {
+        Map<String, List<List<Object>>> rows = new LinkedHashMap<>();
+        new DatasetGenerator(seed).write(SIZE, DatasetGenerator.Offsets.NONE, (table, columns) -> {
+            List<List<Object>> tableRows = rows.computeIfAbsent(table, t -> new ArrayList<>());
+            return new DatasetGenerator.Table() {
+                @Override
+                public void row(Object... values) {
+                    tableRows.add(new ArrayList<>(Arrays.asList(values)));
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        });
+        return rows;
+    }
+}
@@ -0,0 +1,50 @@
+package ar.uba.fi.ingsoft1.product_example.fixtures;
+
+import java.util.Locale;
+
+/**
+ * How much {@link DatasetGenerator} loads. {@link #SMALL} is sized for tests, {@link #MEDIUM} for
+ * benchmarks on a laptop and {@link #PRODUCTION} for query-plan checks at the size of a full year
+ * of lunches.
+ */
+public record DatasetSize(
+        int ingredients,
+        int tags,
+        int products,
+        int combos,
+        int menuSections,
+        int promotions,
+        int users,
+        int orders,
+        int maxLinesPerOrder,
+        int historyDays
+) {
+    public static final DatasetSize SMALL = new DatasetSize(50, 10, 200, 40, 8, 20, 100, 2_000, 4, 30);
+    public static final DatasetSize MEDIUM = new DatasetSize(500, 40, 2_000, 400, 20, 100, 5_000, 200_000, 5, 180);
+    public static final DatasetSize PRODUCTION = new DatasetSize(2_000, 100, 5_000, 1_000, 30, 300, 30_000, 2_000_000, 6, 365);
+
+    public DatasetSize {
+        if (ingredients < 1 || products < 1 || menuSections < 1 || users < 1 || maxLinesPerOrder < 1 || historyDays < 1) {
+            throw new IllegalArgumentException("A dataset needs at least one ingredient, product, menu section, "
+                    + "user, line per order and day of history");
+        }
+        if (tags < 0 || combos < 0 || promotions < 0 || orders < 0) {
+            throw new IllegalArgumentException("Counts cannot be negative");
+        }
+    }
+
+    public static DatasetSize named(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "small" -> SMALL;
+            case "medium" -> MEDIUM;
+            case "production" -> PRODUCTION;
+            default -> throw new IllegalArgumentException("Unknown dataset size: " + name
+                    + " (expected small, medium or production)");
+        };
+    }
+
+    public DatasetSize withOrders(int orders) {
+        return new DatasetSize(ingredients, tags, products, combos, menuSections, promotions, users, orders,
+                maxLinesPerOrder, historyDays);
+    }
+}
@@ -0,0 +1,136 @@
+package ar.uba.fi.ingsoft1.product_example.fixtures;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+
+/**
+ * Writes generated rows over one JDBC connection with auto-commit off, committing every
+ * {@value #COMMIT_EVERY} rows. On PostgreSQL rows are streamed with {@code COPY ... FROM STDIN};
+ * anywhere else they go through batched prepared statements of {@value #BATCH} rows.
+ */
+final class JdbcTables implements DatasetGenerator.Sink {
+
+    private static final int BATCH = 1_000;
+    private static final int COMMIT_EVERY = 20_000;
+
+    private final Connection connection;
+    private final boolean copy;
+
+    JdbcTables(Connection connection) throws SQLException {
+        this.connection = connection;
+        this.copy = connection.isWrapperFor(PGConnection.class);
+    }
+
+    @Override
+    public DatasetGenerator.Table open(String table, String... columns) throws SQLException {
+        String columnList = String.join(", ", columns);
+        if (copy) {
+            return new CopyTable(connection.unwrap(PGConnection.class).getCopyAPI(),
+                    "COPY " + table + " (" + columnList + ") FROM STDIN WITH (FORMAT csv)");
+        }
+        String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
+        return new BatchTable(connection.prepareStatement(
+                "INSERT INTO " + table + " (" + columnList + ") VALUES (" + placeholders + ")"));
+    }
+
+    private final class BatchTable implements DatasetGenerator.Table {
+
+        private final PreparedStatement statement;
+        private long rows;
+
+        private BatchTable(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        @Override
+        public void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                statement.setObject(i + 1, values[i]);
+            }
+            statement.addBatch();
+            rows++;
+            if (rows % BATCH == 0) {
+                statement.executeBatch();
+            }
+            if (rows % COMMIT_EVERY == 0) {
+                connection.commit();
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try (statement) {
+                statement.executeBatch();
+                connection.commit();
+            }
+        }
+    }
+
+    private final class CopyTable implements DatasetGenerator.Table {
+
+        private final CopyManager copyManager;
+        private final String sql;
+        private final StringBuilder buffer = new StringBuilder();
+        private long rows;
+
+        private CopyTable(CopyManager copyManager, String sql) {
+            this.copyManager = copyManager;
+            this.sql = sql;
+        }
+
+        @Override
+        public void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                appendCsv(values[i]);
+            }
+            buffer.append('\n');
+            rows++;
+            if (rows % COMMIT_EVERY == 0) {
+                flush();
+            }
+        }
+
+        // In CSV mode an unquoted empty field is NULL and a quoted one is an empty string
+        private void appendCsv(Object value) {
+            if (value == null) {
+                return;
+            }
+            if (value instanceof String text) {
+                buffer.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else if (value instanceof BigDecimal decimal) {
+                buffer.append(decimal.toPlainString());
+            } else {
+                buffer.append(value);
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            try {
+                copyManager.copyIn(sql, new StringReader(buffer.toString()));
+            } catch (IOException e) {
+                throw new SQLException("COPY failed: " + sql, e);
+            }
+            buffer.setLength(0);
+            connection.commit();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package ar.uba.fi.ingsoft1.product_example.user;
 
-import ar.uba.fi.ingsoft1.product_example.common.EmailService;
 import ar.uba.fi.ingsoft1.product_example.config.security.JwtService;
+import ar.uba.fi.ingsoft1.product_example.config.security.LoginAttemptTracker;
+import ar.uba.fi.ingsoft1.product_example.config.security.RateLimiter;
+import ar.uba.fi.ingsoft1.product_example.config.security.UserPrincipalCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,10 +11,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Optional;
 
@@ -34,9 +38,6 @@ class PasswordResetControllerTest {
     @MockBean
     private PasswordEncoder passwordEncoder;
 
-    @MockBean
-    private EmailService emailService;
-
     @MockBean
     private UserService userService;
 
@@ -46,6 +47,15 @@ class PasswordResetControllerTest {
     @MockBean
     private JwtService jwtService;
 
+    @MockBean
+    private UserPrincipalCache userPrincipalCache;
+
+    @MockBean
+    private RateLimiter rateLimiter;
+
+    @MockBean
+    private LoginAttemptTracker loginAttemptTracker;
+
     private User user;
 
     @BeforeEach
@@ -58,9 +68,7 @@ class PasswordResetControllerTest {
 
     @Test
     void requestPasswordReset_validEmail_returns200_andSendsEmail() throws Exception {
-        when(userRepository.findByUsername("john@example.com"))
-                .thenReturn(Optional.of(user));
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userService.requestPasswordReset("john@example.com")).thenReturn(true);
 
         PasswordResetRequestDTO dto = new PasswordResetRequestDTO("john@example.com");
 
@@ -70,18 +78,12 @@ class PasswordResetControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message", is("You will receive a recovery code")));
 
-        verify(userRepository).save(argThat(saved ->
-                saved.getVerificationCode() != null &&
-                saved.getVerificationCode().length() == 6
-        ));
-
-        verify(emailService).sendPasswordResetEmail(eq("john@example.com"), anyString());
+        verify(userService).requestPasswordReset("john@example.com");
     }
 
     @Test
     void requestPasswordReset_invalidEmail_returns200_invalidMessage() throws Exception {
-        when(userRepository.findByUsername("nope@example.com"))
-                .thenReturn(Optional.empty());
+        when(userService.requestPasswordReset("nope@example.com")).thenReturn(false);
 
         PasswordResetRequestDTO dto = new PasswordResetRequestDTO("nope@example.com");
 
@@ -90,9 +92,6 @@ class PasswordResetControllerTest {
                         .content(objectMapper.writeValueAsString(dto)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message", is("Invalid email")));
-
-        verify(emailService, never()).sendPasswordResetEmail(any(), any());
-        verify(userRepository, never()).save(any());
     }
 
     @Test
@@ -152,5 +151,22 @@ class PasswordResetControllerTest {
                 !saved.isLocked() &&
                 saved.getFailedLoginAttempts() == 0
         ));
+        verify(userPrincipalCache).invalidate("john@example.com");
+        verify(loginAttemptTracker).reset("john@example.com");
+    }
+
+    @Test
+    void requestPasswordReset_rateLimited_returns429() throws Exception {
+        doThrow(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS))
+                .when(rateLimiter).acquire(RateLimiter.Policy.PASSWORD_RESET_EMAIL, "john@example.com");
+
+        PasswordResetRequestDTO dto = new PasswordResetRequestDTO("john@example.com");
+
+        mockMvc.perform(post("/users/password-reset/request")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isTooManyRequests());
+
+        verify(userService, never()).requestPasswordReset(anyString());
     }
 }
@@ -1,7 +1,9 @@
 package ar.uba.fi.ingsoft1.product_example.user;
 
 import ar.uba.fi.ingsoft1.product_example.config.security.JwtService;
+import ar.uba.fi.ingsoft1.product_example.config.security.RateLimiter;
 import ar.uba.fi.ingsoft1.product_example.config.security.SecurityConfig;
+import ar.uba.fi.ingsoft1.product_example.config.security.UserPrincipalCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,8 +12,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Optional;
 
@@ -33,6 +37,12 @@ class SessionRestControllerTest {
     @MockBean
     private JwtService jwtService;
 
+    @MockBean
+    private UserPrincipalCache userPrincipalCache;
+
+    @MockBean
+    private RateLimiter rateLimiter;
+
     @MockBean
     private UserRepository userRepository;
 
@@ -63,6 +73,9 @@ class SessionRestControllerTest {
                 .andExpect(status().isCreated())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.accessToken").value("mocked-jwt-token"));
+
+        Mockito.verify(rateLimiter).check(RateLimiter.Policy.LOGIN_CLIENT, "127.0.0.1");
+        Mockito.verify(rateLimiter, Mockito.never()).charge(any(), any());
     }
 
     @Test
@@ -73,6 +86,34 @@ class SessionRestControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(userLoginDTO)))
                 .andExpect(status().isUnauthorized());
+
+        Mockito.verify(rateLimiter).charge(RateLimiter.Policy.LOGIN_CLIENT, "127.0.0.1");
+    }
+
+    @Test
+    void login_rateLimited_returns429WithoutCheckingCredentials() throws Exception {
+        Mockito.doThrow(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS))
+                .when(rateLimiter).acquire(RateLimiter.Policy.LOGIN_USERNAME, "john.doe@example.com");
+
+        mockMvc.perform(post("/sessions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userLoginDTO)))
+                .andExpect(status().isTooManyRequests());
+
+        Mockito.verify(userService, Mockito.never()).loginUser(any());
+    }
+
+    @Test
+    void login_clientOverFailureLimit_returns429WithoutCheckingCredentials() throws Exception {
+        Mockito.doThrow(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS))
+                .when(rateLimiter).check(RateLimiter.Policy.LOGIN_CLIENT, "127.0.0.1");
+
+        mockMvc.perform(post("/sessions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userLoginDTO)))
+                .andExpect(status().isTooManyRequests());
+
+        Mockito.verify(userService, Mockito.never()).loginUser(any());
     }
 
     @Test
@@ -1,8 +1,8 @@
 package ar.uba.fi.ingsoft1.product_example.user;
 
-import ar.uba.fi.ingsoft1.product_example.common.EmailService;
 import ar.uba.fi.ingsoft1.product_example.config.security.JwtService;
 import ar.uba.fi.ingsoft1.product_example.config.security.SecurityConfig;
+import ar.uba.fi.ingsoft1.product_example.config.security.UserPrincipalCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,7 +14,6 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mock.web.MockMultipartFile;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Optional;
@@ -34,9 +33,6 @@ class UserRestControllerTest {
     @MockBean
     private JavaMailSender javaMailSender;
 
-    @MockBean
-    private EmailService emailService;
-
     @MockBean
     private UserService userService;
 
@@ -44,13 +40,13 @@ class UserRestControllerTest {
     private JwtService jwtService;
 
     @MockBean
-    private SecurityConfig securityConfig;
+    private UserPrincipalCache userPrincipalCache;
 
     @MockBean
-    private UserRepository userRepository;
+    private SecurityConfig securityConfig;
 
     @MockBean
-    private PasswordEncoder passwordEncoder; // ← Este es el nuevo fix
+    private UserRepository userRepository;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -118,11 +114,8 @@ class UserRestControllerTest {
                 "securePassword"
                 );
 
-        Mockito.when(userRepository.findByUsername(userRegisterDTO.email()))
-                .thenReturn(Optional.empty());
-
-        Mockito.when(passwordEncoder.encode(Mockito.anyString()))
-                .thenReturn("encodedPassword");
+        Mockito.when(userService.register(any(UserRegisterDTO.class), any()))
+                .thenReturn(true);
 
         MockMultipartFile userPart = new MockMultipartFile(
                 "user",
@@ -144,6 +137,8 @@ class UserRestControllerTest {
                         .contentType(MediaType.MULTIPART_FORM_DATA))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message").value("Code sent to: " + userRegisterDTO.email()));
+
+        Mockito.verify(userService).register(userRegisterDTO, "fake-image-content".getBytes());
     }
 
     @Test
@@ -158,8 +153,8 @@ class UserRestControllerTest {
                 "securePassword"
         );
 
-        Mockito.when(userRepository.findByUsername(userRegisterDTO.email()))
-                .thenReturn(Optional.of(new User()));
+        Mockito.when(userService.register(any(UserRegisterDTO.class), any()))
+                .thenReturn(false);
 
         MockMultipartFile userPart = new MockMultipartFile(
                 "user",
@@ -255,6 +250,8 @@ class UserRestControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message")
                         .value("Role updated successfully for user: " + user.getEmail()));
+
+        Mockito.verify(userPrincipalCache).invalidate("john.doe@example.com");
     }
 
     @Test
@@ -0,0 +1,70 @@
+package ar.uba.fi.ingsoft1.product_example.user;
+
+import ar.uba.fi.ingsoft1.product_example.config.security.PasswordHasher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+// Hashing waits on a bounded pool; no transaction, and so no pooled connection, may be held meanwhile.
+@SpringBootTest(properties = "spring.sql.init.mode=never")
+class UserServiceHashingTest {
+
+    private static final String PASSWORD = "password";
+
+    @MockBean
+    private JavaMailSender javaMailSender;
+
+    @SpyBean
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Map<Object, Object>> resourcesWhileHashing = new ArrayList<>();
+
+    @BeforeEach
+    void recordBoundResources() {
+        doAnswer(invocation -> {
+            resourcesWhileHashing.add(Map.copyOf(TransactionSynchronizationManager.getResourceMap()));
+            return invocation.callRealMethod();
+        }).when(passwordHasher).encode(any());
+        doAnswer(invocation -> {
+            resourcesWhileHashing.add(Map.copyOf(TransactionSynchronizationManager.getResourceMap()));
+            return invocation.callRealMethod();
+        }).when(passwordHasher).matches(any(), any());
+    }
+
+    @Test
+    void registerAndLoginHashOutsideTransactions() {
+        UserRegisterDTO data = new UserRegisterDTO(
+                "Jane", "Doe", "hashing@example.com", 30, "F", "Calle Falsa 123", PASSWORD);
+        assertTrue(userService.register(data, null));
+        User user = userRepository.findByUsername("hashing@example.com").orElseThrow();
+        user.setVerified(true);
+        userRepository.save(user);
+
+        assertTrue(userService.loginUser(new UserLoginDTO("hashing@example.com", PASSWORD)).isPresent());
+        assertTrue(userService.loginUser(new UserLoginDTO("hashing@example.com", "wrong")).isEmpty());
+        assertTrue(userService.createUser(new UserCreateDTO("hashing-new@example.com", PASSWORD, "ROLE_USER", null))
+                .isPresent());
+
+        assertEquals(4, resourcesWhileHashing.size());
+        resourcesWhileHashing.forEach(resources -> assertEquals(Map.of(), resources));
+    }
+}
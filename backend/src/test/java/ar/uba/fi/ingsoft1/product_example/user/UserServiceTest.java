@@ -3,48 +3,69 @@ package ar.uba.fi.ingsoft1.product_example.user;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import ar.uba.fi.ingsoft1.product_example.common.EmailService;
 import ar.uba.fi.ingsoft1.product_example.config.security.JwtService;
+import ar.uba.fi.ingsoft1.product_example.config.security.LoginAttemptTracker;
+import ar.uba.fi.ingsoft1.product_example.config.security.PasswordHasher;
+import ar.uba.fi.ingsoft1.product_example.config.security.UserPrincipalCache;
 import ar.uba.fi.ingsoft1.product_example.user.refresh_token.RefreshTokenService;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 class UserServiceTest {
 
     private UserService userService;
+    private UserPrincipalCache principalCache;
+    private PasswordHasher passwordHasher;
+    private User user;
+    private UserRepository userRepository;
+    private EmailService emailService;
 
     private static final String USERNAME = "user";
     private static final String PASSWORD = "password";
 
     @BeforeEach
     void setup() {
-        var passwordEncoder = new BCryptPasswordEncoder();
-        var passwordHash = passwordEncoder.encode(PASSWORD);
+        passwordHasher = new PasswordHasher(4, 1, 8, 5000L, new SimpleMeterRegistry());
+        var passwordHash = passwordHasher.encode(PASSWORD);
 
-        var user = new User(USERNAME, passwordHash, "ROLE_USER", 1L);
+        user = new User(USERNAME, passwordHash, "ROLE_USER", 1L);
         user.setVerified(true);
         user.setFailedLoginAttempts(0);
 
         // Mock del repositorio de usuarios
-        UserRepository userRepository = mock();
+        userRepository = mock();
         when(userRepository.findByUsername(anyString()))
                 .thenReturn(Optional.empty());
         when(userRepository.findByUsername(USERNAME))
                 .thenReturn(Optional.of(user));
 
+        principalCache = mock(UserPrincipalCache.class);
+        emailService = mock(EmailService.class);
+
         var key = "0".repeat(64);
         userService = new UserService(
                 new JwtService(key, 1L),
-                passwordEncoder,
+                passwordHasher,
                 userRepository,
-                new RefreshTokenService(1L, 20, mock()),
-                mock(EmailService.class)
+                new RefreshTokenService(1L, 20, 10, 1000, mock(), mock()),
+                emailService,
+                principalCache,
+                new LoginAttemptTracker(900_000L),
+                mock()
         );
     }
 
@@ -64,6 +85,47 @@ class UserServiceTest {
         assertEquals(Optional.empty(), response);
     }
 
+    @Test
+    void loginRehashesPasswordStoredWithDifferentCost() {
+        user.setPassword(new BCryptPasswordEncoder(5).encode(PASSWORD));
+
+        userService.loginUser(new UserLoginDTO(USERNAME, PASSWORD)).orElseThrow();
+
+        assertTrue(user.getPassword().startsWith("$2a$04$"));
+        assertTrue(passwordHasher.matches(PASSWORD, user.getPassword()));
+    }
+
+    @Test
+    void wrongPasswordBelowThresholdDoesNotWriteTheUser() {
+        for (int i = 0; i < UserService.MAX_ATTEMPTS - 1; i++) {
+            userService.loginUser(new UserLoginDTO(USERNAME, PASSWORD + "_wrong"));
+        }
+
+        verify(userRepository, never()).save(any());
+        assertFalse(user.isLocked());
+        assertEquals(0, user.getFailedLoginAttempts());
+    }
+
+    @Test
+    void reachingThresholdLocksAndPersistsOnce() {
+        for (int i = 0; i < UserService.MAX_ATTEMPTS; i++) {
+            userService.loginUser(new UserLoginDTO(USERNAME, PASSWORD + "_wrong"));
+        }
+
+        verify(userRepository, times(1)).save(user);
+        assertTrue(user.isLocked());
+        assertEquals(UserService.MAX_ATTEMPTS, user.getFailedLoginAttempts());
+    }
+
+    @Test
+    void lockingAccountInvalidatesCachedPrincipal() {
+        for (int i = 0; i < UserService.MAX_ATTEMPTS; i++) {
+            userService.loginUser(new UserLoginDTO(USERNAME, PASSWORD + "_wrong"));
+        }
+
+        verify(principalCache).invalidate(USERNAME);
+    }
+
     @Test
     void loginNonexistentUser() {
         var response = userService.loginUser(
@@ -83,6 +145,52 @@ class UserServiceTest {
         assertTrue(response.isPresent());
     }
 
+    @Test
+    void registerStoresUnverifiedUserAndQueuesVerificationEmail() {
+        UserRegisterDTO data = new UserRegisterDTO(
+                "Jane", "Doe", "jane@example.com", 30, "F", "Calle Falsa 123", PASSWORD);
+        byte[] photo = {1, 2, 3};
+
+        assertTrue(userService.register(data, photo));
+
+        verify(userRepository).save(argThat(saved ->
+                saved.getEmail().equals("jane@example.com")
+                        && !saved.isVerified()
+                        && saved.getFoto() == photo
+                        && passwordHasher.matches(PASSWORD, saved.getPassword())
+                        && !passwordHasher.needsRehash(saved.getPassword())
+        ));
+        verify(emailService).sendVerificationEmail(eq("jane@example.com"), anyString());
+    }
+
+    @Test
+    void registerWithTakenEmailDoesNothing() {
+        UserRegisterDTO data = new UserRegisterDTO(
+                "Jane", "Doe", USERNAME, 30, "F", "Calle Falsa 123", PASSWORD);
+
+        assertFalse(userService.register(data, null));
+
+        verify(userRepository, never()).save(any());
+        verify(emailService, never()).sendVerificationEmail(any(), any());
+    }
+
+    @Test
+    void requestPasswordResetStoresCodeAndQueuesItsEmail() {
+        assertTrue(userService.requestPasswordReset(USERNAME));
+
+        verify(userRepository).save(argThat(saved ->
+                saved.getVerificationCode() != null && saved.getVerificationCode().length() == 6));
+        verify(emailService).sendPasswordResetEmail(USERNAME, user.getVerificationCode());
+    }
+
+    @Test
+    void requestPasswordResetForUnknownEmailDoesNothing() {
+        assertFalse(userService.requestPasswordReset("nope@example.com"));
+
+        verify(userRepository, never()).save(any());
+        verify(emailService, never()).sendPasswordResetEmail(any(), any());
+    }
+
     @Test
     void loadUserThatExists() {
         var userDetails = userService.loadUserByUsername(USERNAME);
@@ -0,0 +1,84 @@
+package ar.uba.fi.ingsoft1.product_example.user.refresh_token;
+
+import ar.uba.fi.ingsoft1.product_example.user.User;
+import ar.uba.fi.ingsoft1.product_example.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(RefreshTokenService.class)
+@TestPropertySource(properties = {
+        "spring.sql.init.mode=never",
+        "jwt.refresh.max-per-user=3",
+        "jwt.refresh.sweep-batch-size=10"
+})
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("ana@fi.uba.ar", "hash", "ROLE_USER", null));
+    }
+
+    @Test
+    void tokenIsStoredOnlyAsItsHashAndIsSingleUse() {
+        RefreshToken token = refreshTokenService.createFor(user);
+
+        assertFalse(refreshTokenRepository.existsById(token.value().getBytes()));
+        assertTrue(refreshTokenRepository.existsById(RefreshTokenHash.of(token.value())));
+
+        assertEquals(user.getId(), refreshTokenService.findByValue(token.value()).orElseThrow().user().getId());
+        assertTrue(refreshTokenService.findByValue(token.value()).isEmpty());
+    }
+
+    @Test
+    void unknownTokenIsRejected() {
+        assertTrue(refreshTokenService.findByValue("not-a-token").isEmpty());
+    }
+
+    @Test
+    void eachUserKeepsOnlyTheNewestTokens() {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            values.add(refreshTokenService.createFor(user).value());
+        }
+
+        assertEquals(3, refreshTokenRepository.count());
+        assertTrue(refreshTokenService.findByValue(values.get(0)).isEmpty());
+        assertTrue(refreshTokenService.findByValue(values.get(4)).isPresent());
+    }
+
+    @Test
+    void sweeperDeletesExpiredTokensInChunks() {
+        RefreshToken live = refreshTokenService.createFor(user);
+        Instant past = Instant.now().minusSeconds(60);
+        for (int i = 0; i < 25; i++) {
+            refreshTokenRepository.save(new RefreshToken("expired-" + i, user, past));
+        }
+
+        assertEquals(25, refreshTokenService.sweepExpired());
+
+        assertEquals(1, refreshTokenRepository.count());
+        assertTrue(refreshTokenService.findByValue(live.value()).isPresent());
+    }
+}
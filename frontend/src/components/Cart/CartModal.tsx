@@ -2,6 +2,7 @@ import { useMemo } from "react";
 import { Link } from "wouter";
 
 import { Modal } from "@/components/Modal/Modal";
+import { imageSrc } from "@/config/app-query-client";
 import { useProducts } from "@/components/Product/ProductContext";
 import styles from "@/components/CommonLayout/CommonLayout.module.css";
 import { useActivePromotionList } from "@/services/PromotionServices";
@@ -9,41 +10,7 @@ import { useCart } from "./Cart";
 
 const PLACEHOLDER_IMAGE = "https://via.placeholder.com/64";
 
-// Helper function to create a safe Data URL from image byte data
-const getImageUrl = (image: Uint8Array | undefined) => {
-  if (!image) return PLACEHOLDER_IMAGE;
-
-  let buffer: ArrayBuffer;
-  if (image instanceof Uint8Array) {
-    buffer = image.slice().buffer as ArrayBuffer;
-  } else if (typeof image === "object" && image !== null && "byteLength" in image) {
-    buffer = new Uint8Array(image as ArrayBufferLike).slice().buffer as ArrayBuffer;
-  } else {
-    return PLACEHOLDER_IMAGE;
-  }
-
-  const view = new Uint8Array(buffer);
-  let mimeType = "image/jpeg";
-  if (view.length > 4) {
-    if (view[0] === 0x89 && view[1] === 0x50 && view[2] === 0x4e && view[3] === 0x47) {
-      mimeType = "image/png";
-    } else if (view[0] === 0x47 && view[1] === 0x49 && view[2] === 0x46 && view[3] === 0x38) {
-      mimeType = "image/gif";
-    }
-  }
-
-  // Convert Uint8Array to a base64 string
-  let binary = "";
-  const bytes = new Uint8Array(buffer);
-  const len = bytes.byteLength;
-  for (let i = 0; i < len; i++) {
-    binary += String.fromCharCode(bytes[i]);
-  }
-  const base64String = window.btoa(binary);
-
-  // Return a Data URL instead of a Blob URL
-  return `data:${mimeType};base64,${base64String}`;
-};
+const getImageUrl = (imageUrl?: string | null) => imageSrc(imageUrl) ?? PLACEHOLDER_IMAGE;
 
 type CartModalProps = {
   show: boolean;
@@ -90,7 +57,7 @@ export const CartModal = ({ show, onClose }: CartModalProps) => {
           }
         });
 
-        const imageUrl = getImageUrl(data.image);
+        const imageUrl = getImageUrl(data.imageUrl);
 
         return {
           key: `${item.type}-${item.id}`,
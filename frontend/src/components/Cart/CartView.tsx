@@ -1,6 +1,7 @@
-import React, { useEffect, useMemo, useState } from "react";
+import React, { useMemo, useState } from "react";
 
 import { CommonLayout } from "@/components/CommonLayout/CommonLayout";
+import { imageSrc } from "@/config/app-query-client";
 import { useActivePromotionList } from "@/services/PromotionServices";
 
 import { OrderService } from "../../services/OrderService";
@@ -13,33 +14,9 @@ import { NormalizedPromotion } from "@/models/Promotion";
 const PLACEHOLDER_IMAGE = "https://via.placeholder.com/80";
 
 type PotentialGift = { id: number; type: "product" | "combo"; quantity: number };
-type DisplayGift = { id: number; name: string; image?: Uint8Array; quantity: number; isCompensated: boolean; type: "product" | "combo" };
-
-const getImageUrl = (image: Uint8Array | undefined) => {
-  if (!image) return PLACEHOLDER_IMAGE;
-
-  let buffer: ArrayBuffer;
-  if (image instanceof Uint8Array) {
-    buffer = image.slice().buffer as unknown as ArrayBuffer;
-  } else if (typeof image === "object" && image !== null && "byteLength" in image) {
-    buffer = new Uint8Array(image as ArrayBufferLike).slice().buffer as unknown as ArrayBuffer;
-  } else {
-    return PLACEHOLDER_IMAGE;
-  }
-
-  const view = new Uint8Array(buffer);
-  let mimeType = "image/jpeg";
-  if (view.length > 4) {
-    if (view[0] === 0x89 && view[1] === 0x50 && view[2] === 0x4e && view[3] === 0x47) {
-      mimeType = "image/png";
-    } else if (view[0] === 0x47 && view[1] === 0x49 && view[2] === 0x46 && view[3] === 0x38) {
-      mimeType = "image/gif";
-    }
-  }
+type DisplayGift = { id: number; name: string; imageUrl?: string | null; quantity: number; isCompensated: boolean; type: "product" | "combo" };
 
-  const blob = new Blob([buffer], { type: mimeType });
-  return URL.createObjectURL(blob);
-};
+const getImageUrl = (imageUrl?: string | null) => imageSrc(imageUrl) ?? PLACEHOLDER_IMAGE;
 
 export const CartView: React.FC = () => {
   const { validItems, updateQuantity, removeFromCart, clearCart, appliedThresholdPromotions } = useCart();
@@ -204,7 +181,7 @@ export const CartView: React.FC = () => {
 
         if (!data) return null;
 
-        const imageUrl = getImageUrl(data.image);
+        const imageUrl = getImageUrl(data.imageUrl);
         const quantityToPay = compensatedItem.quantity;
         const originalSubtotal = data.price * quantityToPay;
 
@@ -258,7 +235,7 @@ export const CartView: React.FC = () => {
       finalEarnedGifts.push({
         id,
         name: entity?.name ?? `Compensated Item #${id}`,
-        image: entity?.image,
+        imageUrl: entity?.imageUrl,
         quantity,
         isCompensated: true,
         type
@@ -270,7 +247,7 @@ export const CartView: React.FC = () => {
       finalEarnedGifts.push({
         id,
         name: entity?.name ?? `Free Item #${id}`,
-        image: entity?.image,
+        imageUrl: entity?.imageUrl,
         quantity,
         isCompensated: false,
         type
@@ -287,22 +264,6 @@ export const CartView: React.FC = () => {
     return { displayCartItems, displayEarnedGifts: finalEarnedGifts, calculatedTotalPrice };
   }, [validItems, productsMap, combosMap, promotions, totalEarnedGifts, appliedThresholdPromotions]);
 
-  useEffect(() => {
-    return () => {
-      displayCartItems.forEach(({ imageUrl }) => {
-        if (imageUrl.startsWith("blob:")) {
-          URL.revokeObjectURL(imageUrl);
-        }
-      });
-      displayEarnedGifts.forEach((gift) => {
-        const imageUrl = getImageUrl(gift.image);
-        if (imageUrl.startsWith("blob:")) {
-          URL.revokeObjectURL(imageUrl);
-        }
-      });
-    };
-  }, [displayCartItems, displayEarnedGifts]);
-
   if (validItems.length === 0) {
     return (
       <CommonLayout>
@@ -401,7 +362,7 @@ export const CartView: React.FC = () => {
                     border: gift.isCompensated ? "1px solid #bfdbfe" : "none" 
                   }}
                 >
-                  <img src={getImageUrl(gift.image)} alt={gift.name} className={styles.cartItemImage} />
+                  <img src={getImageUrl(gift.imageUrl)} alt={gift.name} className={styles.cartItemImage} />
                   <div className={styles.cartItemInfo}>
                     <span className={styles.itemName}>{gift.name}</span>
                     <span 
@@ -172,7 +172,7 @@ export const Menu = ({ menuSections }: MenuProps) => {
                     <Product
                       key={`${item.type}-${item.id}`}
                       id={item.id}
-                      image={item.image}
+                      imageUrl={item.imageUrl}
                       title={item.name}
                       description={item.description}
                       price={item.price}
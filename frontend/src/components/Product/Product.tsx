@@ -1,11 +1,12 @@
 import { useUserRole } from "@/services/TokenContext";
 import "./Product.css";
-import { useEffect, useMemo, useState } from "react";
+import { useMemo, useState } from "react";
+import { imageSrc } from "@/config/app-query-client";
 import { NormalizedPromotion } from "@/models/Promotion";
 
 interface ProductProps {
   id: number;
-  image?: Uint8Array;
+  imageUrl?: string | null;
   title: string;
   description: string;
   price: number;
@@ -16,35 +17,9 @@ interface ProductProps {
   promotions?: NormalizedPromotion[];
 }
 
-const getImageUrl = (image?: Uint8Array) => {
-  if (!image) return undefined;
-
-  let buffer: ArrayBuffer;
-  if (image instanceof Uint8Array) {
-    buffer = image.slice().buffer as unknown as ArrayBuffer;
-  } else if (typeof image === "object" && image !== null && "byteLength" in image) {
-    buffer = new Uint8Array(image as ArrayBufferLike).slice().buffer as unknown as ArrayBuffer;
-  } else {
-    return undefined;
-  }
-
-  const view = new Uint8Array(buffer);
-  let mimeType = "image/jpeg";
-  if (view.length > 4) {
-    if (view[0] === 0x89 && view[1] === 0x50 && view[2] === 0x4e && view[3] === 0x47) {
-      mimeType = "image/png";
-    } else if (view[0] === 0x47 && view[1] === 0x49 && view[2] === 0x46 && view[3] === 0x38) {
-      mimeType = "image/gif";
-    }
-  }
-
-  const blob = new Blob([buffer], { type: mimeType });
-  return URL.createObjectURL(blob);
-};
-
 export default function Product({
   id,
-  image,
+  imageUrl,
   title,
   description,
   price,
@@ -54,16 +29,6 @@ export default function Product({
   available,
   promotions = [],
 }: ProductProps) {
-  const imageUrl = useMemo(() => getImageUrl(image), [image]);
-
-  useEffect(() => {
-    return () => {
-      if (imageUrl && imageUrl.startsWith("blob:")) {
-        URL.revokeObjectURL(imageUrl);
-      }
-    };
-  }, [imageUrl]);
-
   const [showCartControls, setShowCartControls] = useState(false);
   const [quantity, setQuantity] = useState(1);
   const userRole = useUserRole();
@@ -167,7 +132,7 @@ export default function Product({
         ))}
       </div>
       <div className="product-media">
-        <img className="product-image" src={imageUrl} alt={title} loading="lazy" />
+        <img className="product-image" src={imageSrc(imageUrl)} alt={title} loading="lazy" />
       </div>
       <div className="product-body">
         <div className="product-content">
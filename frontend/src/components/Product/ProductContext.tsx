@@ -6,7 +6,7 @@ export type MenuItem = {
   description: string;
   price: number;
   tags?: Record<number, string>;
-  image?: Uint8Array;
+  imageUrl?: string | null;
   available: boolean;
 };
 
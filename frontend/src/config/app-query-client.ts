@@ -2,4 +2,7 @@ import { QueryClient } from "@tanstack/react-query";
 
 export const BASE_API_URL = window._env_.baseApiUrl || import.meta.env.VITE_BASE_API_URL;
 
+// Product and combo image URLs come relative to the API root
+export const imageSrc = (imageUrl?: string | null) => (imageUrl ? `${BASE_API_URL}${imageUrl}` : undefined);
+
 export const appQueryClient = new QueryClient({});
@@ -19,7 +19,7 @@ export const ComboSchema = z.object({
   tags: TagsMapSchema,
   products: ProductsMapSchema,
   menuSections: MenuSectionsMapSchema,
-  image: z.string().optional(),
+  imageUrl: z.string().nullish(),
 });
 
 export const ComboListSchema = z.array(ComboSchema);
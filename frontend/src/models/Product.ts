@@ -18,7 +18,7 @@ export const ProductSchema = z.object({
   tags: TagsMapSchema,
   ingredients: IngredientsMapSchema,
   menuSections: MenuSectionsMapSchema,
-  image: z.string().optional(),
+  imageUrl: z.string().nullish(),
 });
 
 export const ProductListSchema = z.array(ProductSchema);